@@ -0,0 +1,108 @@
+package com.bird.flysword;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import com.bird.flysword.headless.HeadlessPlayer;
+import com.bird.flysword.headless.HeadlessServer;
+import com.bird.flysword.headless.HeadlessSwordRenderer;
+
+/**
+ * 在替身伺服器上啟動插件，供基準測試與模擬使用
+ * 資料夾為臨時目錄，配置以插件內建的 config.yml 為基礎再套用覆寫；
+ * 只初始化模組並啟動飛行引擎，不註冊指令與監聽器，飛劍以只計數的渲染器取代
+ */
+public final class HeadlessFlysword {
+
+    private final HeadlessServer server;
+    private final Flysword plugin;
+    private final HeadlessSwordRenderer renderer;
+    private final Path dataFolder;
+
+    private HeadlessFlysword(HeadlessServer server, Flysword plugin, HeadlessSwordRenderer renderer, Path dataFolder) {
+        this.server = server;
+        this.plugin = plugin;
+        this.renderer = renderer;
+        this.dataFolder = dataFolder;
+    }
+
+    /**
+     * 啟動插件
+     *
+     * @param server 替身伺服器
+     * @param overrides 配置覆寫，鍵為配置路徑（如 "metrics.enabled"）
+     */
+    @SuppressWarnings("deprecation")
+    public static HeadlessFlysword start(HeadlessServer server, Map<String, Object> overrides) throws IOException {
+        Path dataFolder = Files.createTempDirectory("flysword-headless");
+        YamlConfiguration config;
+        try (InputStream in = Flysword.class.getClassLoader().getResourceAsStream("config.yml")) {
+            if (in == null) {
+                throw new IOException("找不到內建的 config.yml");
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                config = YamlConfiguration.loadConfiguration(reader);
+            }
+        }
+        for (Map.Entry<String, Object> entry : overrides.entrySet()) {
+            config.set(entry.getKey(), entry.getValue());
+        }
+        config.save(dataFolder.resolve("config.yml").toFile());
+
+        PluginDescriptionFile description = new PluginDescriptionFile("FlySword", "headless", Flysword.class.getName());
+        Flysword plugin = new Flysword(new JavaPluginLoader(server.getServer()), description,
+            dataFolder.toFile(), dataFolder.resolve("FlySword.jar").toFile());
+        HeadlessSwordRenderer renderer = new HeadlessSwordRenderer();
+        plugin.startServices(() -> renderer);
+        return new HeadlessFlysword(server, plugin, renderer, dataFolder);
+    }
+
+    public Flysword getPlugin() {
+        return plugin;
+    }
+
+    public HeadlessSwordRenderer getRenderer() {
+        return renderer;
+    }
+
+    public Path getDataFolder() {
+        return dataFolder;
+    }
+
+    /**
+     * 讓替身玩家上線並預先載入玩家數據，與真實登入時的 AsyncPlayerPreLoginEvent 相同
+     */
+    public HeadlessPlayer join(String name, Location location) {
+        HeadlessPlayer player = server.join(name, location);
+        if (!plugin.getDataManager().preloadPlayerData(player.getUniqueId())) {
+            throw new IllegalStateException("無法載入 " + name + " 的玩家數據");
+        }
+        return player;
+    }
+
+    /**
+     * 關閉插件、取消殘留的任務並刪除臨時目錄
+     */
+    public void stop() {
+        plugin.onDisable();
+        server.reset();
+        try (Stream<Path> paths = Files.walk(dataFolder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            server.getLogger().warning("無法刪除臨時目錄 " + dataFolder + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.bird.flysword.headless;
+
+import java.util.UUID;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.util.Vector;
+
+/**
+ * 替身玩家
+ * 保存位置、朝向、速度與蹲下狀態，擁有所有權限，主手沒有物品（不消耗耐久度）；
+ * 伺服器不會替它移動，由呼叫者每 tick 呼叫 {@link #step()} 依速度前進，模擬客戶端套用插件設定的速度
+ *
+ * 收到的粒子、音效、訊息與傳送只計數，不保存內容
+ */
+public final class HeadlessPlayer {
+
+    public static final double EYE_HEIGHT = 1.62;
+
+    private final UUID uuid;
+    private final String name;
+    private final Player player;
+    private final Vector velocity = new Vector();
+    private World world;
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    private boolean sneaking;
+    private boolean online = true;
+    private ItemStack mainHand;
+    private long particlesReceived;
+    private long soundsReceived;
+    private long messagesReceived;
+    private long teleports;
+
+    HeadlessPlayer(UUID uuid, String name, Location location) {
+        this.uuid = uuid;
+        this.name = name;
+        setLocation(location);
+        PlayerInventory inventory = StandIn.create(PlayerInventory.class, "HeadlessInventory[" + name + "]", s -> s
+            .on("getItemInMainHand", args -> mainHand)
+            .on("setItemInMainHand", args -> {
+                mainHand = (ItemStack) args[0];
+                return null;
+            }));
+        this.player = StandIn.create(Player.class, "HeadlessPlayer[" + name + "]", s -> s
+            .returns("getUniqueId", uuid)
+            .returns("getName", name)
+            .returns("getDisplayName", name)
+            .returns("getPlayerListName", name)
+            .on("getLocation", args -> args.length == 0 ? getLocation() : copyLocation((Location) args[0]))
+            .on("getEyeLocation", args -> getLocation().add(0.0, EYE_HEIGHT, 0.0))
+            .returns("getEyeHeight", EYE_HEIGHT)
+            .on("getWorld", args -> world)
+            .on("getVelocity", args -> velocity.clone())
+            .on("setVelocity", args -> {
+                Vector value = (Vector) args[0];
+                velocity.setX(value.getX()).setY(value.getY()).setZ(value.getZ());
+                return null;
+            })
+            .on("teleport", args -> {
+                Location target = args[0] instanceof Entity ? ((Entity) args[0]).getLocation() : (Location) args[0];
+                setLocation(target);
+                teleports++;
+                return true;
+            })
+            .on("isSneaking", args -> sneaking)
+            .on("setSneaking", args -> {
+                sneaking = (Boolean) args[0];
+                return null;
+            })
+            .on("isOnline", args -> online)
+            .on("isValid", args -> online)
+            .returns("isDead", false)
+            .returns("getHealth", 20.0)
+            .returns("getGameMode", GameMode.SURVIVAL)
+            .returns("hasPermission", true)
+            .returns("isPermissionSet", true)
+            .returns("canSee", true)
+            .returns("getClientViewDistance", 10)
+            .returns("getPing", 0)
+            .returns("getInventory", inventory)
+            .on("sendMessage", args -> {
+                messagesReceived++;
+                return null;
+            })
+            .on("spawnParticle", args -> {
+                particlesReceived++;
+                return null;
+            })
+            .on("playSound", args -> {
+                soundsReceived++;
+                return null;
+            }));
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Location getLocation() {
+        return new Location(world, x, y, z, yaw, pitch);
+    }
+
+    /**
+     * 目前高度，不配置 Location
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * 與伺服器相同，將目前位置寫入傳入的 Location 並回傳它，不配置新物件
+     */
+    private Location copyLocation(Location location) {
+        if (location != null) {
+            location.setWorld(world);
+            location.setX(x);
+            location.setY(y);
+            location.setZ(z);
+            location.setYaw(yaw);
+            location.setPitch(pitch);
+        }
+        return location;
+    }
+
+    public void setLocation(Location location) {
+        this.world = location.getWorld();
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+    }
+
+    /**
+     * 設定視線方向（度），與客戶端轉動視角相同
+     */
+    public void setRotation(float yaw, float pitch) {
+        this.yaw = yaw;
+        this.pitch = Math.max(-90.0f, Math.min(90.0f, pitch));
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+
+    public boolean isSneaking() {
+        return sneaking;
+    }
+
+    public void setSneaking(boolean sneaking) {
+        this.sneaking = sneaking;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    void setOnline(boolean online) {
+        this.online = online;
+    }
+
+    public Vector getVelocity() {
+        return velocity.clone();
+    }
+
+    public void setMainHand(ItemStack item) {
+        this.mainHand = item;
+    }
+
+    /**
+     * 依目前速度前進一個 tick，不做方塊碰撞（飛行引擎自行處理障礙物）
+     */
+    public void step() {
+        x += velocity.getX();
+        y += velocity.getY();
+        z += velocity.getZ();
+    }
+
+    public long getParticlesReceived() {
+        return particlesReceived;
+    }
+
+    public long getSoundsReceived() {
+        return soundsReceived;
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    public long getTeleports() {
+        return teleports;
+    }
+}
@@ -0,0 +1,209 @@
+package com.bird.flysword.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * 由呼叫者推進的排程器
+ * 每次 tick 依建立順序（即任務編號順序）執行到期的同步任務，與伺服器相同；
+ * 在 tick 中途建立的任務最早於下一個 tick 執行，非同步任務交給背景線程池
+ *
+ * 任務拋出的例外與伺服器相同只記錄警告，不中斷其他任務；
+ * 建立與取消任務可由任何線程呼叫，tick 只能由單一線程（視為主線程）呼叫
+ */
+public final class HeadlessScheduler {
+
+    private final Object lock = new Object();
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> added = new ArrayList<>();
+    private final Map<Integer, Task> tasksById = new ConcurrentHashMap<>();
+    private final ExecutorService asyncExecutor;
+    private final Logger logger;
+    private final BukkitScheduler scheduler;
+    private volatile Thread mainThread;
+    private int nextId = 1;
+    private long currentTick;
+
+    HeadlessScheduler(Logger logger) {
+        this.logger = logger;
+        this.asyncExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "Headless-Async");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = StandIn.create(BukkitScheduler.class, "HeadlessScheduler", s -> s
+            .on("runTask", args -> schedule(args[0], args[1], 0L, -1L, false).handle)
+            .on("runTaskLater", args -> schedule(args[0], args[1], ticks(args[2]), -1L, false).handle)
+            .on("runTaskTimer", args -> schedule(args[0], args[1], ticks(args[2]), ticks(args[3]), false).handle)
+            .on("runTaskAsynchronously", args -> schedule(args[0], args[1], 0L, -1L, true).handle)
+            .on("runTaskLaterAsynchronously", args -> schedule(args[0], args[1], ticks(args[2]), -1L, true).handle)
+            .on("runTaskTimerAsynchronously", args -> schedule(args[0], args[1], ticks(args[2]), ticks(args[3]), true).handle)
+            .on("scheduleSyncDelayedTask", args -> schedule(args[0], args[1],
+                args.length > 2 ? ticks(args[2]) : 0L, -1L, false).id)
+            .on("scheduleSyncRepeatingTask", args -> schedule(args[0], args[1],
+                ticks(args[2]), ticks(args[3]), false).id)
+            .on("callSyncMethod", args -> {
+                FutureTask<?> future = new FutureTask<>((Callable<?>) args[1]);
+                schedule(args[0], future, 0L, -1L, false);
+                return future;
+            })
+            .on("cancelTask", args -> {
+                cancel((Integer) args[0]);
+                return null;
+            })
+            .on("cancelTasks", args -> {
+                cancelAll();
+                return null;
+            })
+            .on("isQueued", args -> {
+                Task task = tasksById.get((Integer) args[0]);
+                return task != null && !task.cancelled;
+            })
+            .on("isCurrentlyRunning", args -> false)
+            .on("getPendingTasks", args -> tasksById.values().stream().map(task -> task.handle).collect(Collectors.toList()))
+            .on("getActiveWorkers", args -> new ArrayList<>()));
+    }
+
+    public BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 推進一個 tick，呼叫的線程視為主線程
+     */
+    public void tick() {
+        mainThread = Thread.currentThread();
+        currentTick++;
+        synchronized (lock) {
+            tasks.addAll(added);
+            added.clear();
+        }
+        for (int i = 0, n = tasks.size(); i < n; i++) {
+            Task task = tasks.get(i);
+            if (task.cancelled || task.nextRun > currentTick) {
+                continue;
+            }
+            if (task.period > 0) {
+                task.nextRun = currentTick + task.period;
+            } else {
+                task.cancelled = true;
+            }
+            if (task.async) {
+                asyncExecutor.execute(task::run);
+            } else {
+                task.run();
+            }
+        }
+        tasks.removeIf(task -> {
+            if (task.cancelled) {
+                tasksById.remove(task.id, task);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 目前線程是否為推進 tick 的線程；尚未推進過時視為主線程
+     */
+    public boolean isMainThread() {
+        Thread main = mainThread;
+        return main == null || main == Thread.currentThread();
+    }
+
+    /**
+     * 目前排定中的任務數量
+     */
+    public int getPendingCount() {
+        return tasksById.size();
+    }
+
+    /**
+     * 取消所有任務，插件關閉後清除未自行取消的任務
+     */
+    public void cancelAll() {
+        for (Task task : tasksById.values()) {
+            task.cancelled = true;
+        }
+        tasksById.clear();
+    }
+
+    private void cancel(int taskId) {
+        Task task = tasksById.remove(taskId);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    private Task schedule(Object owner, Object body, long delay, long period, boolean async) {
+        synchronized (lock) {
+            Task task = new Task(nextId++, (Plugin) owner, body, async);
+            // 與伺服器相同，延遲至少一個 tick
+            task.nextRun = currentTick + Math.max(1L, delay);
+            task.period = period;
+            tasksById.put(task.id, task);
+            added.add(task);
+            return task;
+        }
+    }
+
+    private static long ticks(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private final class Task {
+        final int id;
+        final Object body;
+        final boolean async;
+        final BukkitTask handle;
+        volatile boolean cancelled;
+        long nextRun;
+        long period;
+
+        Task(int id, Plugin owner, Object body, boolean async) {
+            this.id = id;
+            this.body = body;
+            this.async = async;
+            this.handle = StandIn.create(BukkitTask.class, "HeadlessTask#" + id, s -> s
+                .returns("getTaskId", id)
+                .returns("getOwner", owner)
+                .returns("isSync", !async)
+                .on("isCancelled", args -> cancelled)
+                .on("cancel", args -> {
+                    HeadlessScheduler.this.cancel(id);
+                    return null;
+                }));
+        }
+
+        @SuppressWarnings("unchecked")
+        void run() {
+            try {
+                if (body instanceof Runnable) {
+                    ((Runnable) body).run();
+                } else {
+                    ((Consumer<BukkitTask>) body).accept(handle);
+                }
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "任務 #" + id + " 執行時發生錯誤", t);
+            }
+        }
+    }
+}
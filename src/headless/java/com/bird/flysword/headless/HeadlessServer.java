@@ -0,0 +1,259 @@
+package com.bird.flysword.headless;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.plugin.PluginManager;
+
+/**
+ * 伺服器之外的替身伺服器
+ * 提供插件執行飛行引擎所需的最小環境：由呼叫者推進的排程器、產生地形的世界、替身玩家與登錄表；
+ * 插件管理器不載入其他插件，事件只登記不觸發，物品沒有 ItemMeta
+ *
+ * 登錄表對介面型別（音效、方塊與物品類型等）依鍵建立替身，方塊類型以名稱判斷是否為空氣或固體；
+ * 抽象類別型別（如藥水效果）沒有內容，會用到它們的路徑（附魔效果）不在替身環境的支援範圍
+ *
+ * Bukkit 在同一個 JVM 中只能設定一次伺服器，因此替身伺服器是單例；重複使用前以 {@link #reset()} 清除狀態
+ */
+public final class HeadlessServer {
+
+    private static HeadlessServer instance;
+
+    private final Logger logger;
+    private final ConsoleHandler consoleHandler;
+    private final HeadlessScheduler scheduler;
+    private final Server server;
+    private final List<HeadlessPlayer> players = new ArrayList<>();
+    private final List<Player> onlinePlayers = new ArrayList<>();
+    private final Map<UUID, HeadlessPlayer> playersById = new ConcurrentHashMap<>();
+    private final List<HeadlessWorld> worlds = new ArrayList<>();
+    private final List<World> bukkitWorlds = new ArrayList<>();
+    private final Map<Class<?>, Registry<?>> registries = new ConcurrentHashMap<>();
+
+    private HeadlessServer() {
+        this.logger = Logger.getLogger("HeadlessServer");
+        this.consoleHandler = new ConsoleHandler();
+        consoleHandler.setLevel(Level.WARNING);
+        logger.setUseParentHandlers(false);
+        logger.addHandler(consoleHandler);
+        this.scheduler = new HeadlessScheduler(logger);
+
+        PluginManager pluginManager = StandIn.create(PluginManager.class, "HeadlessPluginManager", s -> s
+            .returns("isPluginEnabled", false)
+            .returns("getPlugins", new org.bukkit.plugin.Plugin[0]));
+        ItemFactory itemFactory = StandIn.create(ItemFactory.class, "HeadlessItemFactory", s -> s
+            .on("equals", args -> args[0] == args[1])
+            .on("asMetaFor", args -> args[0])
+            .returns("isApplicable", true));
+        Collection<Player> onlineView = Collections.unmodifiableList(onlinePlayers);
+        List<World> worldView = Collections.unmodifiableList(bukkitWorlds);
+        this.server = StandIn.create(Server.class, "HeadlessServer", s -> s
+            .returns("getName", "HeadlessServer")
+            .returns("getVersion", "headless")
+            .returns("getBukkitVersion", "1.21.7-R0.1-SNAPSHOT")
+            .returns("getLogger", logger)
+            .returns("getScheduler", scheduler.getScheduler())
+            .returns("getPluginManager", pluginManager)
+            .returns("getItemFactory", itemFactory)
+            .returns("getOnlinePlayers", onlineView)
+            .returns("getMaxPlayers", 1000)
+            .returns("getViewDistance", 10)
+            .returns("getSimulationDistance", 10)
+            .returns("getWorlds", worldView)
+            .on("isPrimaryThread", args -> scheduler.isMainThread())
+            .on("getPlayer", args -> {
+                if (args[0] instanceof UUID) {
+                    HeadlessPlayer player = playersById.get(args[0]);
+                    return player != null && player.isOnline() ? player.getPlayer() : null;
+                }
+                return getPlayerByName((String) args[0]);
+            })
+            .on("getPlayerExact", args -> getPlayerByName((String) args[0]))
+            .on("getWorld", args -> {
+                for (HeadlessWorld world : worlds) {
+                    if (args[0] instanceof UUID ? world.getWorld().getUID().equals(args[0])
+                            : world.getName().equals(args[0])) {
+                        return world.getWorld();
+                    }
+                }
+                return null;
+            })
+            .on("getRegistry", args -> registries.computeIfAbsent((Class<?>) args[0], HeadlessServer::createRegistry)));
+    }
+
+    /**
+     * 取得替身伺服器，第一次呼叫時設定為 Bukkit 的伺服器
+     */
+    public static synchronized HeadlessServer get() {
+        if (instance == null) {
+            instance = new HeadlessServer();
+            Bukkit.setServer(instance.server);
+        }
+        return instance;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public HeadlessScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * 設定輸出到主控台的最低記錄等級，預設只輸出警告，避免每位飛行者的訊息淹沒結果
+     */
+    public void setConsoleLevel(Level level) {
+        consoleHandler.setLevel(level);
+    }
+
+    /**
+     * 推進一個伺服器 tick：玩家依速度移動後執行到期的任務
+     */
+    public void tick() {
+        for (int i = 0, n = players.size(); i < n; i++) {
+            HeadlessPlayer player = players.get(i);
+            if (player.isOnline()) {
+                player.step();
+            }
+        }
+        scheduler.tick();
+    }
+
+    /**
+     * 建立世界，同名世界已存在時回傳既有的世界
+     */
+    public HeadlessWorld createWorld(String name, long seed) {
+        for (HeadlessWorld world : worlds) {
+            if (world.getName().equals(name)) {
+                return world;
+            }
+        }
+        HeadlessWorld world = new HeadlessWorld(this, name, seed);
+        worlds.add(world);
+        bukkitWorlds.add(world.getWorld());
+        return world;
+    }
+
+    /**
+     * 讓替身玩家在指定位置上線
+     */
+    public HeadlessPlayer join(String name, Location location) {
+        UUID uuid = UUID.nameUUIDFromBytes(("HeadlessPlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        HeadlessPlayer player = new HeadlessPlayer(uuid, name, location);
+        players.add(player);
+        onlinePlayers.add(player.getPlayer());
+        playersById.put(uuid, player);
+        return player;
+    }
+
+    /**
+     * 讓替身玩家離線，之後的 isOnline 為 false
+     */
+    public void quit(HeadlessPlayer player) {
+        player.setOnline(false);
+        players.remove(player);
+        onlinePlayers.remove(player.getPlayer());
+        playersById.remove(player.getUniqueId());
+    }
+
+    public List<HeadlessPlayer> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * 取消所有任務並讓所有玩家離線，世界保留
+     */
+    public void reset() {
+        scheduler.cancelAll();
+        for (HeadlessPlayer player : new ArrayList<>(players)) {
+            quit(player);
+        }
+    }
+
+    private Player getPlayerByName(String name) {
+        for (HeadlessPlayer player : players) {
+            if (player.getName().equalsIgnoreCase(name)) {
+                return player.getPlayer();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 建立登錄表，介面型別依鍵建立並快取替身，同一個鍵總是回傳同一個實例
+     */
+    private static Registry<?> createRegistry(Class<?> type) {
+        Map<NamespacedKey, Object> entries = new ConcurrentHashMap<>();
+        String typeName = type.getSimpleName();
+        return StandIn.create(Registry.class, "HeadlessRegistry<" + typeName + ">", s -> s
+            .on("get", args -> lookup(type, entries, args[0]))
+            .on("getOrThrow", args -> {
+                Object value = lookup(type, entries, args[0]);
+                if (value == null) {
+                    throw new IllegalArgumentException("替身登錄表沒有 " + typeName + ": " + args[0]);
+                }
+                return value;
+            })
+            .returns("match", null)
+            .on("iterator", args -> entries.values().iterator())
+            .on("stream", args -> entries.values().stream()));
+    }
+
+    private static Object lookup(Class<?> type, Map<NamespacedKey, Object> entries, Object key) {
+        if (!type.isInterface() || !(key instanceof NamespacedKey)) {
+            return null;
+        }
+        return entries.computeIfAbsent((NamespacedKey) key, k -> createKeyed(type, k));
+    }
+
+    private static Object createKeyed(Class<?> type, NamespacedKey key) {
+        String path = key.getKey();
+        boolean air = path.endsWith("air");
+        boolean liquid = path.equals("water") || path.equals("lava");
+        return StandIn.create(type, key.toString(), s -> s
+            .returns("getKey", key)
+            .returns("getKeyOrThrow", key)
+            .returns("getKeyOrNull", key)
+            .returns("isRegistered", true)
+            .returns("name", path.toUpperCase(Locale.ROOT).replace('.', '_'))
+            .returns("getTranslationKey", type.getSimpleName().toLowerCase(Locale.ROOT) + "." + path)
+            .returns("isAir", air)
+            .returns("isSolid", !air && !liquid && !isNonSolidName(path))
+            .returns("getMaxStackSize", 64)
+            .on("compareTo", args -> path.compareTo(((Keyed) args[0]).getKey().getKey())));
+    }
+
+    /**
+     * 以名稱判斷常見的非固體方塊（植物、火把、告示牌等）
+     */
+    private static boolean isNonSolidName(String path) {
+        return path.equals("short_grass") || path.equals("tall_grass") || path.equals("fern")
+            || path.contains("flower") || path.contains("sapling") || path.contains("torch")
+            || path.contains("sign") || path.contains("button") || path.contains("carpet")
+            || path.contains("rail") || path.equals("snow") || path.equals("fire") || path.contains("vine");
+    }
+}
@@ -0,0 +1,73 @@
+package com.bird.flysword.headless;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import com.bird.flysword.core.render.SwordDisplay;
+import com.bird.flysword.core.render.SwordRenderer;
+
+/**
+ * 只計數的飛劍渲染器
+ * 取代實際的渲染器放在變化門檻之後，計數即為實際會送往客戶端的實體生成、更新與移除
+ */
+public final class HeadlessSwordRenderer implements SwordRenderer {
+
+    private long spawned;
+    private long updates;
+    private long removed;
+    private int active;
+
+    @Override
+    public SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ) {
+        spawned++;
+        active++;
+        return new CountingDisplay();
+    }
+
+    public long getSpawned() {
+        return spawned;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public long getRemoved() {
+        return removed;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void reset() {
+        spawned = 0;
+        updates = 0;
+        removed = 0;
+    }
+
+    private final class CountingDisplay implements SwordDisplay {
+
+        private boolean valid = true;
+
+        @Override
+        public void update(Location location, double rotX, double rotY, double rotZ) {
+            updates++;
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+
+        @Override
+        public void remove() {
+            if (valid) {
+                valid = false;
+                removed++;
+                active--;
+            }
+        }
+    }
+}
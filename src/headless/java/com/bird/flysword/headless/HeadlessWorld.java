@@ -0,0 +1,257 @@
+package com.bird.flysword.headless;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Player;
+
+/**
+ * 以種子產生地形的替身世界
+ * 地表是高度 50 到 78 之間起伏的丘陵（草地、泥土、石頭），
+ * 每個 8x8 區域的中心有機率立著一根原木柱，柱頂約在地表上方 12 到 31 格，作為飛行路徑上的障礙物
+ *
+ * 地形由座標直接計算，不佔用記憶體；同一種子總是產生相同的地形
+ */
+public final class HeadlessWorld {
+
+    public static final int MIN_HEIGHT = -64;
+    public static final int MAX_HEIGHT = 320;
+    public static final int SURFACE_LEVEL = 64;
+
+    private static final int PILLAR_SPACING_BITS = 3; // 8x8 區域
+    private static final int PILLAR_CHANCE = 6; // 約六分之一的區域有柱子
+
+    private final HeadlessServer server;
+    private final String name;
+    private final UUID uid;
+    private final long seed;
+    private final double phaseX;
+    private final double phaseZ;
+    private final World world;
+
+    HeadlessWorld(HeadlessServer server, String name, long seed) {
+        this.server = server;
+        this.name = name;
+        this.seed = seed;
+        this.uid = new UUID(seed, name.hashCode());
+        this.phaseX = (mix(seed, 1, 0) & 0xFFFF) / 65536.0 * Math.PI * 2;
+        this.phaseZ = (mix(seed, 0, 1) & 0xFFFF) / 65536.0 * Math.PI * 2;
+        this.world = StandIn.create(World.class, "HeadlessWorld[" + name + "]", s -> s
+            .returns("getName", name)
+            .returns("getUID", uid)
+            .returns("getSeed", seed)
+            .returns("getMinHeight", MIN_HEIGHT)
+            .returns("getMaxHeight", MAX_HEIGHT)
+            .returns("getSeaLevel", SURFACE_LEVEL)
+            .returns("getEnvironment", World.Environment.NORMAL)
+            .returns("isChunkLoaded", true)
+            .returns("isChunkGenerated", true)
+            .on("getChunkAt", args -> {
+                if (args[0] instanceof Location) {
+                    Location location = (Location) args[0];
+                    return getChunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+                } else if (args[0] instanceof Block) {
+                    Block block = (Block) args[0];
+                    return getChunk(block.getX() >> 4, block.getZ() >> 4);
+                }
+                return getChunk((Integer) args[0], (Integer) args[1]);
+            })
+            .on("getBlockAt", args -> {
+                if (args.length == 1) {
+                    Location location = (Location) args[0];
+                    return getBlock(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+                }
+                return getBlock((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+            })
+            .on("getHighestBlockYAt", args -> {
+                if (args[0] instanceof Location) {
+                    Location location = (Location) args[0];
+                    return getHighestBlockY(location.getBlockX(), location.getBlockZ());
+                }
+                return getHighestBlockY((Integer) args[0], (Integer) args[1]);
+            })
+            .on("getHighestBlockAt", args -> {
+                int x = args[0] instanceof Location ? ((Location) args[0]).getBlockX() : (Integer) args[0];
+                int z = args[0] instanceof Location ? ((Location) args[0]).getBlockZ() : (Integer) args[1];
+                return getBlock(x, getHighestBlockY(x, z), z);
+            })
+            .on("getPlayers", args -> getPlayers())
+            .on("getEntities", args -> new ArrayList<>(getPlayers()))
+            .on("getSpawnLocation", args -> new Location(getWorld(), 0.5, getHighestBlockY(0, 0) + 1, 0.5)));
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 地表高度（最上層的草方塊）
+     */
+    public int getSurfaceY(int x, int z) {
+        double height = SURFACE_LEVEL
+            + 10.0 * Math.sin(x * 0.031 + phaseX) * Math.cos(z * 0.027 + phaseZ)
+            + 4.0 * Math.sin((x + z) * 0.09);
+        return (int) Math.floor(height);
+    }
+
+    /**
+     * 最高的非空氣方塊高度，包含柱子
+     */
+    public int getHighestBlockY(int x, int z) {
+        return isPillar(x, z) ? getPillarTop(x, z) : getSurfaceY(x, z);
+    }
+
+    /**
+     * 指定座標的方塊類型
+     */
+    public Material getType(int x, int y, int z) {
+        if (y < MIN_HEIGHT || y >= MAX_HEIGHT) {
+            return Material.AIR;
+        }
+        if (y == MIN_HEIGHT) {
+            return Material.BEDROCK;
+        }
+        int surface = getSurfaceY(x, z);
+        if (y <= surface) {
+            if (y == surface) {
+                return Material.GRASS_BLOCK;
+            }
+            return y > surface - 4 ? Material.DIRT : Material.STONE;
+        }
+        if (isPillar(x, z) && y <= getPillarTop(x, z)) {
+            return Material.OAK_LOG;
+        }
+        return Material.AIR;
+    }
+
+    private boolean isPillar(int x, int z) {
+        int center = 1 << (PILLAR_SPACING_BITS - 1);
+        int mask = (1 << PILLAR_SPACING_BITS) - 1;
+        if ((x & mask) != center || (z & mask) != center) {
+            return false;
+        }
+        return Long.remainderUnsigned(mix(seed, x >> PILLAR_SPACING_BITS, z >> PILLAR_SPACING_BITS), PILLAR_CHANCE) == 0;
+    }
+
+    private int getPillarTop(int x, int z) {
+        long hash = mix(seed ^ 0x5DEECE66DL, x >> PILLAR_SPACING_BITS, z >> PILLAR_SPACING_BITS);
+        return getSurfaceY(x, z) + 12 + (int) Long.remainderUnsigned(hash, 20);
+    }
+
+    private static long mix(long seed, int a, int b) {
+        long h = seed ^ (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private List<Player> getPlayers() {
+        List<Player> players = new ArrayList<>();
+        for (HeadlessPlayer player : server.getPlayers()) {
+            if (player.getWorld() == world) {
+                players.add(player.getPlayer());
+            }
+        }
+        return players;
+    }
+
+    Block getBlock(int x, int y, int z) {
+        return StandIn.create(Block.class, "HeadlessBlock[" + x + "," + y + "," + z + "]", s -> s
+            .on("getType", args -> getType(x, y, z))
+            .returns("getX", x)
+            .returns("getY", y)
+            .returns("getZ", z)
+            .returns("getWorld", world)
+            .on("getChunk", args -> getChunk(x >> 4, z >> 4))
+            .on("getLocation", args -> {
+                if (args.length == 0) {
+                    return new Location(world, x, y, z);
+                }
+                Location location = (Location) args[0];
+                if (location != null) {
+                    location.setWorld(world);
+                    location.setX(x);
+                    location.setY(y);
+                    location.setZ(z);
+                    location.setYaw(0.0f);
+                    location.setPitch(0.0f);
+                }
+                return location;
+            })
+            .on("getRelative", args -> {
+                if (args.length == 3) {
+                    return getBlock(x + (Integer) args[0], y + (Integer) args[1], z + (Integer) args[2]);
+                }
+                BlockFace face = (BlockFace) args[0];
+                int distance = args.length > 1 ? (Integer) args[1] : 1;
+                return getBlock(x + face.getModX() * distance, y + face.getModY() * distance, z + face.getModZ() * distance);
+            })
+            .on("isEmpty", args -> getType(x, y, z) == Material.AIR)
+            .on("isPassable", args -> getType(x, y, z) == Material.AIR)
+            .returns("isLiquid", false)
+            .returns("getLightLevel", (byte) 15));
+    }
+
+    Chunk getChunk(int chunkX, int chunkZ) {
+        return StandIn.create(Chunk.class, "HeadlessChunk[" + chunkX + "," + chunkZ + "]", s -> s
+            .returns("getX", chunkX)
+            .returns("getZ", chunkZ)
+            .returns("getWorld", world)
+            .returns("isLoaded", true)
+            .returns("isGenerated", true)
+            .on("getBlock", args -> getBlock((chunkX << 4) + (Integer) args[0], (Integer) args[1],
+                (chunkZ << 4) + (Integer) args[2]))
+            .on("getChunkSnapshot", args -> getSnapshot(chunkX, chunkZ)));
+    }
+
+    /**
+     * 區塊快照以區塊內的相對座標查詢
+     */
+    private ChunkSnapshot getSnapshot(int chunkX, int chunkZ) {
+        int baseX = chunkX << 4;
+        int baseZ = chunkZ << 4;
+        long capturedAt = System.currentTimeMillis();
+        return StandIn.create(ChunkSnapshot.class, "HeadlessChunkSnapshot[" + chunkX + "," + chunkZ + "]", s -> s
+            .returns("getX", chunkX)
+            .returns("getZ", chunkZ)
+            .returns("getWorldName", name)
+            .returns("getCaptureFullTime", capturedAt)
+            .on("getBlockType", args -> getType(baseX + (Integer) args[0], (Integer) args[1], baseZ + (Integer) args[2]))
+            .on("getHighestBlockYAt", args -> getHighestBlockY(baseX + (Integer) args[0], baseZ + (Integer) args[1]))
+            .on("isSectionEmpty", args -> isSectionEmpty(baseX, baseZ, (Integer) args[0])));
+    }
+
+    /**
+     * 區段（16 格高）是否全為空氣；區段索引與伺服器相同，從世界最低高度起算
+     */
+    private boolean isSectionEmpty(int baseX, int baseZ, int section) {
+        int bottom = MIN_HEIGHT + (section << 4);
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                if (getHighestBlockY(baseX + x, baseZ + z) >= bottom) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
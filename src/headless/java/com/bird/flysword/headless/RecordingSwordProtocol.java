@@ -0,0 +1,164 @@
+package com.bird.flysword.headless;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import com.bird.flysword.core.render.SwordProtocol;
+
+/**
+ * 記錄封包的飛劍協定
+ * 取代 ProtocolLib 的實作放在封包渲染器之後，依呼叫順序保存每個封包的種類、接收者與內容，
+ * 不送往任何客戶端；實體 ID 從 1 開始依序分配
+ */
+public final class RecordingSwordProtocol implements SwordProtocol {
+
+    /**
+     * 封包種類，對應 {@link SwordProtocol} 的方法
+     */
+    public enum Kind {
+        SPAWN,
+        METADATA,
+        HELMET,
+        MOVE,
+        DESTROY
+    }
+
+    private final List<Packet> packets = new ArrayList<>();
+    private int nextEntityId = 1;
+
+    @Override
+    public int allocateEntityId() {
+        return nextEntityId++;
+    }
+
+    @Override
+    public void spawnArmorStand(Player viewer, int entityId, UUID uuid, double x, double y, double z, float yaw) {
+        packets.add(new Packet(Kind.SPAWN, viewer, entityId, x, y, z, yaw, null));
+    }
+
+    @Override
+    public void sendMetadata(Player viewer, int entityId, float headX, float headY, float headZ) {
+        packets.add(new Packet(Kind.METADATA, viewer, entityId, headX, headY, headZ, 0.0f, null));
+    }
+
+    @Override
+    public void sendHelmet(Player viewer, int entityId, ItemStack item) {
+        packets.add(new Packet(Kind.HELMET, viewer, entityId, 0.0, 0.0, 0.0, 0.0f, item));
+    }
+
+    @Override
+    public void moveRelative(Player viewer, int entityId, short dx, short dy, short dz, float yaw) {
+        packets.add(new Packet(Kind.MOVE, viewer, entityId, dx, dy, dz, yaw, null));
+    }
+
+    @Override
+    public void destroy(Player viewer, int entityId) {
+        packets.add(new Packet(Kind.DESTROY, viewer, entityId, 0.0, 0.0, 0.0, 0.0f, null));
+    }
+
+    /**
+     * 依發送順序排列的所有封包
+     */
+    public List<Packet> getPackets() {
+        return Collections.unmodifiableList(packets);
+    }
+
+    /**
+     * 發送給指定玩家的封包，依發送順序排列
+     */
+    public List<Packet> getPackets(UUID viewer) {
+        List<Packet> result = new ArrayList<>();
+        for (Packet packet : packets) {
+            if (packet.getViewer().equals(viewer)) {
+                result.add(packet);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 發送給指定玩家的封包種類，依發送順序排列
+     */
+    public List<Kind> getKinds(UUID viewer) {
+        List<Kind> result = new ArrayList<>();
+        for (Packet packet : packets) {
+            if (packet.getViewer().equals(viewer)) {
+                result.add(packet.getKind());
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        packets.clear();
+    }
+
+    /**
+     * 一個封包
+     * 生成時 x、y、z 為方塊座標，相對移動時為 1/4096 方塊的位移，元數據時為頭部姿勢（度）
+     */
+    public static final class Packet {
+
+        private final Kind kind;
+        private final UUID viewer;
+        private final int entityId;
+        private final double x;
+        private final double y;
+        private final double z;
+        private final float yaw;
+        private final ItemStack item;
+
+        Packet(Kind kind, Player viewer, int entityId, double x, double y, double z, float yaw, ItemStack item) {
+            this.kind = kind;
+            this.viewer = viewer.getUniqueId();
+            this.entityId = entityId;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.item = item;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public UUID getViewer() {
+            return viewer;
+        }
+
+        public int getEntityId() {
+            return entityId;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public float getYaw() {
+            return yaw;
+        }
+
+        public ItemStack getItem() {
+            return item;
+        }
+
+        @Override
+        public String toString() {
+            return kind + "#" + entityId + "(" + x + ", " + y + ", " + z + ", " + yaw + ")";
+        }
+    }
+}
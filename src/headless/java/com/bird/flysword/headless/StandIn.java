@@ -0,0 +1,152 @@
+package com.bird.flysword.headless;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 以動態代理建立 Bukkit 介面的替身
+ * 只回應登記過的方法；介面的預設方法照常執行，其餘方法回傳型別的預設值
+ * （數字為 0、布林為 false、集合為空、其他為 null），讓插件在伺服器之外沿著正常路徑執行
+ *
+ * 替身以物件身分比較相等，toString 回傳建立時的描述
+ */
+public final class StandIn implements InvocationHandler {
+
+    /**
+     * 方法的回應，參數為呼叫時的參數（沒有參數時為空陣列）
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final Answer DEFAULT_METHOD = args -> null; // 標記：交由介面的預設實作
+
+    private final String description;
+    private final Map<String, Answer> answers = new HashMap<>();
+    private final Map<Method, Answer> resolved = new ConcurrentHashMap<>();
+
+    private StandIn(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 建立替身，setup 在代理建立前登記回應
+     */
+    public static <T> T create(Class<T> type, String description, Consumer<StandIn> setup) {
+        StandIn handler = new StandIn(description);
+        setup.accept(handler);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * 登記方法的回應，同名的所有多載共用
+     */
+    public StandIn on(String method, Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    /**
+     * 登記指定參數數量的多載，優先於同名的回應
+     */
+    public StandIn on(String method, int parameterCount, Answer answer) {
+        answers.put(method + "/" + parameterCount, answer);
+        return this;
+    }
+
+    /**
+     * 登記固定的回傳值
+     */
+    public StandIn returns(String method, Object value) {
+        return on(method, args -> value);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return description;
+            }
+        }
+        Answer answer = resolved.get(method);
+        if (answer == null) {
+            answer = resolve(method);
+            resolved.put(method, answer);
+        }
+        if (answer == DEFAULT_METHOD) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+        return answer.answer(args == null ? NO_ARGS : args);
+    }
+
+    private Answer resolve(Method method) {
+        Answer answer = answers.get(method.getName() + "/" + method.getParameterCount());
+        if (answer == null) {
+            answer = answers.get(method.getName());
+        }
+        if (answer != null) {
+            return answer;
+        }
+        if (method.isDefault()) {
+            return DEFAULT_METHOD;
+        }
+        if (method.getReturnType() == Stream.class) {
+            return args -> Stream.empty(); // 串流只能消耗一次
+        }
+        Object value = defaultValue(method.getReturnType());
+        return args -> value;
+    }
+
+    /**
+     * 型別的預設值，集合回傳不可修改的空實例
+     */
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == List.class || type == Collection.class || type == Iterable.class) {
+            return Collections.emptyList();
+        } else if (type == Set.class) {
+            return Collections.emptySet();
+        } else if (type == Map.class) {
+            return Collections.emptyMap();
+        } else if (type == Optional.class) {
+            return Optional.empty();
+        } else if (type == Iterator.class) {
+            return Collections.emptyIterator();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bird.flysword.core.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.headless.HeadlessServer;
+
+/**
+ * 碰撞檢測的基準測試
+ * 在替身世界的丘陵與原木柱之間取樣，高度涵蓋地表到柱頂，約三成的樣本會碰撞；
+ * 設定時先查詢一次所有樣本，測量的是區塊快取命中後的穩定成本
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionDetectorBenchmark {
+
+    private static final int SAMPLES = 1024; // 必須為 2 的次方
+    private static final int MASK = SAMPLES - 1;
+    private static final double AREA = 256.0;
+    private static final double PATH_LENGTH = 3.0; // 與 flight.obstacle_check_distance 預設值相同
+    private static final double PLAYER_RADIUS = 0.3;
+
+    private final Location[] starts = new Location[SAMPLES];
+    private final Location[] ends = new Location[SAMPLES];
+    private CollisionDetector detector;
+    private int index;
+
+    @Setup
+    public void setup() {
+        World world = HeadlessServer.get().createWorld("benchmark", 42L).getWorld();
+        detector = new CollisionDetector(new VoxelCollisionEngine());
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            Location start = new Location(world, random.nextDouble() * AREA, 60.0 + random.nextDouble() * 40.0,
+                random.nextDouble() * AREA, random.nextFloat() * 360.0f - 180.0f, random.nextFloat() * 60.0f - 30.0f);
+            starts[i] = start;
+            ends[i] = start.clone().add(start.getDirection().multiply(PATH_LENGTH));
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            detector.checkPathCollision(starts[i], ends[i], PLAYER_RADIUS);
+            detector.checkPointCollision(starts[i], PLAYER_RADIUS);
+        }
+    }
+
+    @Benchmark
+    public CollisionDetector.CollisionResult checkPathCollision() {
+        int i = index++ & MASK;
+        return detector.checkPathCollision(starts[i], ends[i], PLAYER_RADIUS);
+    }
+
+    @Benchmark
+    public CollisionDetector.CollisionResult checkPointCollision() {
+        return detector.checkPointCollision(starts[index++ & MASK], PLAYER_RADIUS);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bird.flysword.core.collision;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.core.spatial.SpatialHash;
+import com.bird.flysword.core.spatial.SpatialQuery;
+
+/**
+ * 飛行者分離的基準測試
+ * 每次呼叫模擬一個 tick：所有飛行者移動一小段並更新索引，再各自計算分離推力；
+ * 飛行者密度固定（約每 64 平方格一位），比較空間索引與兩兩比較的成本
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RiderSeparationBenchmark {
+
+    private static final double AREA_PER_RIDER = 64.0;
+    private static final double RADIUS = 1.2;
+    private static final double STRENGTH = 0.15;
+    private static final double MAX_IMPULSE = 0.4;
+
+    @Param({"50", "200", "500"})
+    public int riders;
+
+    private SpatialHash<Integer> index;
+    private SpatialHash.Entry<Integer>[] entries;
+    private double[] positions;
+    private double[] velocities;
+    private final SpatialQuery<Integer> query = new SpatialQuery<>();
+    private final double[] impulse = new double[RiderSeparation.IMPULSE_SIZE];
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(7);
+        double side = Math.sqrt(riders * AREA_PER_RIDER);
+        index = new SpatialHash<>(16);
+        entries = new SpatialHash.Entry[riders];
+        positions = new double[riders * 3];
+        velocities = new double[riders * 3];
+        for (int i = 0; i < riders; i++) {
+            positions[i * 3] = random.nextDouble() * side;
+            positions[i * 3 + 1] = 80.0 + random.nextDouble() * 8.0;
+            positions[i * 3 + 2] = random.nextDouble() * side;
+            velocities[i * 3] = random.nextGaussian() * 0.4;
+            velocities[i * 3 + 1] = random.nextGaussian() * 0.05;
+            velocities[i * 3 + 2] = random.nextGaussian() * 0.4;
+            // 世界使用 null，索引以同一個鍵處理
+            entries[i] = index.insert(i, null, positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+        }
+    }
+
+    /**
+     * 以空間索引篩選鄰居
+     */
+    @Benchmark
+    public double spatialHash() {
+        for (int i = 0; i < riders; i++) {
+            move(i);
+            index.update(entries[i], null, positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+        }
+        double total = 0.0;
+        for (int i = 0; i < riders; i++) {
+            total += RiderSeparation.computeImpulse(index, entries[i], RADIUS, STRENGTH, MAX_IMPULSE, query, impulse);
+            total += impulse[0] + impulse[1] + impulse[2];
+        }
+        return total;
+    }
+
+    /**
+     * 兩兩比較所有飛行者，作為對照
+     */
+    @Benchmark
+    public double bruteForce() {
+        for (int i = 0; i < riders; i++) {
+            move(i);
+        }
+        double total = 0.0;
+        double radiusSquared = RADIUS * RADIUS;
+        for (int i = 0; i < riders; i++) {
+            for (int j = 0; j < riders; j++) {
+                if (i == j) {
+                    continue;
+                }
+                double dx = positions[i * 3] - positions[j * 3];
+                double dy = positions[i * 3 + 1] - positions[j * 3 + 1];
+                double dz = positions[i * 3 + 2] - positions[j * 3 + 2];
+                double distanceSquared = dx * dx + dy * dy + dz * dz;
+                if (distanceSquared <= radiusSquared) {
+                    total += (RADIUS - Math.sqrt(distanceSquared)) * STRENGTH;
+                }
+            }
+        }
+        return total;
+    }
+
+    private void move(int i) {
+        double side = Math.sqrt(riders * AREA_PER_RIDER);
+        for (int axis = 0; axis < 3; axis += 2) {
+            double value = positions[i * 3 + axis] + velocities[i * 3 + axis];
+            if (value < 0.0 || value > side) {
+                velocities[i * 3 + axis] = -velocities[i * 3 + axis];
+                value = positions[i * 3 + axis] + velocities[i * 3 + axis];
+            }
+            positions[i * 3 + axis] = value;
+        }
+    }
+}
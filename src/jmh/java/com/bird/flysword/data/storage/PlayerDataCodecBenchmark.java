@@ -0,0 +1,87 @@
+package com.bird.flysword.data.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.data.EffectQuality;
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * 玩家數據序列化的基準測試
+ * 比較二進位編碼與 YAML 文本的編碼、解碼成本，數據的規模接近長期遊玩的玩家
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerDataCodecBenchmark {
+
+    private PlayerData playerData;
+    private byte[] binary;
+    private String yaml;
+
+    @Setup
+    public void setup() throws IOException {
+        playerData = new PlayerData(UUID.nameUUIDFromBytes("benchmark".getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < 12; i++) {
+            playerData.unlockSkin("skin_" + i);
+        }
+        playerData.setSelectedSkin("skin_3");
+        playerData.setEnchantLevel("speed", 3);
+        playerData.setEnchantLevel("regen", 2);
+        playerData.setEnchantLevel("protection", 1);
+        for (int i = 0; i < 20; i++) {
+            playerData.setAchievementProgress("achievement_" + i, i * 1000L);
+            Object value = i % 2 == 0 ? "value_" + i : i * 1.5;
+            playerData.setActivityRecord("activity_" + i, value);
+        }
+        playerData.setDurability(850);
+        playerData.setSkinTokens(42);
+        playerData.setTotalFlightTime(36_000_000L);
+        playerData.setTotalFlights(1234);
+        playerData.setLastFlightTime(System.currentTimeMillis());
+        playerData.setEffectQuality(EffectQuality.MEDIUM);
+
+        binary = PlayerDataCodec.encode(playerData);
+        yaml = new String(YamlPlayerDataStorage.encode(playerData), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        return PlayerDataCodec.encode(playerData);
+    }
+
+    @Benchmark
+    public PlayerData decodeBinary() throws IOException {
+        return PlayerDataCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] encodeYaml() {
+        return YamlPlayerDataStorage.encode(playerData);
+    }
+
+    @Benchmark
+    public PlayerData decodeYaml() throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        return PlayerData.fromConfig(config);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bird.flysword.managers;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.HeadlessFlysword;
+import com.bird.flysword.headless.HeadlessServer;
+
+/**
+ * 附魔效果查詢的基準測試
+ * 附魔來自插件內建的 enchants.yml，分別測量已登記與不存在的附魔
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnchantManagerBenchmark {
+
+    private HeadlessFlysword flysword;
+    private EnchantManager enchantManager;
+    private String[] enchantIds;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        flysword = HeadlessFlysword.start(HeadlessServer.get(), Collections.emptyMap());
+        enchantManager = flysword.getPlugin().getEnchantManager();
+        enchantIds = enchantManager.getAllEnchants().keySet().toArray(new String[0]);
+        if (enchantIds.length == 0) {
+            throw new IllegalStateException("內建配置沒有任何附魔");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        flysword.stop();
+    }
+
+    @Benchmark
+    public double getEnchantEffect() {
+        int i = index++;
+        return enchantManager.getEnchantEffect(enchantIds[(i & Integer.MAX_VALUE) % enchantIds.length], (i & 3) + 1);
+    }
+
+    @Benchmark
+    public double getEnchantEffectMissing() {
+        return enchantManager.getEnchantEffect("missing", 1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bird.flysword.scheduler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.HeadlessFlysword;
+import com.bird.flysword.flight.FlightController;
+import com.bird.flysword.headless.HeadlessPlayer;
+import com.bird.flysword.headless.HeadlessServer;
+
+/**
+ * 完整飛行 tick 的基準測試
+ * 每次呼叫推進替身伺服器一個 tick：飛行引擎的所有階段、特效送出與其他插件任務；
+ * 飛行者在丘陵與原木柱上方盤旋（每 tick 轉向固定角度），保持在同一片區域，快取維持穩定
+ *
+ * 結果為每 tick 的時間，除以 riders 即每位飛行者的更新成本；
+ * 玩家與世界是替身，數字包含動態代理的呼叫開銷，適合比較版本間的差異而非換算成伺服器上的絕對耗時
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FlightTickBenchmark {
+
+    private static final double AREA_PER_RIDER = 256.0;
+    private static final float TURN_PER_TICK = 3.0f; // 度
+
+    @Param({"1", "50", "200"})
+    public int riders;
+
+    private HeadlessServer server;
+    private HeadlessFlysword flysword;
+    private HeadlessPlayer[] players;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HeadlessServer.get();
+        World world = server.createWorld("benchmark", 42L).getWorld();
+        // 關閉性能調節，避免負載觸發降級而改變測量的路徑
+        flysword = HeadlessFlysword.start(server, Map.of("performance.governor.enabled", false));
+        FlightController controller = flysword.getPlugin().getFlightController();
+
+        Random random = new Random(7);
+        double side = Math.sqrt(riders * AREA_PER_RIDER);
+        players = new HeadlessPlayer[riders];
+        for (int i = 0; i < riders; i++) {
+            Location location = new Location(world, random.nextDouble() * side, 90.0 + random.nextDouble() * 8.0,
+                random.nextDouble() * side, random.nextFloat() * 360.0f - 180.0f, 0.0f);
+            players[i] = flysword.join("rider-" + i, location);
+            if (!controller.startFlight(players[i].getPlayer())) {
+                throw new IllegalStateException("無法為 " + players[i].getName() + " 啟動飛行");
+            }
+        }
+        // 讓會話、區塊快取與特效計時進入穩定狀態
+        for (int i = 0; i < 100; i++) {
+            tick();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        flysword.stop();
+    }
+
+    @Benchmark
+    public void tick() {
+        for (HeadlessPlayer player : players) {
+            player.setRotation((player.getYaw() + TURN_PER_TICK) % 360.0f, player.getPitch());
+        }
+        server.tick();
+    }
+}
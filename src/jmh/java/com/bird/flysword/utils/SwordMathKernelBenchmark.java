@@ -0,0 +1,142 @@
+package com.bird.flysword.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 飛劍智能變換計算的基準測試
+ * 以 gc 分析器執行（./gradlew jmh 已預設啟用），gc.alloc.rate.norm 應接近 0 B/op
+ *
+ * 設定階段會以隨機輸入比對核心與原本以 Vector 計算的版本，誤差超過 {@link #TOLERANCE} 即中止，
+ * 確保量測的是結果相同的計算
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwordMathKernelBenchmark {
+
+    private static final int SAMPLES = 1024; // 必須為 2 的次方
+    private static final int MASK = SAMPLES - 1;
+    private static final int VERIFY_SAMPLES = 100_000;
+    private static final double TOLERANCE = 1e-12;
+
+    private final double[] yaws = new double[SAMPLES];
+    private final double[] pitches = new double[SAMPLES];
+    private final double[] velocities = new double[SAMPLES * 3];
+    private final double[] out = new double[SwordMathKernel.OUTPUT_SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            // 角度取 float 精度，與 Location 保存的朝向相同
+            yaws[i] = random.nextFloat() * 360.0f - 180.0f;
+            pitches[i] = random.nextFloat() * 180.0f - 90.0f;
+            // 一半樣本接近靜止，涵蓋兩條計算路徑
+            double scale = (i & 1) == 0 ? 1.0 : 0.05;
+            velocities[i * 3] = random.nextGaussian() * scale;
+            velocities[i * 3 + 1] = random.nextGaussian() * scale;
+            velocities[i * 3 + 2] = random.nextGaussian() * scale;
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            verify((float) yaws[i], (float) pitches[i],
+                velocities[i * 3], velocities[i * 3 + 1], velocities[i * 3 + 2]);
+        }
+        Random extra = new Random(7);
+        for (int i = 0; i < VERIFY_SAMPLES; i++) {
+            double scale = (i & 1) == 0 ? 1.0 : 0.05;
+            verify(extra.nextFloat() * 360.0f - 180.0f, extra.nextFloat() * 180.0f - 90.0f,
+                extra.nextGaussian() * scale, extra.nextGaussian() * scale, extra.nextGaussian() * scale);
+        }
+    }
+
+    @Benchmark
+    public double[] computeTransform() {
+        int i = index++ & MASK;
+        SwordMathKernel.computeTransform(yaws[i], pitches[i],
+            velocities[i * 3], velocities[i * 3 + 1], velocities[i * 3 + 2], out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] vectorTransform() {
+        int i = index++ & MASK;
+        vectorTransform((float) yaws[i], (float) pitches[i],
+            new Vector(velocities[i * 3], velocities[i * 3 + 1], velocities[i * 3 + 2]), out);
+        return out;
+    }
+
+    private void verify(float yaw, float pitch, double velocityX, double velocityY, double velocityZ) {
+        double[] expected = new double[SwordMathKernel.OUTPUT_SIZE];
+        vectorTransform(yaw, pitch, new Vector(velocityX, velocityY, velocityZ), expected);
+        SwordMathKernel.computeTransform(yaw, pitch, velocityX, velocityY, velocityZ, out);
+        for (int j = 0; j < SwordMathKernel.OUTPUT_SIZE; j++) {
+            if (!(Math.abs(out[j] - expected[j]) <= TOLERANCE)) {
+                throw new IllegalStateException("計算核心與 Vector 版本結果不同：yaw=" + yaw + ", pitch=" + pitch
+                    + ", velocity=(" + velocityX + ", " + velocityY + ", " + velocityZ + ")，第 " + j + " 項 "
+                    + out[j] + " != " + expected[j]);
+            }
+        }
+    }
+
+    /**
+     * 改寫為計算核心之前的 Vector 版本，逐步照抄，作為比對基準
+     */
+    private static void vectorTransform(float yaw, float pitch, Vector velocity, double[] out) {
+        // 飛行方向：70%視線方向 + 30%速度方向
+        Vector direction = new Location(null, 0.0, 0.0, 0.0, yaw, pitch).getDirection().normalize();
+        if (velocity.lengthSquared() > 0.01) {
+            Vector velocityDirection = velocity.clone().normalize();
+            direction.multiply(0.7);
+            velocityDirection.multiply(0.3);
+            direction.add(velocityDirection);
+        }
+        direction.normalize();
+
+        // 位置
+        Vector position = new Vector(0, -2.0, 0);
+        Vector forwardOffset = direction.clone().multiply(0.5);
+        forwardOffset.setY(forwardOffset.getY() - 0.3);
+        double speed = velocity.length();
+        if (speed > 0.5) {
+            double speedFactor = Math.min(speed / 2.0, 1.0);
+            forwardOffset.add(direction.clone().multiply(speedFactor * 0.3));
+        }
+        position.add(forwardOffset);
+
+        // 角度
+        double swordPitch = Math.toDegrees(Math.asin(-direction.getY()));
+        double swordYaw = Math.toDegrees(Math.atan2(-direction.getX(), direction.getZ()));
+        double roll = 0;
+        if (velocity.lengthSquared() >= 0.01) {
+            Vector right = direction.getCrossProduct(new Vector(0, 1, 0)).normalize();
+            roll = Math.tanh(velocity.dot(right) * 2.0) * 30.0;
+        }
+        swordPitch = Math.max(-85, Math.min(85, swordPitch + Math.tanh(speed) * 5.0));
+        roll *= Math.min(speed / 1.0, 1.0);
+
+        out[SwordMathKernel.POSITION_X] = position.getX();
+        out[SwordMathKernel.POSITION_Y] = position.getY();
+        out[SwordMathKernel.POSITION_Z] = position.getZ();
+        out[SwordMathKernel.ROTATION_X] = swordPitch;
+        out[SwordMathKernel.ROTATION_Y] = swordYaw;
+        out[SwordMathKernel.ROTATION_Z] = roll;
+    }
+}
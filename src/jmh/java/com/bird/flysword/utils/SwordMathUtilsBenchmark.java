@@ -0,0 +1,70 @@
+package com.bird.flysword.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bird.flysword.headless.HeadlessPlayer;
+import com.bird.flysword.headless.HeadlessServer;
+
+/**
+ * 從玩家計算飛劍變換的基準測試
+ * 與 {@link SwordMathKernelBenchmark} 的差距即為讀取玩家位置與速度、配置結果物件的成本；
+ * 玩家是替身，數字包含動態代理的呼叫開銷
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwordMathUtilsBenchmark {
+
+    private static final int SAMPLES = 256; // 必須為 2 的次方
+    private static final int MASK = SAMPLES - 1;
+
+    private final Player[] riders = new Player[SAMPLES];
+    private int index;
+
+    @Setup
+    public void setup() {
+        HeadlessServer server = HeadlessServer.get();
+        World world = server.createWorld("benchmark", 42L).getWorld();
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            Location location = new Location(world, random.nextDouble() * 256.0, 90.0, random.nextDouble() * 256.0,
+                random.nextFloat() * 360.0f - 180.0f, random.nextFloat() * 180.0f - 90.0f);
+            HeadlessPlayer player = server.join("math-" + i, location);
+            // 一半樣本接近靜止，涵蓋兩條計算路徑
+            double scale = (i & 1) == 0 ? 1.0 : 0.05;
+            player.getPlayer().setVelocity(new Vector(random.nextGaussian() * scale,
+                random.nextGaussian() * scale, random.nextGaussian() * scale));
+            riders[i] = player.getPlayer();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        HeadlessServer.get().reset();
+    }
+
+    @Benchmark
+    public SwordMathUtils.SwordTransform calculateOptimalSwordTransform() {
+        return SwordMathUtils.calculateOptimalSwordTransform(riders[index++ & MASK]);
+    }
+}
@@ -1,17 +1,34 @@
 package com.bird.flysword;
 
+import java.io.File;
+import java.util.function.Supplier;
+
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
 import com.bird.flysword.commands.FlyswordCommand;
 import com.bird.flysword.commands.FlyswordModelTabCompleter;
 import com.bird.flysword.commands.FlyswordTabCompleter;
 import com.bird.flysword.commands.FlyswordTestTabCompleter;
+import com.bird.flysword.core.collision.AsyncCollisionPredictor;
+import com.bird.flysword.core.collision.VoxelCollisionEngine;
+import com.bird.flysword.core.performance.PerformanceOptimizer;
+import com.bird.flysword.core.render.ArmorStandSwordRenderer;
+import com.bird.flysword.core.render.ItemDisplaySwordRenderer;
+import com.bird.flysword.core.render.PacketSwordRenderer;
+import com.bird.flysword.core.render.ProtocolLibSwordProtocol;
+import com.bird.flysword.core.render.SwordRenderer;
+import com.bird.flysword.core.render.SwordUpdateStats;
+import com.bird.flysword.core.render.ThresholdSwordRenderer;
 import com.bird.flysword.flight.FlightController;
+import com.bird.flysword.flight.FlightSettings;
 import com.bird.flysword.listeners.FlyswordListener;
 import com.bird.flysword.managers.DataManager;
 import com.bird.flysword.managers.EffectManager;
 import com.bird.flysword.managers.EnchantManager;
 import com.bird.flysword.managers.FlightManager;
+import com.bird.flysword.managers.MetricsManager;
 import com.bird.flysword.managers.SkinManager;
 import com.bird.flysword.managers.UnlockItemManager;
 import com.bird.flysword.scheduler.FlightScheduler;
@@ -28,46 +45,32 @@ public final class Flysword extends JavaPlugin {
     private FlightManager flightManager;
     private FlightController flightController;
     private FlightScheduler flightScheduler;
+    private VoxelCollisionEngine collisionEngine;
+    private AsyncCollisionPredictor collisionPredictor;
+    private ThresholdSwordRenderer swordRenderer;
+    private SwordUpdateStats swordUpdateStats;
     private SkinManager skinManager;
     private EnchantManager enchantManager;
     private EffectManager effectManager;
+    private PerformanceOptimizer performanceOptimizer;
+    private MetricsManager metricsManager;
     private UnlockItemManager unlockItemManager;
+    // 飛行配置快照，重新載入時整體替換
+    private volatile FlightSettings flightSettings;
 
-    @Override
-    public void onEnable() {
-        instance = this;
-
-        // 初始化配置管理器
-        configManager = new ConfigManager(this);
-        configManager.loadConfigs();
-
-        // 初始化數據管理器
-        dataManager = new DataManager(this);
-        dataManager.loadData();
-
-        // 初始化皮膚管理器
-        skinManager = new SkinManager(this);
-        skinManager.loadSkins();
-
-        // 初始化附魔管理器
-        enchantManager = new EnchantManager(this);
-        enchantManager.loadEnchants();
-
-        // 初始化特效管理器
-        effectManager = new EffectManager(this);
+    public Flysword() {
+    }
 
-        // 初始化解鎖道具管理器
-        unlockItemManager = new UnlockItemManager(this);
+    /**
+     * 在伺服器之外建立插件（基準測試與模擬），不經由插件類別載入器
+     */
+    Flysword(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
 
-        // 初始化飛行管理器
-        flightManager = new FlightManager(this);
-        
-        // 初始化飛行控制器
-        flightController = new FlightController(this);
-        
-        // 初始化飛行調度器
-        flightScheduler = new FlightScheduler(this);
-        flightScheduler.start();
+    @Override
+    public void onEnable() {
+        startServices(() -> createSwordRenderer(getConfig().getString("flight.renderer.type", "packet")));
 
         // 註冊指令
         getCommand("flysword").setExecutor(new FlyswordCommand(this));
@@ -126,18 +129,86 @@ public final class Flysword extends JavaPlugin {
         getLogger().info("飛劍系統已啟動！");
     }
 
+    /**
+     * 初始化所有模組並啟動飛行引擎，不註冊指令與監聽器
+     * 伺服器之外執行時直接呼叫，並以替身取代實際的飛劍渲染器
+     */
+    void startServices(Supplier<SwordRenderer> rendererFactory) {
+        instance = this;
+
+        // 初始化配置管理器
+        configManager = new ConfigManager(this);
+        configManager.loadConfigs();
+        reloadFlightSettings();
+
+        // 初始化數據管理器
+        dataManager = new DataManager(this);
+        dataManager.loadData();
+
+        // 初始化皮膚管理器
+        skinManager = new SkinManager(this);
+        skinManager.loadSkins();
+
+        // 初始化附魔管理器
+        enchantManager = new EnchantManager(this);
+        enchantManager.loadEnchants();
+
+        // 初始化性能調節器（特效預算與降級），需在飛行調度器之前啟動
+        performanceOptimizer = new PerformanceOptimizer(this);
+        applyPerformanceSettings();
+
+        // 初始化指標管理器，飛行調度器與特效送出會記錄耗時
+        metricsManager = new MetricsManager(this);
+
+        // 初始化特效管理器
+        effectManager = new EffectManager(this);
+
+        // 初始化解鎖道具管理器
+        unlockItemManager = new UnlockItemManager(this);
+
+        // 初始化飛行管理器
+        flightManager = new FlightManager(this);
+        
+        // 初始化碰撞引擎
+        collisionEngine = new VoxelCollisionEngine();
+        getServer().getPluginManager().registerEvents(collisionEngine, this);
+        collisionPredictor = new AsyncCollisionPredictor(collisionEngine,
+            getConfig().getInt("collision.async_prediction.threads", 2));
+        
+        // 初始化飛劍渲染器
+        swordUpdateStats = new SwordUpdateStats();
+        swordRenderer = new ThresholdSwordRenderer(
+            rendererFactory.get(),
+            getConfig().getDouble("flight.renderer.position_epsilon", 0.01),
+            getConfig().getDouble("flight.renderer.angle_epsilon", 0.5),
+            getConfig().getInt("flight.renderer.max_skipped_updates", 10),
+            swordUpdateStats);
+        
+        // 初始化飛行控制器
+        flightController = new FlightController(this);
+        
+        // 初始化飛行調度器
+        flightScheduler = new FlightScheduler(this);
+        flightScheduler.start();
+        
+        // 特效在飛行調度器之後送出
+        effectManager.start();
+
+        // 所有模組就緒後開始匯出指標
+        metricsManager.start();
+    }
+
     @Override
     public void onDisable() {
+        if (metricsManager != null) {
+            metricsManager.stop();
+        }
+
         // 停止飛行調度器
         if (flightScheduler != null) {
             flightScheduler.stop();
         }
         
-        // 保存所有數據
-        if (dataManager != null) {
-            dataManager.saveData();
-        }
-
         // 停止所有飛行
         if (flightManager != null) {
             flightManager.stopAllFlights();
@@ -146,10 +217,55 @@ public final class Flysword extends JavaPlugin {
         if (flightController != null) {
             flightController.stopAllFlights();
         }
+        
+        if (collisionPredictor != null) {
+            collisionPredictor.shutdown();
+        }
+        
+        if (effectManager != null) {
+            effectManager.stop();
+        }
+        
+        if (performanceOptimizer != null) {
+            performanceOptimizer.shutdown();
+        }
+
+        // 保存所有數據並等待背景寫入完成
+        if (dataManager != null) {
+            dataManager.shutdown();
+        }
 
         getLogger().info("飛劍系統已關閉！");
     }
 
+    /**
+     * 依配置建立飛劍渲染器，封包模式需要 ProtocolLib，缺少時改用盔甲座
+     */
+    private SwordRenderer createSwordRenderer(String type) {
+        double viewDistance = getConfig().getDouble("flight.renderer.view_distance", 48.0);
+        if ("item_display".equalsIgnoreCase(type)) {
+            getLogger().info("飛劍渲染方式: ItemDisplay");
+            return new ItemDisplaySwordRenderer(
+                getConfig().getInt("flight.renderer.item_display.update_interval", 3),
+                getConfig().getDouble("flight.renderer.item_display.position_error", 0.25),
+                getConfig().getDouble("flight.renderer.item_display.rotation_error", 5.0),
+                viewDistance);
+        }
+        if ("packet".equalsIgnoreCase(type)) {
+            if (getServer().getPluginManager().isPluginEnabled("ProtocolLib")) {
+                getLogger().info("飛劍渲染方式: 封包");
+                PacketSwordRenderer renderer = new PacketSwordRenderer(new ProtocolLibSwordProtocol(), viewDistance);
+                getServer().getPluginManager().registerEvents(renderer, this);
+                return renderer;
+            }
+            getLogger().warning("未安裝 ProtocolLib，飛劍改用盔甲座顯示");
+        } else if (!"armorstand".equalsIgnoreCase(type)) {
+            getLogger().warning("未知的飛劍渲染方式: " + type + "，改用盔甲座顯示");
+        }
+        getLogger().info("飛劍渲染方式: 盔甲座");
+        return new ArmorStandSwordRenderer();
+    }
+
     // Getter 方法
     public static Flysword getInstance() {
         return instance;
@@ -174,6 +290,22 @@ public final class Flysword extends JavaPlugin {
     public FlightScheduler getFlightScheduler() {
         return flightScheduler;
     }
+    
+    public VoxelCollisionEngine getCollisionEngine() {
+        return collisionEngine;
+    }
+    
+    public AsyncCollisionPredictor getCollisionPredictor() {
+        return collisionPredictor;
+    }
+
+    public SwordRenderer getSwordRenderer() {
+        return swordRenderer;
+    }
+
+    public SwordUpdateStats getSwordUpdateStats() {
+        return swordUpdateStats;
+    }
 
     public SkinManager getSkinManager() {
         return skinManager;
@@ -186,8 +318,53 @@ public final class Flysword extends JavaPlugin {
     public EffectManager getEffectManager() {
         return effectManager;
     }
+
+    public PerformanceOptimizer getPerformanceOptimizer() {
+        return performanceOptimizer;
+    }
+
+    public MetricsManager getMetricsManager() {
+        return metricsManager;
+    }
     
     public UnlockItemManager getUnlockItemManager() {
         return unlockItemManager;
     }
+    
+    public FlightSettings getFlightSettings() {
+        return flightSettings;
+    }
+    
+    /**
+     * 依目前的配置重新建立飛行配置快照
+     * 修改 config.yml 中飛行相關設定後必須呼叫
+     */
+    public void reloadFlightSettings() {
+        flightSettings = FlightSettings.fromConfig(getConfig());
+    }
+
+    /**
+     * 重新載入配置後套用所有可在執行期間更換的設定：飛行配置快照、特效預算、性能調節器與飛劍更新門檻
+     * 渲染方式、可見距離與 ItemDisplay 參數在建立渲染器時決定，須重新啟動伺服器才會生效
+     */
+    public void reloadRuntimeSettings() {
+        reloadFlightSettings();
+        applyPerformanceSettings();
+        swordRenderer.configure(
+            getConfig().getDouble("flight.renderer.position_epsilon", 0.01),
+            getConfig().getDouble("flight.renderer.angle_epsilon", 0.5),
+            getConfig().getInt("flight.renderer.max_skipped_updates", 10));
+    }
+
+    private void applyPerformanceSettings() {
+        performanceOptimizer.configureBudget(
+            getConfig().getInt("effects.budget.particles_per_tick", 400),
+            getConfig().getInt("effects.budget.sounds_per_tick", 40));
+        performanceOptimizer.configureGovernor(
+            getConfig().getDouble("performance.governor.budget_ms", 2.0),
+            getConfig().getDouble("performance.governor.recover_ratio", 0.6),
+            getConfig().getInt("performance.governor.degrade_ticks", 20),
+            getConfig().getInt("performance.governor.recover_ticks", 200));
+        performanceOptimizer.setAdaptiveMode(getConfig().getBoolean("performance.governor.enabled", true));
+    }
 }
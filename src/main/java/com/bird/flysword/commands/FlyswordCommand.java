@@ -1,11 +1,13 @@
 package com.bird.flysword.commands;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.data.EffectQuality;
 import com.bird.flysword.data.PlayerData;
 import com.bird.flysword.data.SwordSkin;
 import com.bird.flysword.gui.SkinMenu;
 import com.bird.flysword.managers.SkinManager;
 import com.bird.flysword.managers.UnlockItemManager;
+import com.bird.flysword.scheduler.FlightProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -14,6 +16,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Map;
+import java.util.UUID;
 
 public class FlyswordCommand implements CommandExecutor {
 
@@ -97,6 +100,26 @@ public class FlyswordCommand implements CommandExecutor {
                 }
                 break;
 
+            case "export":
+                if (sender.hasPermission("flysword.admin")) {
+                    if (args.length < 2) {
+                        sender.sendMessage("§c用法: /flysword export <玩家>");
+                        return true;
+                    }
+                    exportPlayerData(sender, args[1]);
+                } else {
+                    sender.sendMessage("§c您沒有權限執行此指令！");
+                }
+                break;
+
+            case "top":
+                if (sender.hasPermission("flysword.use")) {
+                    showLeaderboard(sender);
+                } else {
+                    sender.sendMessage("§c您沒有權限使用飛劍系統！");
+                }
+                break;
+
             case "menu":
                 if (sender instanceof Player) {
                     if (sender.hasPermission("flysword.use")) {
@@ -137,6 +160,26 @@ public class FlyswordCommand implements CommandExecutor {
                 }
                 break;
 
+            case "effects":
+                if (sender instanceof Player) {
+                    if (sender.hasPermission("flysword.use")) {
+                        setEffectQuality((Player) sender, args.length > 1 ? args[1] : null);
+                    } else {
+                        sender.sendMessage("§c您沒有權限使用飛劍系統！");
+                    }
+                } else {
+                    sender.sendMessage("§c此指令只能由玩家執行！");
+                }
+                break;
+
+            case "perf":
+                if (sender.hasPermission("flysword.admin")) {
+                    handleProfiler(sender, args.length > 1 ? args[1].toLowerCase() : null);
+                } else {
+                    sender.sendMessage("§c您沒有權限執行此指令！");
+                }
+                break;
+
             default:
                 if (sender instanceof Player) {
                     showHelp((Player) sender);
@@ -154,6 +197,8 @@ public class FlyswordCommand implements CommandExecutor {
         player.sendMessage("§e/flysword menu §7- 打開皮膚選單");
         player.sendMessage("§e/flysword select <皮膚ID> §7- 選擇皮膚");
         player.sendMessage("§e/flysword info §7- 查看個人資訊");
+        player.sendMessage("§e/flysword top §7- 查看飛行時間排行榜");
+        player.sendMessage("§e/flysword effects [畫質] §7- 設定特效畫質");
 
         if (player.hasPermission("flysword.admin")) {
             player.sendMessage("§c/flysword reload §7- 重新載入插件");
@@ -162,11 +207,14 @@ public class FlyswordCommand implements CommandExecutor {
             player.sendMessage("§c/flysword unlockitem <玩家> <道具ID> [數量] §7- 給予解鎖道具");
             player.sendMessage("§c/flysword list §7- 列出所有皮膚");
             player.sendMessage("§c/flysword listitems §7- 列出所有解鎖道具");
+            player.sendMessage("§c/flysword export <玩家> §7- 匯出玩家數據為 YAML");
+            player.sendMessage("§c/flysword perf [on|off|reset] §7- 飛行引擎取樣報告");
         }
     }
 
     private void reloadPlugin(CommandSender sender) {
         plugin.getConfigManager().reloadConfigs();
+        plugin.reloadRuntimeSettings();
         plugin.getSkinManager().loadSkins();
         plugin.getEnchantManager().loadEnchants();
         plugin.getUnlockItemManager().reloadUnlockItems();
@@ -268,6 +316,56 @@ public class FlyswordCommand implements CommandExecutor {
         }
     }
 
+    private void exportPlayerData(CommandSender sender, String playerName) {
+        Player online = Bukkit.getPlayer(playerName);
+        if (online != null) {
+            exportPlayerData(sender, playerName, online.getUniqueId());
+            return;
+        }
+
+        // 離線玩家的名稱可能需要查詢玩家資料，不在主線程解析
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            UUID uuid = Bukkit.getOfflinePlayer(playerName).getUniqueId();
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> exportPlayerData(sender, playerName, uuid));
+            }
+        });
+    }
+
+    private void exportPlayerData(CommandSender sender, String playerName, UUID uuid) {
+        plugin.getDataManager().exportToYaml(uuid, (file, error) -> {
+            if (error != null) {
+                sender.sendMessage("§c匯出玩家數據失敗: " + error.getMessage());
+            } else if (file == null) {
+                sender.sendMessage("§c找不到玩家數據: " + playerName);
+            } else {
+                sender.sendMessage("§a已匯出玩家數據到: " + file.getPath());
+            }
+        });
+    }
+
+    private void showLeaderboard(CommandSender sender) {
+        if (!plugin.getDataManager().supportsLeaderboard()) {
+            sender.sendMessage("§c排行榜需要使用 sqlite 儲存 (config.yml 的 data.storage)");
+            return;
+        }
+
+        plugin.getDataManager().queryFlightTimeLeaderboard(10, top -> {
+            if (top == null) {
+                sender.sendMessage("§c查詢排行榜失敗，請查看後台日誌");
+                return;
+            }
+            sender.sendMessage("§6§l=== 飛行時間排行榜 ===");
+            int rank = 1;
+            for (Map.Entry<UUID, Long> entry : top.entrySet()) {
+                String name = Bukkit.getOfflinePlayer(entry.getKey()).getName();
+                sender.sendMessage("§e" + rank + ". §f" + (name != null ? name : entry.getKey().toString())
+                    + " §7- " + (entry.getValue() / 1000 / 60) + " 分鐘");
+                rank++;
+            }
+        });
+    }
+
     private void openSkinMenu(Player player) {
         SkinMenu skinMenu = new SkinMenu(plugin);
         skinMenu.openMenu(player);
@@ -293,6 +391,70 @@ public class FlyswordCommand implements CommandExecutor {
         player.sendMessage("§a已選擇皮膚: " + skinId);
     }
 
+    private void setEffectQuality(Player player, String qualityId) {
+        PlayerData playerData = plugin.getDataManager().getPlayerData(player);
+        EffectQuality max = plugin.getFlightSettings().getMaxEffectQuality();
+
+        if (qualityId == null) {
+            player.sendMessage("§e目前特效畫質: §7" + playerData.getEffectQuality().getDisplayName()
+                + " (" + playerData.getEffectQuality().getId() + ")");
+            StringBuilder options = new StringBuilder();
+            for (EffectQuality quality : EffectQuality.values()) {
+                if (quality.compareTo(max) <= 0) {
+                    options.append(options.length() == 0 ? "" : ", ").append(quality.getId());
+                }
+            }
+            player.sendMessage("§7用法: /flysword effects <" + options + ">");
+            return;
+        }
+
+        EffectQuality quality = EffectQuality.fromId(qualityId);
+        if (quality == null) {
+            player.sendMessage("§c未知的特效畫質: " + qualityId);
+            return;
+        }
+        if (quality.compareTo(max) > 0) {
+            player.sendMessage("§c伺服器最高只允許 " + max.getDisplayName() + " (" + max.getId() + ") 畫質");
+            return;
+        }
+
+        playerData.setEffectQuality(quality);
+        plugin.getDataManager().savePlayerData(player);
+
+        player.sendMessage("§a特效畫質已設定為: " + quality.getDisplayName());
+    }
+
+    private void handleProfiler(CommandSender sender, String action) {
+        FlightProfiler profiler = plugin.getFlightScheduler().getProfiler();
+        if (action == null) {
+            for (String line : profiler.getReport(5)) {
+                sender.sendMessage(line);
+            }
+            if (!profiler.isEnabled()) {
+                sender.sendMessage("§7使用 /flysword perf on 開始取樣");
+            }
+            return;
+        }
+
+        switch (action) {
+            case "on":
+                profiler.setEnabled(true);
+                sender.sendMessage("§a飛行引擎取樣已開啟");
+                break;
+            case "off":
+                profiler.setEnabled(false);
+                sender.sendMessage("§a飛行引擎取樣已關閉，記錄保留到下次開啟");
+                break;
+            case "reset":
+                profiler.reset();
+                sender.sendMessage("§a飛行引擎取樣記錄已清除");
+                break;
+            default:
+                sender.sendMessage("§c用法: /flysword perf [on|off|reset]");
+                break;
+        }
+    }
+
     private void showPlayerInfo(Player player) {
         PlayerData playerData = plugin.getDataManager().getPlayerData(player);
         SkinManager skinManager = plugin.getSkinManager();
@@ -301,6 +463,7 @@ public class FlyswordCommand implements CommandExecutor {
         player.sendMessage("§e當前皮膚: §7" + playerData.getSelectedSkin());
         player.sendMessage("§e耐久度: §7" + playerData.getDurability() + "%");
         player.sendMessage("§e飛行狀態: §7" + (playerData.isFlying() ? "§a飛行中" : "§c未飛行"));
+        player.sendMessage("§e特效畫質: §7" + playerData.getEffectQuality().getDisplayName());
 
         player.sendMessage("§e已解鎖皮膚:");
         for (String skinId : playerData.getUnlockedSkins()) {
@@ -12,6 +12,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.data.EffectQuality;
 
 /**
  * 飛劍系統主指令 Tab 補全
@@ -32,7 +33,7 @@ public class FlyswordTabCompleter implements TabCompleter {
             // 第一個參數：主要子命令
             List<String> subCommands = Arrays.asList(
                 "reload", "give", "unlock", "list", "menu", "select", "info", 
-                "unlockitem", "listitems"
+                "unlockitem", "listitems", "export", "top", "effects", "perf"
             );
             
             // 根據權限過濾命令
@@ -50,6 +51,7 @@ public class FlyswordTabCompleter implements TabCompleter {
                 case "give":
                 case "unlock":
                 case "unlockitem":
+                case "export":
                     // 玩家名稱補全
                     completions.addAll(getOnlinePlayerNames(args[1]));
                     break;
@@ -57,6 +59,18 @@ public class FlyswordTabCompleter implements TabCompleter {
                     // 皮膚ID補全
                     completions.addAll(getSkinIds(args[1]));
                     break;
+                case "effects":
+                    // 特效畫質補全
+                    completions.addAll(getEffectQualityIds(args[1]));
+                    break;
+                case "perf":
+                    // 取樣操作補全
+                    for (String action : Arrays.asList("on", "off", "reset")) {
+                        if (action.startsWith(args[1].toLowerCase())) {
+                            completions.add(action);
+                        }
+                    }
+                    break;
                 default:
                     break;
             }
@@ -98,10 +112,14 @@ public class FlyswordTabCompleter implements TabCompleter {
             case "list":
             case "unlockitem":
             case "listitems":
+            case "export":
+            case "perf":
                 return sender.hasPermission("flysword.admin");
             case "menu":
             case "select":
             case "info":
+            case "top":
+            case "effects":
                 return sender.hasPermission("flysword.use");
             default:
                 return false;
@@ -121,6 +139,15 @@ public class FlyswordTabCompleter implements TabCompleter {
                 .collect(Collectors.toList());
     }
     
+    private List<String> getEffectQualityIds(String prefix) {
+        EffectQuality max = plugin.getFlightSettings().getMaxEffectQuality();
+        return Arrays.stream(EffectQuality.values())
+                .filter(quality -> quality.compareTo(max) <= 0)
+                .map(EffectQuality::getId)
+                .filter(id -> id.startsWith(prefix.toLowerCase()))
+                .collect(Collectors.toList());
+    }
+    
     private List<String> getUnlockItemIds(String prefix) {
         return plugin.getUnlockItemManager().getAllUnlockItemIds().stream()
                 .filter(itemId -> itemId.toLowerCase().startsWith(prefix.toLowerCase()))
@@ -116,6 +116,7 @@ public class SwordPositionCommand implements CommandExecutor {
             plugin.getConfig().set("flight.sword_offset.x", x);
             plugin.getConfig().set("flight.sword_offset.y", y);
             plugin.getConfig().set("flight.sword_offset.z", z);
+            plugin.reloadFlightSettings();
 
             player.sendMessage("§a已設定飛劍位置偏移:");
             player.sendMessage("§eX: §a" + x + " §7(左右)");
@@ -134,6 +135,7 @@ public class SwordPositionCommand implements CommandExecutor {
         plugin.getConfig().set("flight.sword_offset.x", 0.8);
         plugin.getConfig().set("flight.sword_offset.y", -1.5);
         plugin.getConfig().set("flight.sword_offset.z", 0.0);
+        plugin.reloadFlightSettings();
 
         player.sendMessage("§a已重置飛劍位置為預設值!");
         showCurrentOffset(player);
@@ -177,6 +179,7 @@ public class SwordPositionCommand implements CommandExecutor {
     private void reloadFromConfig(Player player) {
         try {
             plugin.reloadConfig();
+            plugin.reloadFlightSettings();
             player.sendMessage("§a已從配置文件重新載入飛劍位置設定！");
             showCurrentOffset(player);
         } catch (Exception e) {
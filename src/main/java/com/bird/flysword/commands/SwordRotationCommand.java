@@ -124,6 +124,7 @@ public class SwordRotationCommand implements CommandExecutor {
             plugin.getConfig().set("flight.sword_rotation.x", x);
             plugin.getConfig().set("flight.sword_rotation.y", y);
             plugin.getConfig().set("flight.sword_rotation.z", z);
+            plugin.reloadFlightSettings();
 
             player.sendMessage("§a已設定飛劍角度:");
             player.sendMessage("§eX (俯仰): §a" + x + "° §7(向上/向下傾斜)");
@@ -185,6 +186,7 @@ public class SwordRotationCommand implements CommandExecutor {
         plugin.getConfig().set("flight.sword_rotation.x", x);
         plugin.getConfig().set("flight.sword_rotation.y", y);
         plugin.getConfig().set("flight.sword_rotation.z", z);
+        plugin.reloadFlightSettings();
 
         player.sendMessage("§a已套用預設: §e" + presetName);
         player.sendMessage("§7角度: X=" + x + "°, Y=" + y + "°, Z=" + z + "°");
@@ -195,6 +197,7 @@ public class SwordRotationCommand implements CommandExecutor {
         plugin.getConfig().set("flight.sword_rotation.x", 0.0);
         plugin.getConfig().set("flight.sword_rotation.y", 0.0);
         plugin.getConfig().set("flight.sword_rotation.z", 0.0);
+        plugin.reloadFlightSettings();
 
         player.sendMessage("§a已重置飛劍角度為預設值!");
         showCurrentRotation(player);
@@ -238,6 +241,7 @@ public class SwordRotationCommand implements CommandExecutor {
     private void reloadFromConfig(Player player) {
         try {
             plugin.reloadConfig();
+            plugin.reloadFlightSettings();
             player.sendMessage("§a已從配置文件重新載入飛劍角度設定！");
             showCurrentRotation(player);
         } catch (Exception e) {
@@ -0,0 +1,62 @@
+package com.bird.flysword.core.collision;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.World;
+
+/**
+ * 非同步碰撞預測器
+ * 碰撞區段是不可變的位元遮罩，主線程只需複製 27 個區段引用，掃描則在預測線程執行
+ */
+public class AsyncCollisionPredictor {
+
+    private final VoxelCollisionEngine engine;
+    private final ExecutorService executor;
+
+    public AsyncCollisionPredictor(VoxelCollisionEngine engine, int threads) {
+        this.engine = engine;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "FlySword-Collision-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 為騎乘者建立預測狀態
+     */
+    public CollisionPrediction createPrediction() {
+        return new CollisionPrediction(engine);
+    }
+
+    /**
+     * 在主線程更新碰撞視窗並提交掃描，上一次預測尚未完成時略過
+     */
+    public void submit(CollisionPrediction prediction, VoxelWindow window, World world,
+                       double x, double y, double z, double dirX, double dirY, double dirZ,
+                       double distance, double halfWidth, double minY, double maxY) {
+        window.update(world, x, y, z);
+        if (!prediction.prepare(window, x, y, z, dirX, dirY, dirZ, distance, halfWidth, minY, maxY)) {
+            return;
+        }
+        try {
+            executor.execute(prediction);
+        } catch (RejectedExecutionException e) {
+            prediction.cancel();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
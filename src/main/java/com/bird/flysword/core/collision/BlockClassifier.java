@@ -0,0 +1,96 @@
+package com.bird.flysword.core.collision;
+
+import org.bukkit.Material;
+
+/**
+ * 方塊分類表
+ * 啟動時按 Material.ordinal() 預先計算每種方塊的旗標，查詢只需一次陣列讀取
+ */
+public final class BlockClassifier {
+
+    public static final int SOLID = 1;       // 不可穿越
+    public static final int PASSABLE = 1 << 1; // 可穿越（空氣、液體、植物等）
+    public static final int DANGEROUS = 1 << 2; // 會造成傷害
+    public static final int LANDABLE = 1 << 3; // 可作為降落地面
+
+    private static final byte[] FLAGS;
+
+    static {
+        Material[] materials = Material.values();
+        FLAGS = new byte[materials.length];
+        for (Material material : materials) {
+            if (material.isLegacy() || !material.isBlock()) {
+                continue;
+            }
+            int flags = 0;
+            if (material.isSolid()) {
+                flags |= SOLID;
+            }
+            flags |= classifyDangerous(material);
+            FLAGS[material.ordinal()] = (byte) flags;
+        }
+
+        // 雖然是固體但可以穿越的方塊
+        clear(Material.SNOW, SOLID);
+        clear(Material.TALL_GRASS, SOLID);
+        clear(Material.SHORT_GRASS, SOLID);
+
+        for (Material material : materials) {
+            int index = material.ordinal();
+            if (material.isLegacy() || !material.isBlock()) {
+                continue;
+            }
+            if ((FLAGS[index] & SOLID) == 0) {
+                FLAGS[index] |= PASSABLE;
+            } else if ((FLAGS[index] & DANGEROUS) == 0) {
+                FLAGS[index] |= LANDABLE;
+            }
+        }
+    }
+
+    private BlockClassifier() {
+    }
+
+    private static int classifyDangerous(Material material) {
+        switch (material) {
+            case LAVA:
+            case MAGMA_BLOCK:
+            case CACTUS:
+            case SWEET_BERRY_BUSH:
+            case FIRE:
+            case SOUL_FIRE:
+            case CAMPFIRE:
+            case SOUL_CAMPFIRE:
+            case POWDER_SNOW:
+            case WITHER_ROSE:
+            case POINTED_DRIPSTONE:
+                return DANGEROUS;
+            default:
+                return 0;
+        }
+    }
+
+    private static void clear(Material material, int flag) {
+        FLAGS[material.ordinal()] &= (byte) ~flag;
+    }
+
+    public static int getFlags(Material material) {
+        return FLAGS[material.ordinal()];
+    }
+
+    public static boolean isSolid(Material material) {
+        return (FLAGS[material.ordinal()] & SOLID) != 0;
+    }
+
+    public static boolean isPassable(Material material) {
+        return (FLAGS[material.ordinal()] & PASSABLE) != 0;
+    }
+
+    public static boolean isDangerous(Material material) {
+        return (FLAGS[material.ordinal()] & DANGEROUS) != 0;
+    }
+
+    public static boolean isLandable(Material material) {
+        return (FLAGS[material.ordinal()] & LANDABLE) != 0;
+    }
+}
@@ -1,10 +1,8 @@
 package com.bird.flysword.core.collision;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
@@ -15,72 +13,72 @@ import org.bukkit.util.Vector;
  */
 public class CollisionDetector {
     
-    // 不可穿越的方塊類型
-    private static final Set<Material> SOLID_BLOCKS = new HashSet<>();
+    private static final CollisionResult NO_COLLISION = new CollisionResult(false, null, null);
     
-    static {
-        // 添加所有固體方塊
-        for (Material material : Material.values()) {
-            if (material.isSolid() && material.isBlock()) {
-                SOLID_BLOCKS.add(material);
-            }
-        }
-        
-        // 移除一些可以穿越的固體方塊
-        SOLID_BLOCKS.remove(Material.SNOW);
-        SOLID_BLOCKS.remove(Material.TALL_GRASS);
-        SOLID_BLOCKS.remove(Material.SHORT_GRASS);
+    // 檢查範圍：腳下一格到頭頂上方
+    private static final double CHECK_MIN_Y = -1.0;
+    private static final double CHECK_MAX_Y = 2.0;
+    
+    private static final int MAX_LANDING_DEPTH = 50;
+    
+    private final VoxelCollisionEngine engine;
+    
+    // 查詢用的視窗與命中結果，重複使用
+    private final VoxelWindow window;
+    private final VoxelHit hit;
+    
+    public CollisionDetector(VoxelCollisionEngine engine) {
+        this.engine = engine;
+        this.window = engine.createWindow();
+        this.hit = new VoxelHit();
     }
     
     /**
      * 檢查指定路徑是否有碰撞
      */
     public CollisionResult checkPathCollision(Location start, Location end, double playerRadius) {
-        Vector direction = end.toVector().subtract(start.toVector());
-        double distance = direction.length();
+        double dx = end.getX() - start.getX();
+        double dy = end.getY() - start.getY();
+        double dz = end.getZ() - start.getZ();
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
         
         if (distance == 0) {
-            return new CollisionResult(false, null, null);
+            return NO_COLLISION;
         }
         
-        direction.normalize();
-        
-        // 按步長檢查路徑
-        double stepSize = 0.5;
-        int steps = (int) Math.ceil(distance / stepSize);
-        
-        for (int i = 0; i <= steps; i++) {
-            double currentDistance = Math.min(i * stepSize, distance);
-            Location checkPoint = start.clone().add(direction.clone().multiply(currentDistance));
-            
-            CollisionResult collision = checkPointCollision(checkPoint, playerRadius);
-            if (collision.hasCollision()) {
-                return collision;
-            }
+        window.update(start.getWorld(), start.getX(), start.getY(), start.getZ());
+        if (window.sweep(start.getX(), start.getY(), start.getZ(), dx, dy, dz, distance,
+                playerRadius, CHECK_MIN_Y, CHECK_MAX_Y, hit)) {
+            return toResult(start.getWorld());
         }
         
-        return new CollisionResult(false, null, null);
+        return NO_COLLISION;
     }
     
     /**
      * 檢查單點碰撞
      */
     public CollisionResult checkPointCollision(Location location, double playerRadius) {
-        // 檢查玩家周圍的方塊
-        for (double x = -playerRadius; x <= playerRadius; x += 0.5) {
-            for (double y = -1.0; y <= 2.0; y += 0.5) {
-                for (double z = -playerRadius; z <= playerRadius; z += 0.5) {
-                    Location checkLoc = location.clone().add(x, y, z);
-                    Block block = checkLoc.getBlock();
-                    
-                    if (SOLID_BLOCKS.contains(block.getType())) {
-                        return new CollisionResult(true, checkLoc, block.getType());
-                    }
-                }
-            }
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        
+        window.update(location.getWorld(), x, y, z);
+        hit.reset();
+        if (window.intersects(x - playerRadius, y + CHECK_MIN_Y, z - playerRadius,
+                x + playerRadius, y + CHECK_MAX_Y, z + playerRadius, hit)) {
+            return toResult(location.getWorld());
         }
         
-        return new CollisionResult(false, null, null);
+        return NO_COLLISION;
+    }
+    
+    /**
+     * 只在命中時才建立 Location 與讀取方塊類型
+     */
+    private CollisionResult toResult(World world) {
+        Block block = world.getBlockAt(hit.getBlockX(), hit.getBlockY(), hit.getBlockZ());
+        return new CollisionResult(true, block.getLocation(), block.getType());
     }
     
     /**
@@ -113,79 +111,25 @@ public class CollisionDetector {
      * 尋找安全的降落點
      */
     public Location findSafeLandingSpot(Location startLocation, double searchRadius) {
-        Location center = startLocation.clone();
-        
-        // 從中心開始螺旋搜索
-        for (double radius = 1.0; radius <= searchRadius; radius += 1.0) {
-            for (double angle = 0; angle < 360; angle += 15) {
-                double radians = Math.toRadians(angle);
-                double x = center.getX() + radius * Math.cos(radians);
-                double z = center.getZ() + radius * Math.sin(radians);
-                
-                Location testLoc = new Location(center.getWorld(), x, center.getY(), z);
-                
-                // 尋找地面
-                Location groundLoc = findGroundBelow(testLoc, 50);
-                if (groundLoc != null && isSafeLandingSpot(groundLoc)) {
-                    return groundLoc;
-                }
-            }
-        }
-        
-        return null; // 找不到安全點
-    }
-    
-    /**
-     * 在指定位置下方尋找地面
-     */
-    private Location findGroundBelow(Location location, int maxDepth) {
-        for (int y = 0; y < maxDepth; y++) {
-            Location checkLoc = location.clone().subtract(0, y, 0);
-            Block block = checkLoc.getBlock();
-            Block above = checkLoc.clone().add(0, 1, 0).getBlock();
-            
-            if (SOLID_BLOCKS.contains(block.getType()) && above.getType() == Material.AIR) {
-                return checkLoc.add(0, 1, 0); // 地面上方一格
-            }
-        }
-        
-        return null;
-    }
-    
-    /**
-     * 檢查是否為安全的降落點
-     */
-    private boolean isSafeLandingSpot(Location location) {
-        // 檢查降落點上方是否有足夠空間
-        for (int y = 1; y <= 3; y++) {
-            Block block = location.clone().add(0, y, 0).getBlock();
-            if (SOLID_BLOCKS.contains(block.getType())) {
-                return false;
-            }
-        }
-        
-        // 檢查是否在危險方塊上
-        Block ground = location.clone().subtract(0, 1, 0).getBlock();
-        Material groundType = ground.getType();
-        
-        return groundType != Material.LAVA && 
-               groundType != Material.MAGMA_BLOCK && 
-               groundType != Material.CACTUS &&
-               groundType != Material.SWEET_BERRY_BUSH;
+        LandingSearch search = engine.beginLandingSearch(startLocation, (int) searchRadius, MAX_LANDING_DEPTH);
+        search.step(Integer.MAX_VALUE);
+        return search.isFound() ? search.toLocation(startLocation) : null; // 找不到安全點時返回 null
     }
     
     /**
      * 檢查垂直碰撞（天花板和地面）
      */
     public boolean checkVerticalCollision(Location location, double verticalVelocity) {
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
         if (verticalVelocity > 0) {
             // 向上移動，檢查天花板
-            Block ceiling = location.clone().add(0, 2.5, 0).getBlock();
-            return SOLID_BLOCKS.contains(ceiling.getType());
+            window.update(location.getWorld(), location.getX(), location.getY(), location.getZ());
+            return window.isSolid(x, (int) Math.floor(location.getY() + 2.5), z);
         } else if (verticalVelocity < 0) {
             // 向下移動，檢查地面
-            Block ground = location.clone().subtract(0, 1, 0).getBlock();
-            return SOLID_BLOCKS.contains(ground.getType());
+            window.update(location.getWorld(), location.getX(), location.getY(), location.getZ());
+            return window.isSolid(x, (int) Math.floor(location.getY() - 1), z);
         }
         
         return false;
@@ -220,10 +164,7 @@ public class CollisionDetector {
         public boolean isDangerous() {
             if (!hasCollision) return false;
             
-            return collisionMaterial == Material.LAVA ||
-                   collisionMaterial == Material.MAGMA_BLOCK ||
-                   collisionMaterial == Material.CACTUS ||
-                   collisionMaterial == Material.SWEET_BERRY_BUSH;
+            return collisionMaterial != null && BlockClassifier.isDangerous(collisionMaterial);
         }
     }
 }
@@ -0,0 +1,94 @@
+package com.bird.flysword.core.collision;
+
+/**
+ * 單一騎乘者的非同步碰撞預測
+ * 主線程複製碰撞視窗與掃描參數後交給預測線程，結果在之後的 tick 讀取
+ * 物件在整個飛行期間重複使用，同一時間最多只有一個預測在執行
+ */
+public final class CollisionPrediction implements Runnable {
+
+    private final VoxelWindow window;
+    private final VoxelHit hit = new VoxelHit();
+
+    // 掃描參數（主線程寫入，提交後由預測線程讀取）
+    private double x;
+    private double y;
+    private double z;
+    private double dirX;
+    private double dirY;
+    private double dirZ;
+    private double distance;
+    private double halfWidth;
+    private double minY;
+    private double maxY;
+
+    // 預測結果
+    private boolean blocked;
+    private double hitDistance;
+    private volatile boolean ready;
+    private volatile boolean inFlight;
+
+    CollisionPrediction(VoxelCollisionEngine engine) {
+        this.window = engine.createWindow();
+    }
+
+    /**
+     * 在主線程準備下一次預測，已有預測在執行時返回 false
+     */
+    boolean prepare(VoxelWindow source, double x, double y, double z, double dirX, double dirY, double dirZ,
+                    double distance, double halfWidth, double minY, double maxY) {
+        if (inFlight) {
+            return false;
+        }
+        window.copyFrom(source);
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.dirX = dirX;
+        this.dirY = dirY;
+        this.dirZ = dirZ;
+        this.distance = distance;
+        this.halfWidth = halfWidth;
+        this.minY = minY;
+        this.maxY = maxY;
+        inFlight = true;
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            blocked = window.sweep(x, y, z, dirX, dirY, dirZ, distance, halfWidth, minY, maxY, hit);
+            hitDistance = blocked ? hit.getDistance() : 0;
+            ready = true;
+        } finally {
+            inFlight = false;
+        }
+    }
+
+    void cancel() {
+        inFlight = false;
+    }
+
+    /**
+     * 取出已完成的預測結果，沒有新結果時返回 false
+     */
+    public boolean poll() {
+        if (!ready) {
+            return false;
+        }
+        ready = false;
+        return true;
+    }
+
+    /**
+     * 最近一次取出的預測是否發現障礙物
+     */
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    public double getHitDistance() {
+        return hitDistance;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bird.flysword.core.collision;
+
+/**
+ * 碰撞檢查的統計
+ * 只在主線程累加
+ */
+public final class CollisionStats {
+
+    private long sweeps;
+    private long predictions;
+    private long obstacleHits;
+    private long landingProbes;
+
+    public void recordSweep() {
+        sweeps++;
+    }
+
+    public void recordPrediction() {
+        predictions++;
+    }
+
+    public void recordObstacleHit() {
+        obstacleHits++;
+    }
+
+    void recordLandingProbes(int probes) {
+        landingProbes += probes;
+    }
+
+    /**
+     * 在主線程執行的障礙物掃描次數
+     */
+    public long getSweeps() {
+        return sweeps;
+    }
+
+    /**
+     * 提交給背景線程的障礙物預測次數
+     */
+    public long getPredictions() {
+        return predictions;
+    }
+
+    /**
+     * 發現前方障礙物的次數（含預測結果）
+     */
+    public long getObstacleHits() {
+        return obstacleHits;
+    }
+
+    /**
+     * 安全降落搜索的方塊探測次數
+     */
+    public long getLandingProbes() {
+        return landingProbes;
+    }
+}
@@ -0,0 +1,126 @@
+package com.bird.flysword.core.collision;
+
+/**
+ * 以區塊座標為鍵的開放定址雜湊表
+ * 鍵為原始 long，查詢時不需裝箱；刪除採用後移補位，不留下墓碑
+ * 可依槽位逐一走訪，供分段巡檢使用
+ */
+final class ColumnMap<V> {
+
+    private static final int INITIAL_CAPACITY = 64; // 必須為 2 的次方
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = values.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    void put(long key, V value) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * 2 > values.length) {
+            resize(values.length * 2);
+            insert(key, value);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        Object removed = values[slot];
+        if (removed == null) {
+            return null;
+        }
+        values[slot] = null;
+        size--;
+
+        // 將後續同一探測鏈上的元素往前補位
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return (V) removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 槽位數量，與 {@link #valueAt(int)} 一起用於走訪
+     */
+    int capacity() {
+        return values.length;
+    }
+
+    /**
+     * 指定槽位的值，空槽位返回 null
+     */
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private void insert(long key, Object value) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,182 @@
+package com.bird.flysword.core.collision;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+
+/**
+ * 可分段執行的安全降落點搜索
+ * 由中心列開始按方形環向外搜索：露天的列直接讀取地表高度快取；
+ * 頭頂有遮蔽（例如在洞穴中）的列才逐格往下掃描，每次 step 以探測次數為預算，超出則留待下一個 tick 繼續
+ */
+public final class LandingSearch {
+
+    private final VoxelWorldCache cache;
+    private final CollisionStats stats;
+    private final int originX;
+    private final int originZ;
+    private final int startY;
+    private final int radius;
+    private final int lowestY; // 逐格掃描的最低高度
+
+    // 目前的候選列（第 ring 環的第 index 個）
+    private int ring;
+    private int index;
+
+    // 往下掃描的狀態
+    private boolean scanning;
+    private int scanY;
+    private boolean solidAbove1;
+    private boolean solidAbove2;
+
+    private boolean done;
+    private boolean found;
+    private int resultX;
+    private int resultY;
+    private int resultZ;
+
+    LandingSearch(VoxelWorldCache cache, CollisionStats stats, Location from, int radius, int maxDepth) {
+        this.cache = cache;
+        this.stats = stats;
+        this.originX = from.getBlockX();
+        this.originZ = from.getBlockZ();
+        this.startY = from.getBlockY();
+        this.radius = Math.max(0, radius);
+        this.lowestY = Math.max(cache.getMinY(), startY - maxDepth);
+    }
+
+    /**
+     * 執行最多 probeBudget 次探測
+     * @return 搜索是否已結束
+     */
+    public boolean step(int probeBudget) {
+        stats.recordLandingProbes(probe(probeBudget));
+        return done;
+    }
+
+    /**
+     * @return 實際使用的探測次數
+     */
+    private int probe(int probeBudget) {
+        int probes = 0;
+        while (!done && probes < probeBudget) {
+            int x = originX + ringOffsetX();
+            int z = originZ + ringOffsetZ();
+
+            if (!scanning) {
+                probes++;
+                int surface = cache.getSurfaceY(x, z);
+                if (surface == VoxelWorldCache.UNLOADED) {
+                    nextCandidate();
+                    continue;
+                }
+                if (surface < startY && surface >= cache.getMinY()) {
+                    // 露天：地表以上都是空氣，不論多深都只需一次查詢
+                    finish(x, surface + 1, z);
+                    return probes;
+                }
+                if (surface < startY) {
+                    // 地表不可降落
+                    nextCandidate();
+                    continue;
+                }
+                // 頭頂有遮蔽，改為逐格往下掃描
+                scanning = true;
+                scanY = startY;
+                solidAbove2 = isSolid(x, startY + 2, z);
+                solidAbove1 = isSolid(x, startY + 1, z);
+                probes += 2;
+                continue;
+            }
+
+            probes++;
+            Material type = cache.getWorld().getBlockAt(x, scanY, z).getType();
+            if (BlockClassifier.isLandable(type) && !solidAbove1 && !solidAbove2) {
+                finish(x, scanY + 1, z);
+                return probes;
+            }
+            solidAbove2 = solidAbove1;
+            solidAbove1 = BlockClassifier.isSolid(type);
+            if (--scanY < lowestY) {
+                scanning = false;
+                nextCandidate();
+            }
+        }
+        return probes;
+    }
+
+    private boolean isSolid(int x, int y, int z) {
+        return BlockClassifier.isSolid(cache.getWorld().getBlockAt(x, y, z).getType());
+    }
+
+    private void finish(int x, int y, int z) {
+        done = true;
+        found = true;
+        resultX = x;
+        resultY = y;
+        resultZ = z;
+    }
+
+    private void nextCandidate() {
+        index++;
+        if (index >= Math.max(1, ring * 8)) {
+            ring++;
+            index = 0;
+            if (ring > radius) {
+                done = true;
+            }
+        }
+    }
+
+    // 方形環：每邊 2r 格，依序為北、東、南、西四邊
+    private int ringOffsetX() {
+        if (ring == 0) {
+            return 0;
+        }
+        int side = index / (ring * 2);
+        int offset = index % (ring * 2);
+        switch (side) {
+            case 0:
+                return -ring + offset;
+            case 1:
+                return ring;
+            case 2:
+                return ring - offset;
+            default:
+                return -ring;
+        }
+    }
+
+    private int ringOffsetZ() {
+        if (ring == 0) {
+            return 0;
+        }
+        int side = index / (ring * 2);
+        int offset = index % (ring * 2);
+        switch (side) {
+            case 0:
+                return -ring;
+            case 1:
+                return -ring + offset;
+            case 2:
+                return ring;
+            default:
+                return ring - offset;
+        }
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * 將結果轉為方塊中心的位置，保留原本的視角
+     */
+    public Location toLocation(Location facing) {
+        return new Location(cache.getWorld(), resultX + 0.5, resultY, resultZ + 0.5,
+            facing.getYaw(), facing.getPitch());
+    }
+}
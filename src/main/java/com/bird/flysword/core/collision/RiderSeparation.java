@@ -0,0 +1,89 @@
+package com.bird.flysword.core.collision;
+
+import com.bird.flysword.core.spatial.SpatialHash;
+import com.bird.flysword.core.spatial.SpatialQuery;
+
+/**
+ * 飛行者之間的柔性分離
+ * 以空間索引做粗略篩選，只檢查半徑內的鄰居，總成本約與飛行者數量成正比；
+ * 重疊越深推力越大，完全重疊時推力最大；每位飛行者各自計算自己受到的推力，結果自然對稱
+ */
+public final class RiderSeparation {
+
+    public static final int IMPULSE_SIZE = 3;
+
+    private static final double OVERLAP_EPSILON = 1.0E-4;
+
+    private RiderSeparation() {
+    }
+
+    /**
+     * 計算某位飛行者受到的分離推力
+     *
+     * @param index 飛行者空間索引
+     * @param self 該飛行者在索引中的句柄
+     * @param radius 兩位飛行者中心需保持的距離
+     * @param strength 完全重疊時的推力
+     * @param maxImpulse 推力上限
+     * @param query 重複使用的查詢緩衝區
+     * @param out 長度至少為 3 的輸出陣列，寫入 x、y、z 推力
+     * @return 接觸的鄰居數量
+     */
+    public static <T> int computeImpulse(SpatialHash<T> index, SpatialHash.Entry<T> self,
+                                         double radius, double strength, double maxImpulse,
+                                         SpatialQuery<T> query, double[] out) {
+        out[0] = 0.0;
+        out[1] = 0.0;
+        out[2] = 0.0;
+        int found = index.queryRadius(self.getWorld(), self.getX(), self.getY(), self.getZ(), radius, query);
+
+        int contacts = 0;
+        for (int i = 0; i < found; i++) {
+            SpatialHash.Entry<T> other = query.getEntry(i);
+            if (other == self) {
+                continue;
+            }
+            double dx = self.getX() - other.getX();
+            double dy = self.getY() - other.getY();
+            double dz = self.getZ() - other.getZ();
+            double distance = Math.sqrt(query.getDistanceSquared(i));
+            double scale;
+            if (distance < OVERLAP_EPSILON) {
+                // 完全重疊時沒有方向，以全力推往由兩者序號決定的水平單位方向，
+                // 序號較小的一方取正向、較大的一方取反向，兩者必定推往相反方向
+                long low = Math.min(self.getSerial(), other.getSerial());
+                long high = Math.max(self.getSerial(), other.getSerial());
+                double angle = (mix(low, high) >>> 11) * 0x1.0p-53 * (2.0 * Math.PI);
+                double sign = self.getSerial() == low ? 1.0 : -1.0;
+                dx = sign * Math.cos(angle);
+                dy = 0.0;
+                dz = sign * Math.sin(angle);
+                scale = strength;
+            } else {
+                double overlap = Math.max(0.0, radius - distance) / radius;
+                scale = strength * overlap / distance;
+            }
+            out[0] += dx * scale;
+            out[1] += dy * scale;
+            out[2] += dz * scale;
+            contacts++;
+        }
+
+        double magnitudeSquared = out[0] * out[0] + out[1] * out[1] + out[2] * out[2];
+        if (magnitudeSquared > maxImpulse * maxImpulse) {
+            double scale = maxImpulse / Math.sqrt(magnitudeSquared);
+            out[0] *= scale;
+            out[1] *= scale;
+            out[2] *= scale;
+        }
+        return contacts;
+    }
+
+    private static long mix(long a, long b) {
+        long h = a * 0x9E3779B97F4A7C15L ^ b * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
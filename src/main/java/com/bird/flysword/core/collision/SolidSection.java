@@ -0,0 +1,82 @@
+package com.bird.flysword.core.collision;
+
+import org.bukkit.ChunkSnapshot;
+
+/**
+ * 16x16x16 區段的固體方塊位元遮罩（4096 位元 = 64 個 long）
+ * 建立後不可變，方塊變化時以複製後修改的方式產生新區段
+ */
+public final class SolidSection {
+
+    /**
+     * 全空氣區段（天空中的區段共用此實例）
+     */
+    public static final SolidSection EMPTY = new SolidSection(null);
+
+    private static final int WORDS = 64;
+
+    // null 表示整個區段都不是固體
+    private final long[] bits;
+
+    private SolidSection(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * 從區塊快照建立區段
+     * @param baseY 區段底部的世界 Y 座標
+     */
+    static SolidSection fromSnapshot(ChunkSnapshot snapshot, int baseY) {
+        long[] bits = null;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (BlockClassifier.isSolid(snapshot.getBlockType(x, baseY + y, z))) {
+                        if (bits == null) {
+                            bits = new long[WORDS];
+                        }
+                        int index = index(x, y, z);
+                        bits[index >>> 6] |= 1L << index;
+                    }
+                }
+            }
+        }
+        return bits == null ? EMPTY : new SolidSection(bits);
+    }
+
+    /**
+     * 檢查區段內座標（0-15）是否為固體
+     */
+    public boolean isSolid(int x, int y, int z) {
+        if (bits == null) {
+            return false;
+        }
+        int index = index(x, y, z);
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 返回修改單一方塊後的新區段
+     */
+    SolidSection with(int x, int y, int z, boolean solid) {
+        if (isSolid(x, y, z) == solid) {
+            return this;
+        }
+        long[] copy = bits == null ? new long[WORDS] : bits.clone();
+        int index = index(x, y, z);
+        if (solid) {
+            copy[index >>> 6] |= 1L << index;
+        } else {
+            copy[index >>> 6] &= ~(1L << index);
+        }
+        return new SolidSection(copy);
+    }
+
+    public boolean isEmpty() {
+        return bits == null;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+}
@@ -0,0 +1,218 @@
+package com.bird.flysword.core.collision;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFertilizeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * 體素碰撞引擎
+ * 將區塊快照轉為固體位元遮罩並按世界共用，騎乘者透過 VoxelWindow 查詢
+ * 同時快取每列的可降落地表高度，供 LandingSearch 使用
+ * 方塊變化先記錄下來，於每個飛行 tick 開始時統一套用；區塊卸載時移除快取
+ * 沒有事件的變化（例如其他插件直接修改世界）由快取定期重新快照騎乘者所在的區塊修正
+ * 只在主線程使用
+ */
+public class VoxelCollisionEngine implements Listener {
+
+    private final Map<UUID, VoxelWorldCache> worlds = new HashMap<>();
+    private final CollisionStats stats = new CollisionStats();
+
+    /**
+     * 為騎乘者建立碰撞視窗
+     */
+    public VoxelWindow createWindow() {
+        return new VoxelWindow(this);
+    }
+
+    /**
+     * 開始搜索安全降落點，由呼叫者以 LandingSearch.step 分段推進
+     */
+    public LandingSearch beginLandingSearch(Location from, int radius, int maxDepth) {
+        return new LandingSearch(getWorldCache(from.getWorld()), stats, from, radius, maxDepth);
+    }
+
+    VoxelWorldCache getWorldCache(World world) {
+        return worlds.computeIfAbsent(world.getUID(), id -> new VoxelWorldCache(world));
+    }
+
+    /**
+     * 套用本 tick 之前記錄的方塊變化（由飛行引擎在每個 tick 開始時呼叫）
+     */
+    public void applyPendingChanges() {
+        for (VoxelWorldCache cache : worlds.values()) {
+            cache.applyPendingChanges();
+        }
+    }
+
+    /**
+     * 獲取目前快取的區塊數量
+     */
+    public int getCachedColumnCount() {
+        int count = 0;
+        for (VoxelWorldCache cache : worlds.values()) {
+            count += cache.getCachedColumnCount();
+        }
+        return count;
+    }
+
+    /**
+     * 獲取碰撞檢查的統計
+     */
+    public CollisionStats getStats() {
+        return stats;
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+
+    private void markChanged(Block block) {
+        VoxelWorldCache cache = worlds.get(block.getWorld().getUID());
+        if (cache != null) {
+            cache.markChanged(block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    private void markChanged(List<Block> blocks) {
+        for (Block block : blocks) {
+            markChanged(block);
+        }
+    }
+
+    private void markMoved(List<Block> blocks, BlockFace direction) {
+        for (Block block : blocks) {
+            markChanged(block);
+            markChanged(block.getRelative(direction));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    // BlockSpreadEvent 繼承 BlockFormEvent 但有自己的 HandlerList，需要分開監聽
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockGrow(BlockGrowEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFertilize(BlockFertilizeEvent event) {
+        VoxelWorldCache cache = worlds.get(event.getBlock().getWorld().getUID());
+        if (cache == null) {
+            return;
+        }
+        for (BlockState state : event.getBlocks()) {
+            cache.markChanged(state.getX(), state.getY(), state.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        markChanged(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        markChanged(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        markChanged(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        markChanged(event.getBlock().getRelative(event.getDirection()));
+        markMoved(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        markChanged(event.getBlock().getRelative(event.getDirection()));
+        markMoved(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        VoxelWorldCache cache = worlds.get(event.getWorld().getUID());
+        if (cache == null) {
+            return;
+        }
+        for (BlockState state : event.getBlocks()) {
+            cache.markChanged(state.getX(), state.getY(), state.getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        VoxelWorldCache cache = worlds.get(event.getWorld().getUID());
+        if (cache != null) {
+            cache.unloadChunk(event.getChunk().getX(), event.getChunk().getZ());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID());
+    }
+}
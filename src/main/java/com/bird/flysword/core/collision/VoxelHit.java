@@ -0,0 +1,49 @@
+package com.bird.flysword.core.collision;
+
+/**
+ * 體素掃描的命中結果（由呼叫者持有並重複使用，避免每次查詢分配物件）
+ */
+public final class VoxelHit {
+
+    private boolean hit;
+    private int blockX;
+    private int blockY;
+    private int blockZ;
+    private double distance;
+
+    void set(int blockX, int blockY, int blockZ, double distance) {
+        this.hit = true;
+        this.blockX = blockX;
+        this.blockY = blockY;
+        this.blockZ = blockZ;
+        this.distance = distance;
+    }
+
+    public void reset() {
+        hit = false;
+        distance = 0;
+    }
+
+    public boolean isHit() {
+        return hit;
+    }
+
+    public int getBlockX() {
+        return blockX;
+    }
+
+    public int getBlockY() {
+        return blockY;
+    }
+
+    public int getBlockZ() {
+        return blockZ;
+    }
+
+    /**
+     * 命中時沿掃描方向移動的距離
+     */
+    public double getDistance() {
+        return distance;
+    }
+}
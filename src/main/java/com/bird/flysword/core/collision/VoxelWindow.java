@@ -0,0 +1,194 @@
+package com.bird.flysword.core.collision;
+
+import org.bukkit.World;
+
+/**
+ * 騎乘者周圍 3x3x3 區段的碰撞視窗
+ * 只有跨越區段邊界、區段有變化或區塊尚未載入時才重新取得區段，其餘 tick 直接重用；
+ * 定期標記周圍的列為使用中，讓快取重新快照騎乘者所在的區塊
+ * 所有查詢都不分配物件
+ */
+public final class VoxelWindow {
+
+    private static final double EPSILON = 1.0E-4;
+
+    private final VoxelCollisionEngine engine;
+    private final SolidSection[] sections = new SolidSection[27];
+    private VoxelWorldCache cache;
+    private int centerX;
+    private int centerY;
+    private int centerZ;
+    private int version = -1;
+    private int touchedTick;
+    private boolean complete;
+
+    VoxelWindow(VoxelCollisionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * 以指定座標為中心更新視窗
+     */
+    public void update(World world, double x, double y, double z) {
+        int sx = floor(x) >> 4;
+        int sy = floor(y) >> 4;
+        int sz = floor(z) >> 4;
+
+        if (cache == null || cache.getWorld() != world) {
+            cache = engine.getWorldCache(world);
+            complete = false;
+            touchedTick = cache.getTick() - VoxelWorldCache.TOUCH_INTERVAL;
+        }
+        if (cache.getTick() - touchedTick >= VoxelWorldCache.TOUCH_INTERVAL) {
+            cache.touch(sx, sz);
+            touchedTick = cache.getTick();
+        }
+        if (complete && sx == centerX && sy == centerY && sz == centerZ && version == cache.getVersion()) {
+            return;
+        }
+
+        if (!complete || sx != centerX || sy != centerY || sz != centerZ) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    cache.ensureSections(sx + dx, sz + dz, sy - 1, sy + 1);
+                }
+            }
+            centerX = sx;
+            centerY = sy;
+            centerZ = sz;
+        }
+
+        // 有區段缺失（區塊未載入或已卸載）時，下一次更新會再嘗試建立
+        boolean loaded = true;
+        int i = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    SolidSection section = cache.getSection(sx + dx, sy + dy, sz + dz);
+                    sections[i++] = section;
+                    loaded &= section != null;
+                }
+            }
+        }
+        complete = loaded;
+        version = cache.getVersion();
+    }
+
+    /**
+     * 複製另一個視窗目前的區段引用（區段不可變，複製後可在其他線程唯讀查詢）
+     */
+    void copyFrom(VoxelWindow other) {
+        System.arraycopy(other.sections, 0, sections, 0, sections.length);
+        centerX = other.centerX;
+        centerY = other.centerY;
+        centerZ = other.centerZ;
+    }
+
+    /**
+     * 檢查方塊座標是否為固體，視窗以外或未載入的區域視為非固體
+     */
+    public boolean isSolid(int x, int y, int z) {
+        int dx = (x >> 4) - centerX + 1;
+        int dy = (y >> 4) - centerY + 1;
+        int dz = (z >> 4) - centerZ + 1;
+        if (dx < 0 || dx > 2 || dy < 0 || dy > 2 || dz < 0 || dz > 2) {
+            return false;
+        }
+        SolidSection section = sections[dy * 9 + dz * 3 + dx];
+        return section != null && section.isSolid(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * 檢查軸對齊包圍盒內是否有固體方塊，命中時寫入 hit
+     */
+    public boolean intersects(double minX, double minY, double minZ,
+                              double maxX, double maxY, double maxZ, VoxelHit hit) {
+        int x0 = floor(minX);
+        int y0 = floor(minY);
+        int z0 = floor(minZ);
+        int x1 = floor(maxX - EPSILON);
+        int y1 = floor(maxY - EPSILON);
+        int z1 = floor(maxZ - EPSILON);
+        for (int y = y0; y <= y1; y++) {
+            for (int z = z0; z <= z1; z++) {
+                for (int x = x0; x <= x1; x++) {
+                    if (isSolid(x, y, z)) {
+                        hit.set(x, y, z, 0);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 沿方向掃描包圍盒（3D DDA），在中心點每次跨越方塊邊界時檢查包圍盒
+     * 包圍盒水平半寬為 halfWidth，垂直範圍為 [y + minY, y + maxY]
+     */
+    public boolean sweep(double x, double y, double z, double dirX, double dirY, double dirZ,
+                         double distance, double halfWidth, double minY, double maxY, VoxelHit hit) {
+        hit.reset();
+        double length = Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+        if (length == 0 || distance <= 0) {
+            return intersectsAt(x, y, z, halfWidth, minY, maxY, 0, hit);
+        }
+        dirX /= length;
+        dirY /= length;
+        dirZ /= length;
+
+        double tDeltaX = dirX != 0 ? Math.abs(1.0 / dirX) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dirY != 0 ? Math.abs(1.0 / dirY) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = dirZ != 0 ? Math.abs(1.0 / dirZ) : Double.POSITIVE_INFINITY;
+        double tMaxX = firstBoundary(x, dirX);
+        double tMaxY = firstBoundary(y, dirY);
+        double tMaxZ = firstBoundary(z, dirZ);
+
+        double t = 0;
+        while (true) {
+            if (intersectsAt(x + dirX * t, y + dirY * t, z + dirZ * t, halfWidth, minY, maxY, t, hit)) {
+                return true;
+            }
+            if (t >= distance) {
+                return false;
+            }
+            if (tMaxX <= tMaxY && tMaxX <= tMaxZ) {
+                t = tMaxX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY <= tMaxZ) {
+                t = tMaxY;
+                tMaxY += tDeltaY;
+            } else {
+                t = tMaxZ;
+                tMaxZ += tDeltaZ;
+            }
+            if (t > distance) {
+                t = distance;
+            }
+        }
+    }
+
+    private boolean intersectsAt(double x, double y, double z, double halfWidth, double minY, double maxY,
+                                 double t, VoxelHit hit) {
+        if (intersects(x - halfWidth, y + minY, z - halfWidth, x + halfWidth, y + maxY, z + halfWidth, hit)) {
+            hit.set(hit.getBlockX(), hit.getBlockY(), hit.getBlockZ(), t);
+            return true;
+        }
+        return false;
+    }
+
+    private static double firstBoundary(double origin, double dir) {
+        if (dir > 0) {
+            return (Math.floor(origin) + 1 - origin) / dir;
+        }
+        if (dir < 0) {
+            return (origin - Math.floor(origin)) / -dir;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static int floor(double value) {
+        int i = (int) value;
+        return value < i ? i - 1 : i;
+    }
+}
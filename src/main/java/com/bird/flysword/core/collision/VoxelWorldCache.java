@@ -0,0 +1,379 @@
+package com.bird.flysword.core.collision;
+
+import java.util.Arrays;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * 單一世界的區塊列快取：每個已載入區塊對應一列區段與地表高度，按需從區塊快照建立
+ * 同一列只拍一次快照，之後缺少的區段與地表高度都從同一份快照建立；
+ * 騎乘者所在的列會定期重新快照，修正沒有事件可追蹤的方塊變化（例如其他插件直接修改世界）
+ */
+final class VoxelWorldCache {
+
+    // 地表高度快取的特殊值
+    static final int NO_SURFACE = Short.MIN_VALUE;       // 頂部不可降落（水、岩漿等）
+    static final int UNKNOWN = Short.MIN_VALUE + 1;      // 方塊變化後待重新計算
+    static final int UNLOADED = Integer.MIN_VALUE;       // 區塊未載入
+    private static final int SURFACE_SCAN_DEPTH = 3;     // 從最高方塊往下略過花草的層數
+
+    // 視窗每隔此 tick 數標記周圍的列為使用中
+    static final int TOUCH_INTERVAL = 20;
+    private static final int TOUCH_TIMEOUT = TOUCH_INTERVAL * 2; // 超過此 tick 數未標記視為無人使用
+    private static final int RESNAPSHOT_TICKS = 100;     // 使用中的列每 5 秒重新快照
+    private static final int REFRESH_SCAN_SLOTS = 32;    // 每 tick 巡檢的槽位數
+    private static final int REFRESH_PER_TICK = 2;       // 每 tick 最多重新快照的列數
+
+    private final World world;
+    private final int minSection;
+    private final int sectionCount;
+    private final ColumnMap<Column> columns;
+
+    // 任何區段被替換時遞增，讓持有舊引用的視窗重新取得區段
+    private int version;
+    // 套用方塊變化的次數，即飛行 tick
+    private int tick;
+    private int refreshCursor;
+
+    // 待套用的方塊變化（x, y, z 三個一組）
+    private int[] pending;
+    private int pendingSize;
+
+    VoxelWorldCache(World world) {
+        this.world = world;
+        this.minSection = world.getMinHeight() >> 4;
+        this.sectionCount = (world.getMaxHeight() >> 4) - minSection;
+        this.columns = new ColumnMap<>();
+        this.pending = new int[48];
+    }
+
+    World getWorld() {
+        return world;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    int getTick() {
+        return tick;
+    }
+
+    /**
+     * 獲取區段，高度範圍外視為空氣，區塊尚未快照時返回 null
+     */
+    SolidSection getSection(int sx, int sy, int sz) {
+        int index = sy - minSection;
+        if (index < 0 || index >= sectionCount) {
+            return SolidSection.EMPTY;
+        }
+        Column column = columns.get(chunkKey(sx, sz));
+        return column != null ? column.sections[index] : null;
+    }
+
+    /**
+     * 確保指定區塊在 [syFrom, syTo] 範圍內的區段已建立，缺少的區段從該列的快照建立
+     * @return 區塊未載入時返回 false
+     */
+    boolean ensureSections(int cx, int cz, int syFrom, int syTo) {
+        int from = Math.max(syFrom - minSection, 0);
+        int to = Math.min(syTo - minSection, sectionCount - 1);
+        if (from > to) {
+            return true;
+        }
+
+        Column column = columns.get(chunkKey(cx, cz));
+        if (column != null) {
+            column.touchedTick = tick;
+            if (column.hasSections(from, to)) {
+                return true;
+            }
+        }
+
+        if (!world.isChunkLoaded(cx, cz)) {
+            return false;
+        }
+        if (column == null) {
+            column = createColumn(cx, cz);
+        }
+
+        ChunkSnapshot snapshot = snapshotOf(column);
+        for (int i = from; i <= to; i++) {
+            if (column.sections[i] == null) {
+                column.sections[i] = buildSection(column, snapshot, i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 標記以指定區塊為中心的 3x3 列為使用中，使用中的列會定期重新快照
+     */
+    void touch(int cx, int cz) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                Column column = columns.get(chunkKey(cx + dx, cz + dz));
+                if (column != null) {
+                    column.touchedTick = tick;
+                }
+            }
+        }
+    }
+
+    /**
+     * 記錄方塊變化，下一次套用時重新讀取該方塊
+     */
+    void markChanged(int x, int y, int z) {
+        if (columns.get(chunkKey(x >> 4, z >> 4)) == null) {
+            return;
+        }
+        if (pendingSize + 3 > pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingSize++] = x;
+        pending[pendingSize++] = y;
+        pending[pendingSize++] = z;
+    }
+
+    /**
+     * 重新讀取有變化的方塊，並以複製後修改的方式更新區段；之後巡檢使用中的列並重新快照過舊的列
+     */
+    void applyPendingChanges() {
+        for (int i = 0; i < pendingSize; i += 3) {
+            int x = pending[i];
+            int y = pending[i + 1];
+            int z = pending[i + 2];
+            Column column = columns.get(chunkKey(x >> 4, z >> 4));
+            if (column == null) {
+                continue;
+            }
+            if (column.surface != null) {
+                column.surface[((z & 15) << 4) | (x & 15)] = (short) UNKNOWN;
+            } else {
+                // 地表高度之後改用新的快照建立
+                column.snapshot = null;
+            }
+            int index = (y >> 4) - minSection;
+            if (index < 0 || index >= sectionCount) {
+                continue;
+            }
+            if (column.sections[index] == null) {
+                // 快照已不包含這次變化，尚未建立的區段之後改用新的快照
+                column.snapshot = null;
+                continue;
+            }
+            boolean solid = BlockClassifier.isSolid(world.getBlockAt(x, y, z).getType());
+            SolidSection updated = column.sections[index].with(x & 15, y & 15, z & 15, solid);
+            if (updated != column.sections[index]) {
+                column.sections[index] = updated;
+                version++;
+            }
+        }
+        pendingSize = 0;
+
+        tick++;
+        refreshColumns();
+    }
+
+    /**
+     * 分段巡檢：重新快照使用中且過舊的列，並釋放無人使用的列所保留的快照
+     */
+    private void refreshColumns() {
+        int capacity = columns.capacity();
+        int refreshed = 0;
+        for (int scanned = 0; scanned < REFRESH_SCAN_SLOTS && scanned < capacity; scanned++) {
+            if (refreshCursor >= capacity) {
+                refreshCursor = 0;
+            }
+            Column column = columns.valueAt(refreshCursor++);
+            if (column == null) {
+                continue;
+            }
+            if (tick - column.touchedTick > TOUCH_TIMEOUT) {
+                column.snapshot = null;
+            } else if (tick - column.snapshotTick >= RESNAPSHOT_TICKS && refreshed < REFRESH_PER_TICK
+                    && world.isChunkLoaded(column.cx, column.cz)) {
+                resnapshot(column);
+                refreshed++;
+            }
+        }
+    }
+
+    private void resnapshot(Column column) {
+        column.snapshot = null;
+        ChunkSnapshot snapshot = snapshotOf(column);
+        for (int i = 0; i < sectionCount; i++) {
+            if (column.sections[i] != null) {
+                column.sections[i] = buildSection(column, snapshot, i);
+            }
+        }
+        if (column.surface != null) {
+            column.surface = buildSurface(snapshot);
+        }
+        version++;
+    }
+
+    void unloadChunk(int cx, int cz) {
+        Column column = columns.remove(chunkKey(cx, cz));
+        if (column != null && column.hasAnySection()) {
+            version++;
+        }
+    }
+
+    /**
+     * 獲取該列最高的可降落方塊 Y 座標，其上方必定是空氣或可穿越的方塊
+     * @return 不可降落時返回 NO_SURFACE，區塊未載入時返回 UNLOADED
+     */
+    int getSurfaceY(int x, int z) {
+        int cx = x >> 4;
+        int cz = z >> 4;
+        Column column = columns.get(chunkKey(cx, cz));
+        if (column == null || column.surface == null) {
+            if (!world.isChunkLoaded(cx, cz)) {
+                return UNLOADED;
+            }
+            if (column == null) {
+                column = createColumn(cx, cz);
+            }
+            column.surface = buildSurface(snapshotOf(column));
+        }
+        int index = ((z & 15) << 4) | (x & 15);
+        if (column.surface[index] == UNKNOWN) {
+            column.surface[index] = (short) findSurface(x, z);
+        }
+        return column.surface[index];
+    }
+
+    private Column createColumn(int cx, int cz) {
+        Column column = new Column(cx, cz, sectionCount);
+        column.touchedTick = tick;
+        column.snapshotTick = tick;
+        columns.put(chunkKey(cx, cz), column);
+        return column;
+    }
+
+    /**
+     * 取得該列保留的快照，沒有時拍攝新的快照（呼叫前須確認區塊已載入）
+     */
+    private ChunkSnapshot snapshotOf(Column column) {
+        if (column.snapshot == null) {
+            ChunkSnapshot snapshot = world.getChunkAt(column.cx, column.cz).getChunkSnapshot(true, false, false);
+            // 高於區塊最高方塊的區段必定全是空氣，不必逐格讀取
+            int highest = Integer.MIN_VALUE;
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    highest = Math.max(highest, snapshot.getHighestBlockYAt(x, z));
+                }
+            }
+            column.snapshot = snapshot;
+            column.highest = highest;
+            column.snapshotTick = tick;
+        }
+        return column.snapshot;
+    }
+
+    private SolidSection buildSection(Column column, ChunkSnapshot snapshot, int index) {
+        int baseY = (index + minSection) << 4;
+        return baseY > column.highest + 1 ? SolidSection.EMPTY : SolidSection.fromSnapshot(snapshot, baseY);
+    }
+
+    private short[] buildSurface(ChunkSnapshot snapshot) {
+        short[] surface = new short[256];
+        int minY = world.getMinHeight();
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int result = NO_SURFACE;
+                int top = snapshot.getHighestBlockYAt(x, z);
+                for (int y = top; y > top - SURFACE_SCAN_DEPTH && y >= minY; y--) {
+                    Material type = snapshot.getBlockType(x, y, z);
+                    if (BlockClassifier.isLandable(type)) {
+                        result = y;
+                        break;
+                    }
+                    if (!isSkippableCover(type)) {
+                        break;
+                    }
+                }
+                surface[(z << 4) | x] = (short) result;
+            }
+        }
+        return surface;
+    }
+
+    private int findSurface(int x, int z) {
+        int minY = world.getMinHeight();
+        int top = world.getHighestBlockYAt(x, z);
+        for (int y = top; y > top - SURFACE_SCAN_DEPTH && y >= minY; y--) {
+            Material type = world.getBlockAt(x, y, z).getType();
+            if (BlockClassifier.isLandable(type)) {
+                return y;
+            }
+            if (!isSkippableCover(type)) {
+                break;
+            }
+        }
+        return NO_SURFACE;
+    }
+
+    /**
+     * 地表上可以略過的覆蓋物（花草、雪層等），液體與危險方塊不可略過
+     */
+    private static boolean isSkippableCover(Material type) {
+        return BlockClassifier.isPassable(type) && !BlockClassifier.isDangerous(type)
+            && type != Material.WATER && type != Material.LAVA;
+    }
+
+    int getMinY() {
+        return minSection << 4;
+    }
+
+    int getCachedColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * 單一區塊列：區段（null 表示尚未建立）、地表高度與建立它們的快照
+     */
+    private static final class Column {
+
+        private final int cx;
+        private final int cz;
+        private final SolidSection[] sections;
+        private short[] surface;
+        // 只在使用中時保留，方塊變化落在尚未建立的區段時丟棄
+        private ChunkSnapshot snapshot;
+        private int highest;
+        private int snapshotTick;
+        private int touchedTick;
+
+        Column(int cx, int cz, int sectionCount) {
+            this.cx = cx;
+            this.cz = cz;
+            this.sections = new SolidSection[sectionCount];
+        }
+
+        boolean hasSections(int from, int to) {
+            for (int i = from; i <= to; i++) {
+                if (sections[i] == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean hasAnySection() {
+            for (SolidSection section : sections) {
+                if (section != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -10,7 +10,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.core.collision.BlockClassifier;
 import com.bird.flysword.data.PlayerData;
+import com.bird.flysword.flight.FlightSettings;
 
 /**
  * 啟動與條件判斷模組
@@ -38,6 +40,11 @@ public class ConditionChecker {
             return FlightConditionResult.failure("§c你已經死亡，無法使用飛劍！");
         }
         
+        // 背景載入完成前的暫時數據不會保存，飛行紀錄會遺失
+        if (!plugin.getDataManager().isPlayerDataLoaded(uuid)) {
+            return FlightConditionResult.failure("§e飛劍數據載入中，請稍後再試！");
+        }
+        
         if (player.isInsideVehicle()) {
             return FlightConditionResult.failure("§c你正在載具內，無法使用飛劍！");
         }
@@ -88,14 +95,15 @@ public class ConditionChecker {
      */
     private FlightConditionResult checkAreaRestrictions(Location location) {
         // 檢查世界限制
+        FlightSettings settings = plugin.getFlightSettings();
         String worldName = location.getWorld().getName();
-        if (plugin.getConfig().getStringList("flight.disabled_worlds").contains(worldName)) {
+        if (settings.getDisabledWorlds().contains(worldName)) {
             return FlightConditionResult.failure("§c此世界禁止使用飛劍！");
         }
         
         // 檢查高度限制
-        double maxHeight = plugin.getConfig().getDouble("flight.max_height", 256);
-        double minHeight = plugin.getConfig().getDouble("flight.min_height", 0);
+        double maxHeight = settings.getMaxHeight();
+        double minHeight = settings.getMinHeight();
         
         if (location.getY() > maxHeight) {
             return FlightConditionResult.failure("§c你已經飛得太高了！最大高度: " + maxHeight);
@@ -119,13 +127,13 @@ public class ConditionChecker {
     private FlightConditionResult checkEnvironmentSafety(Location location) {
         // 檢查頭頂空間
         Location above = location.clone().add(0, 2, 0);
-        if (above.getBlock().getType() != Material.AIR) {
+        if (BlockClassifier.isSolid(above.getBlock().getType())) {
             return FlightConditionResult.failure("§c頭頂空間不足，無法啟動飛劍！");
         }
         
         // 檢查是否在危險環境中
         Material blockBelow = location.clone().add(0, -1, 0).getBlock().getType();
-        if (blockBelow == Material.LAVA || blockBelow == Material.MAGMA_BLOCK) {
+        if (BlockClassifier.isDangerous(blockBelow)) {
             return FlightConditionResult.failure("§c這裡太危險了，不適合啟動飛劍！");
         }
         
@@ -175,7 +183,7 @@ public class ConditionChecker {
      * 設置玩家冷卻時間（使用配置文件中的默認值）
      */
     public void setCooldown(UUID playerUUID) {
-        long cooldownTime = plugin.getConfig().getLong("flight.cooldown_time", 2000);
+        long cooldownTime = plugin.getFlightSettings().getCooldownTime();
         setCooldown(playerUUID, cooldownTime);
     }
     
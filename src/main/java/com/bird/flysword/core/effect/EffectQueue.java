@@ -0,0 +1,456 @@
+package com.bird.flysword.core.effect;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import com.bird.flysword.core.performance.PerformanceOptimizer;
+import com.bird.flysword.core.spatial.SpatialHash;
+import com.bird.flysword.core.spatial.SpatialQuery;
+
+/**
+ * 每 tick 的特效佇列
+ * 特效請求先累積在佇列中，tick 結束時一次送出：
+ * 同一位置的相同特效會合併，只送給距離與視野內的玩家，
+ * 並以 {@link PerformanceOptimizer} 的每 tick 預算限制送出的封包數量；
+ * 粒子數量依 {@link ViewerParticleScale} 為每位觀看者分別縮放
+ *
+ * 事件特效（起飛、解鎖等）優先於持續性的環境特效（軌跡、附魔）；
+ * 預算用盡時，下一個 tick 從上次中斷的環境特效繼續，避免總是同一批飛行者被略過
+ *
+ * 非線程安全，只應在主線程使用
+ */
+public final class EffectQueue {
+
+    private static final double MERGE_RESOLUTION = 0.5; // 合併特效時的位置量化（方塊）
+    private static final int VIEWER_CELL_SIZE = 32;
+    private static final double SOUND_RANGE = 16.0; // 音量 1.0 時客戶端可聽見的距離
+
+    private final PerformanceOptimizer budget;
+    private final EffectStats stats;
+    private final ViewerParticleScale scale;
+
+    // 本 tick 的請求，物件重複使用
+    private ParticleRequest[] particles = new ParticleRequest[64];
+    private int particleCount;
+    private SoundRequest[] sounds = new SoundRequest[16];
+    private int soundCount;
+    private final Map<ParticleRequest, ParticleRequest> mergedParticles = new HashMap<>();
+    private final Map<SoundRequest, SoundRequest> mergedSounds = new HashMap<>();
+    private int ambientCursor;
+
+    // 觀看者快照，只在有請求的 tick 更新
+    private final SpatialHash<Viewer> viewerIndex = new SpatialHash<>(VIEWER_CELL_SIZE);
+    private final SpatialQuery<Viewer> query = new SpatialQuery<>();
+    private Viewer[] viewers = new Viewer[16];
+    private int viewerCount;
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    public EffectQueue(PerformanceOptimizer budget, EffectStats stats, ViewerParticleScale scale) {
+        this.budget = budget;
+        this.stats = stats;
+        this.scale = scale;
+    }
+
+    /**
+     * 加入粒子特效請求
+     *
+     * @param ambient 是否為持續性的環境特效，預算不足時優先略過
+     */
+    public void particle(Particle particle, Location location, int count,
+                         double offsetX, double offsetY, double offsetZ, double extra, boolean ambient) {
+        World world = location.getWorld();
+        if (world == null || count <= 0) {
+            return;
+        }
+        stats.recordQueued();
+
+        if (particleCount == particles.length) {
+            particles = Arrays.copyOf(particles, particleCount * 2);
+        }
+        ParticleRequest request = particles[particleCount];
+        if (request == null) {
+            request = new ParticleRequest();
+            particles[particleCount] = request;
+        }
+        request.set(particle, world, location.getX(), location.getY(), location.getZ(),
+            count, offsetX, offsetY, offsetZ, extra, ambient);
+
+        ParticleRequest existing = mergedParticles.putIfAbsent(request, request);
+        if (existing != null) {
+            existing.count += count;
+            existing.ambient &= ambient;
+            stats.recordMerged();
+            return;
+        }
+        particleCount++;
+    }
+
+    /**
+     * 加入音效請求，同一位置的相同音效只保留最大音量
+     */
+    public void sound(Location location, Sound sound, float volume, float pitch) {
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        stats.recordQueued();
+
+        if (soundCount == sounds.length) {
+            sounds = Arrays.copyOf(sounds, soundCount * 2);
+        }
+        SoundRequest request = sounds[soundCount];
+        if (request == null) {
+            request = new SoundRequest();
+            sounds[soundCount] = request;
+        }
+        request.set(sound, world, location.getX(), location.getY(), location.getZ(), volume, pitch);
+
+        SoundRequest existing = mergedSounds.putIfAbsent(request, request);
+        if (existing != null) {
+            existing.volume = Math.max(existing.volume, volume);
+            stats.recordMerged();
+            return;
+        }
+        soundCount++;
+    }
+
+    /**
+     * 將本 tick 的請求送給線上玩家並清空佇列
+     *
+     * @param viewDistance 粒子的最大可見距離
+     * @param fov 視野角度（度），視野外的粒子不送出，360 以上表示不依方向剔除
+     * @param nearRadius 此距離內不依方向剔除
+     */
+    public void flush(Collection<? extends Player> players, double viewDistance, double fov, double nearRadius) {
+        if (particleCount == 0 && soundCount == 0) {
+            return;
+        }
+        try {
+            indexViewers(players);
+            double cosHalfFov = fov >= 360.0 ? -1.0 : Math.cos(Math.toRadians(fov / 2.0));
+            double nearSquared = nearRadius * nearRadius;
+
+            // 事件特效優先
+            for (int i = 0; i < particleCount; i++) {
+                ParticleRequest request = particles[i];
+                if (!request.ambient) {
+                    sendParticle(request, viewDistance, cosHalfFov, nearSquared);
+                }
+            }
+
+            // 環境特效從上次預算用盡的位置開始輪替
+            int start = ambientCursor < particleCount ? ambientCursor : 0;
+            ambientCursor = 0;
+            for (int n = 0; n < particleCount; n++) {
+                int i = (start + n) % particleCount;
+                ParticleRequest request = particles[i];
+                if (request.ambient && !sendParticle(request, viewDistance, cosHalfFov, nearSquared)) {
+                    ambientCursor = i;
+                    break;
+                }
+            }
+
+            for (int i = 0; i < soundCount; i++) {
+                sendSound(sounds[i]);
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * 將粒子送給範圍與視野內的玩家
+     *
+     * @return 預算用盡時為 false
+     */
+    private boolean sendParticle(ParticleRequest request, double viewDistance, double cosHalfFov, double nearSquared) {
+        int found = viewerIndex.queryRadius(request.world, request.x, request.y, request.z, viewDistance, query);
+        for (int i = 0; i < found; i++) {
+            Viewer viewer = query.get(i);
+            double distanceSquared = query.getDistanceSquared(i);
+            if (distanceSquared > nearSquared
+                    && !viewer.isFacing(request.x, request.y, request.z, distanceSquared, cosHalfFov)) {
+                stats.recordCulled();
+                continue;
+            }
+            int count = scaleCount(request.count, request.ambient ? viewer.ambientScale : viewer.eventScale);
+            if (count == 0) {
+                stats.recordScaledOut();
+                continue;
+            }
+            if (!budget.canShowParticle()) {
+                stats.recordOverBudget();
+                return false;
+            }
+            viewer.player.spawnParticle(request.particle, request.x, request.y, request.z, count,
+                request.offsetX, request.offsetY, request.offsetZ, request.extra);
+            budget.recordParticleUsage();
+            stats.recordParticleSent();
+        }
+        return true;
+    }
+
+    /**
+     * 縮放粒子數量，小數部分以機率進位，讓少量粒子的特效在低倍率下平均數量仍正確
+     */
+    private static int scaleCount(int count, double factor) {
+        if (factor <= 0.0) {
+            return 0;
+        }
+        if (factor == 1.0) {
+            return count;
+        }
+        return (int) (count * factor + ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 將音效送給聽得到的玩家，音效不依方向剔除
+     */
+    private void sendSound(SoundRequest request) {
+        double range = SOUND_RANGE * Math.max(1.0f, request.volume);
+        int found = viewerIndex.queryRadius(request.world, request.x, request.y, request.z, range, query);
+        if (found == 0) {
+            return;
+        }
+        scratch.setWorld(request.world);
+        scratch.setX(request.x);
+        scratch.setY(request.y);
+        scratch.setZ(request.z);
+        for (int i = 0; i < found; i++) {
+            if (!budget.canPlaySound()) {
+                stats.recordOverBudget();
+                return;
+            }
+            query.get(i).player.playSound(scratch, request.sound, request.volume, request.pitch);
+            budget.recordSoundUsage();
+            stats.recordSoundSent();
+        }
+    }
+
+    /**
+     * 以玩家眼睛位置更新觀看者索引，離線的空位從索引中移除
+     */
+    private void indexViewers(Collection<? extends Player> players) {
+        int count = 0;
+        for (Player player : players) {
+            if (count == viewers.length) {
+                viewers = Arrays.copyOf(viewers, count * 2);
+            }
+            Viewer viewer = viewers[count];
+            if (viewer == null) {
+                viewer = new Viewer();
+                viewers[count] = viewer;
+            }
+            Location location = player.getLocation(scratch);
+            viewer.set(player, location, player.getEyeHeight());
+            viewer.ambientScale = scale.getScale(player, true);
+            viewer.eventScale = scale.getScale(player, false);
+            if (viewer.entry == null) {
+                viewer.entry = viewerIndex.insert(viewer, location.getWorld(), viewer.eyeX, viewer.eyeY, viewer.eyeZ);
+            } else {
+                viewerIndex.update(viewer.entry, location.getWorld(), viewer.eyeX, viewer.eyeY, viewer.eyeZ);
+            }
+            count++;
+        }
+        for (int i = count; i < viewerCount; i++) {
+            Viewer viewer = viewers[i];
+            viewerIndex.remove(viewer.entry);
+            viewer.entry = null;
+            viewer.player = null;
+        }
+        viewerCount = count;
+        scratch.setWorld(null);
+    }
+
+    private void clear() {
+        for (int i = 0; i < particleCount; i++) {
+            particles[i].world = null;
+        }
+        for (int i = 0; i < soundCount; i++) {
+            sounds[i].world = null;
+        }
+        particleCount = 0;
+        soundCount = 0;
+        mergedParticles.clear();
+        mergedSounds.clear();
+        scratch.setWorld(null);
+    }
+
+    public EffectStats getStats() {
+        return stats;
+    }
+
+    private static int quantize(double coordinate) {
+        return (int) Math.floor(coordinate / MERGE_RESOLUTION);
+    }
+
+    /**
+     * 粒子請求，以特效類型、世界、量化後的位置及擴散參數判斷是否相同
+     */
+    private static final class ParticleRequest {
+        Particle particle;
+        World world;
+        double x;
+        double y;
+        double z;
+        int cellX;
+        int cellY;
+        int cellZ;
+        int count;
+        double offsetX;
+        double offsetY;
+        double offsetZ;
+        double extra;
+        boolean ambient;
+
+        void set(Particle particle, World world, double x, double y, double z, int count,
+                 double offsetX, double offsetY, double offsetZ, double extra, boolean ambient) {
+            this.particle = particle;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.cellX = quantize(x);
+            this.cellY = quantize(y);
+            this.cellZ = quantize(z);
+            this.count = count;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.offsetZ = offsetZ;
+            this.extra = extra;
+            this.ambient = ambient;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ParticleRequest)) {
+                return false;
+            }
+            ParticleRequest other = (ParticleRequest) o;
+            return particle == other.particle
+                && world == other.world
+                && cellX == other.cellX
+                && cellY == other.cellY
+                && cellZ == other.cellZ
+                && Double.compare(offsetX, other.offsetX) == 0
+                && Double.compare(offsetY, other.offsetY) == 0
+                && Double.compare(offsetZ, other.offsetZ) == 0
+                && Double.compare(extra, other.extra) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = particle.hashCode();
+            hash = 31 * hash + cellX;
+            hash = 31 * hash + cellY;
+            hash = 31 * hash + cellZ;
+            return hash;
+        }
+    }
+
+    /**
+     * 音效請求，以音效、世界、量化後的位置及音調判斷是否相同
+     */
+    private static final class SoundRequest {
+        Sound sound;
+        World world;
+        double x;
+        double y;
+        double z;
+        int cellX;
+        int cellY;
+        int cellZ;
+        float volume;
+        float pitch;
+
+        void set(Sound sound, World world, double x, double y, double z, float volume, float pitch) {
+            this.sound = sound;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.cellX = quantize(x);
+            this.cellY = quantize(y);
+            this.cellZ = quantize(z);
+            this.volume = volume;
+            this.pitch = pitch;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SoundRequest)) {
+                return false;
+            }
+            SoundRequest other = (SoundRequest) o;
+            return sound == other.sound
+                && world == other.world
+                && cellX == other.cellX
+                && cellY == other.cellY
+                && cellZ == other.cellZ
+                && Float.compare(pitch, other.pitch) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = sound.hashCode();
+            hash = 31 * hash + cellX;
+            hash = 31 * hash + cellY;
+            hash = 31 * hash + cellZ;
+            return hash;
+        }
+    }
+
+    /**
+     * 觀看者的眼睛位置與視線方向
+     */
+    private static final class Viewer {
+        Player player;
+        SpatialHash.Entry<Viewer> entry;
+        double eyeX;
+        double eyeY;
+        double eyeZ;
+        double directionX;
+        double directionY;
+        double directionZ;
+        double ambientScale;
+        double eventScale;
+
+        void set(Player player, Location location, double eyeHeight) {
+            this.player = player;
+            this.eyeX = location.getX();
+            this.eyeY = location.getY() + eyeHeight;
+            this.eyeZ = location.getZ();
+
+            // 與 Location#getDirection 相同的換算，不配置向量
+            double yaw = Math.toRadians(location.getYaw());
+            double pitch = Math.toRadians(location.getPitch());
+            double xz = Math.cos(pitch);
+            this.directionX = -xz * Math.sin(yaw);
+            this.directionY = -Math.sin(pitch);
+            this.directionZ = xz * Math.cos(yaw);
+        }
+
+        /**
+         * 目標是否落在以視線為軸、半角為 fov/2 的圓錐內
+         */
+        boolean isFacing(double x, double y, double z, double distanceSquared, double cosHalfFov) {
+            double dot = (x - eyeX) * directionX + (y - eyeY) * directionY + (z - eyeZ) * directionZ;
+            return dot >= cosHalfFov * Math.sqrt(distanceSquared);
+        }
+    }
+}
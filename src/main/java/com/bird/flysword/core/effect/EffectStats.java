@@ -0,0 +1,93 @@
+package com.bird.flysword.core.effect;
+
+/**
+ * 特效佇列的統計
+ * 只在主線程的特效送出時累加
+ */
+public final class EffectStats {
+
+    private long queued;
+    private long merged;
+    private long culled;
+    private long scaledOut;
+    private long overBudget;
+    private long particlesSent;
+    private long soundsSent;
+
+    void recordQueued() {
+        queued++;
+    }
+
+    void recordMerged() {
+        merged++;
+    }
+
+    void recordCulled() {
+        culled++;
+    }
+
+    void recordScaledOut() {
+        scaledOut++;
+    }
+
+    void recordOverBudget() {
+        overBudget++;
+    }
+
+    void recordParticleSent() {
+        particlesSent++;
+    }
+
+    void recordSoundSent() {
+        soundsSent++;
+    }
+
+    /**
+     * 加入佇列的特效請求數量（含被合併的請求）
+     */
+    public long getQueued() {
+        return queued;
+    }
+
+    /**
+     * 與同 tick 相同特效合併的請求數量
+     */
+    public long getMerged() {
+        return merged;
+    }
+
+    /**
+     * 因觀看者不在視野內而略過的發送次數
+     */
+    public long getCulled() {
+        return culled;
+    }
+
+    /**
+     * 因觀看者的特效畫質縮放為零而略過的發送次數
+     */
+    public long getScaledOut() {
+        return scaledOut;
+    }
+
+    /**
+     * 因超出每 tick 預算而放棄的發送次數
+     */
+    public long getOverBudget() {
+        return overBudget;
+    }
+
+    /**
+     * 實際送給玩家的粒子封包數量
+     */
+    public long getParticlesSent() {
+        return particlesSent;
+    }
+
+    /**
+     * 實際送給玩家的音效數量
+     */
+    public long getSoundsSent() {
+        return soundsSent;
+    }
+}
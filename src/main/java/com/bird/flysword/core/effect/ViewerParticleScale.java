@@ -0,0 +1,17 @@
+package com.bird.flysword.core.effect;
+
+import org.bukkit.entity.Player;
+
+/**
+ * 決定單一觀看者看到的粒子數量倍率
+ * 每次送出特效時對每位觀看者查詢一次
+ */
+@FunctionalInterface
+public interface ViewerParticleScale {
+
+    /**
+     * @param ambient 是否為持續性的環境特效
+     * @return 粒子數量倍率，0 表示不送出
+     */
+    double getScale(Player viewer, boolean ambient);
+}
@@ -0,0 +1,178 @@
+package com.bird.flysword.core.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 指標登錄表，以 Prometheus 文字格式輸出
+ * 計數器與量表在收集時才從來源讀取，來源只需是現有的統計欄位；摘要則由呼叫者記錄耗時（納秒）
+ * collect 必須與來源在同一線程（主線程）呼叫，產生的文字快照可由任何線程讀取
+ */
+public final class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final String namespace;
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    private volatile String snapshot = "";
+
+    public MetricsRegistry(String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * 註冊只增不減的計數器，名稱依慣例以 _total 結尾
+     */
+    public void counter(String name, String help, LongSupplier source) {
+        family(name, help, "counter").series.add((out, fullName) -> {
+            out.append(fullName).append(' ').append(source.getAsLong()).append('\n');
+        });
+    }
+
+    /**
+     * 註冊可增可減的量表
+     */
+    public void gauge(String name, String help, DoubleSupplier source) {
+        family(name, help, "gauge").series.add((out, fullName) -> {
+            out.append(fullName).append(' ');
+            appendDouble(out, source.getAsDouble());
+            out.append('\n');
+        });
+    }
+
+    /**
+     * 註冊耗時摘要，以秒為單位輸出
+     */
+    public Summary summary(String name, String help) {
+        return summary(name, help, null, null);
+    }
+
+    /**
+     * 註冊帶一個標籤的耗時摘要，同名的摘要以標籤區分
+     */
+    public Summary summary(String name, String help, String labelName, String labelValue) {
+        Summary summary = new Summary(labelName != null ? labelName + "=\"" + escapeLabel(labelValue) + "\"" : "");
+        family(name, help, "summary").series.add(summary);
+        return summary;
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = new Family(namespace + "_" + name, help, type);
+            families.put(name, family);
+        } else if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("指標 " + name + " 已註冊為 " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * 讀取所有來源並產生新的文字快照
+     */
+    public void collect() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Series series : family.series) {
+                series.write(out, family.name);
+            }
+        }
+        snapshot = out.toString();
+    }
+
+    /**
+     * 上一次 collect 產生的文字快照
+     */
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    private static void appendDouble(StringBuilder out, double value) {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    interface Series {
+        void write(StringBuilder out, String name);
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final String type;
+        final List<Series> series = new ArrayList<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    /**
+     * 耗時摘要
+     * 百分位數只涵蓋上一次收集之後的記錄，總和與次數則持續累加；
+     * 記錄與收集須在同一線程
+     */
+    public static final class Summary implements Series {
+
+        private final String labels;
+        private final LatencyHistogram window = new LatencyHistogram();
+        private long count;
+        private long sumNanos;
+
+        private Summary(String labels) {
+            this.labels = labels;
+        }
+
+        public void record(long nanos) {
+            window.record(nanos);
+        }
+
+        @Override
+        public void write(StringBuilder out, String name) {
+            long windowCount = window.getCount();
+            for (double quantile : QUANTILES) {
+                out.append(name).append('{');
+                if (!labels.isEmpty()) {
+                    out.append(labels).append(',');
+                }
+                out.append("quantile=\"").append(quantile).append("\"} ");
+                appendDouble(out, windowCount == 0 ? Double.NaN
+                    : window.getPercentile(quantile * 100.0) / NANOS_PER_SECOND);
+                out.append('\n');
+            }
+            count += windowCount;
+            sumNanos += window.getSum();
+            window.reset();
+
+            String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+            out.append(name).append("_sum").append(suffix).append(' ');
+            appendDouble(out, sumNanos / NANOS_PER_SECOND);
+            out.append('\n');
+            out.append(name).append("_count").append(suffix).append(' ').append(count).append('\n');
+        }
+    }
+}
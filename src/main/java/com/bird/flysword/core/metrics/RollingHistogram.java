@@ -0,0 +1,43 @@
+package com.bird.flysword.core.metrics;
+
+/**
+ * 滾動視窗的延遲直方圖
+ * 記錄寫入目前的視窗；rotate 時目前的視窗成為上一個視窗，更早的記錄被丟棄，
+ * 因此一次尖峰最多影響兩個視窗長度，不會永久留在高百分位數與最大值中
+ *
+ * 讀取時合併上一個與目前的視窗，與同時進行的記錄之間不保證一致
+ */
+public final class RollingHistogram {
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private volatile LatencyHistogram previous = new LatencyHistogram();
+
+    public void record(long value) {
+        current.record(value);
+    }
+
+    /**
+     * 開始新的視窗，丟棄上一個視窗的記錄（記錄與 rotate 須在同一線程）
+     */
+    public void rotate() {
+        LatencyHistogram oldest = previous;
+        oldest.reset();
+        previous = current;
+        current = oldest;
+    }
+
+    public void reset() {
+        current.reset();
+        previous.reset();
+    }
+
+    /**
+     * 合併上一個與目前視窗的記錄，回傳獨立的直方圖
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(previous);
+        merged.add(current);
+        return merged;
+    }
+}
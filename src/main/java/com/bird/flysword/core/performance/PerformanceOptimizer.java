@@ -1,12 +1,8 @@
 package com.bird.flysword.core.performance;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -29,18 +25,38 @@ public class PerformanceOptimizer {
     
     private final Flysword plugin;
     private final ExecutorService asyncExecutor;
-    private final Map<String, Long> performanceMetrics;
     private final Set<UUID> trackedArmorStands;
     
+    // 降級等級：0 為完整品質，每升一級依序降低特效密度、細節層級範圍與碰撞檢查頻率
+    public static final int MAX_LEVEL = 4;
+    private static final double[] EFFECT_SCALE = {1.0, 0.7, 0.5, 0.3, 0.15};
+    private static final double[] LOD_RADIUS_SCALE = {1.0, 1.0, 0.75, 0.6, 0.5};
+    private static final int[] LOD_INTERVAL_SCALE = {1, 1, 1, 2, 3};
+    private static final int[] COLLISION_INTERVAL = {1, 1, 1, 2, 3};
+    private static final double SAMPLE_SMOOTHING = 0.1; // 每 tick 耗時的指數移動平均係數
+    
     // 性能設定
-    private double maxTPS = 18.0;
     private int maxParticlesPerTick = 100;
     private int maxSoundsPerTick = 20;
     private boolean adaptiveMode = true;
+    private long budgetNanos = 2_000_000L; // 插件每 tick 可使用的時間
+    private double recoverRatio = 0.6;     // 平均耗時低於預算的此比例才開始恢復
+    private int degradeTicks = 20;         // 持續超出預算多少 tick 後降一級
+    private int recoverTicks = 200;        // 持續低於恢復門檻多少 tick 後升一級
+    
+    // 配置的預算，降級時以此為基準縮減（以送給單一玩家的封包計）
+    private int particleBudget = 100;
+    private int soundBudget = 20;
+    
+    // 調節狀態（只在主線程存取）
+    private int level;
+    private int overBudgetTicks;
+    private int underBudgetTicks;
+    private double averageNanos;
+    private long lastMonitorNanos;
+    private double averageTickInterval = 50_000_000.0;
     
     // 性能統計
-    private long lastPerformanceCheck = 0;
-    private final Queue<Double> recentTPSValues = new LinkedList<>();
     private int currentParticleCount = 0;
     private int currentSoundCount = 0;
     
@@ -51,7 +67,6 @@ public class PerformanceOptimizer {
             thread.setDaemon(true);
             return thread;
         });
-        this.performanceMetrics = new ConcurrentHashMap<>();
         this.trackedArmorStands = ConcurrentHashMap.newKeySet();
         
         startPerformanceMonitoring();
@@ -60,12 +75,13 @@ public class PerformanceOptimizer {
     
     /**
      * 啟動性能監控
+     * 需在飛行調度器與特效送出任務之前註冊，重置的每 tick 預算才會在送出特效前生效
      */
     private void startPerformanceMonitoring() {
         new BukkitRunnable() {
             @Override
             public void run() {
-                updatePerformanceMetrics();
+                sampleTick();
                 
                 if (adaptiveMode) {
                     adaptPerformanceSettings();
@@ -79,92 +95,143 @@ public class PerformanceOptimizer {
     }
     
     /**
-     * 更新性能指標
+     * 記錄上一個 tick 插件本身的耗時（飛行引擎與特效送出），以及伺服器實際的 tick 間隔
      */
-    private void updatePerformanceMetrics() {
-        long currentTime = System.currentTimeMillis();
+    private void sampleTick() {
+        long now = System.nanoTime();
+        if (lastMonitorNanos != 0) {
+            averageTickInterval += ((now - lastMonitorNanos) - averageTickInterval) * SAMPLE_SMOOTHING;
+        }
+        lastMonitorNanos = now;
         
-        // 每5秒更新一次詳細統計
-        if (currentTime - lastPerformanceCheck >= 5000) {
-            lastPerformanceCheck = currentTime;
-            
-            // 獲取TPS
-            double currentTPS = getCurrentTPS();
-            recentTPSValues.offer(currentTPS);
-            if (recentTPSValues.size() > 12) { // 保留最近1分鐘的數據
-                recentTPSValues.poll();
-            }
-            
-            // 更新性能指標
-            performanceMetrics.put("tps", Math.round(currentTPS * 100.0) / 100);
-            performanceMetrics.put("online_players", (long) Bukkit.getOnlinePlayers().size());
-            performanceMetrics.put("armor_stands", (long) trackedArmorStands.size());
-            
-            // 記錄到日誌（如果性能過低）
-            if (currentTPS < maxTPS * 0.8) {
-                plugin.getLogger().warning(String.format(
-                    "性能警告: TPS=%.2f, 在線玩家=%d, 活躍飛行=%d, 盔甲架=%d",
-                    currentTPS,
-                    Bukkit.getOnlinePlayers().size(),
-                    0, // TODO: Replace with actual active flight count if available
-                    trackedArmorStands.size()
-                ));
-            }
+        long sample = 0;
+        if (plugin.getFlightScheduler() != null) {
+            sample += plugin.getFlightScheduler().getLastTickNanos();
+        }
+        if (plugin.getEffectManager() != null) {
+            sample += plugin.getEffectManager().getLastFlushNanos();
         }
+        averageNanos += (sample - averageNanos) * SAMPLE_SMOOTHING;
     }
     
     /**
-     * 自適應性能設定
+     * 依插件每 tick 耗時調整降級等級
+     * 超出預算持續 degradeTicks 才降一級，低於預算的 recoverRatio 持續 recoverTicks 才升一級，
+     * 兩者之間的區間只重置計數，避免在門檻附近來回切換
      */
     private void adaptPerformanceSettings() {
-        double avgTPS = getAverageTPS();
-        int onlineCount = Bukkit.getOnlinePlayers().size();
-        
-        if (avgTPS < maxTPS * 0.7) {
-            // 嚴重性能問題，大幅降低特效
-            maxParticlesPerTick = Math.max(20, maxParticlesPerTick - 10);
-            maxSoundsPerTick = Math.max(5, maxSoundsPerTick - 2);
-            
-        } else if (avgTPS < maxTPS * 0.85) {
-            // 輕微性能問題，小幅降低特效
-            maxParticlesPerTick = Math.max(50, maxParticlesPerTick - 5);
-            maxSoundsPerTick = Math.max(10, maxSoundsPerTick - 1);
-            
-        } else if (avgTPS > maxTPS * 0.95 && onlineCount < 50) {
-            // 性能良好，可以增加特效
-            maxParticlesPerTick = Math.min(200, maxParticlesPerTick + 5);
-            maxSoundsPerTick = Math.min(30, maxSoundsPerTick + 1);
+        if (averageNanos > budgetNanos) {
+            underBudgetTicks = 0;
+            if (++overBudgetTicks >= degradeTicks && level < MAX_LEVEL) {
+                setLevel(level + 1);
+            }
+        } else if (averageNanos < budgetNanos * recoverRatio) {
+            overBudgetTicks = 0;
+            if (++underBudgetTicks >= recoverTicks && level > 0) {
+                setLevel(level - 1);
+            }
+        } else {
+            overBudgetTicks = 0;
+            underBudgetTicks = 0;
         }
     }
     
+    private void setLevel(int newLevel) {
+        int oldLevel = level;
+        level = newLevel;
+        overBudgetTicks = 0;
+        underBudgetTicks = 0;
+        applyLevel();
+        plugin.getLogger().info(String.format(
+            "性能調節: 等級 %d -> %d (平均 %.3f ms/tick, 預算 %.3f ms, 活躍飛行=%d)",
+            oldLevel, newLevel, averageNanos / 1_000_000.0, budgetNanos / 1_000_000.0, getActiveFlightCount()));
+    }
+    
     /**
-     * 獲取當前 TPS
+     * 依目前等級套用特效預算
      */
-    private double getCurrentTPS() {
-        try {
-            // 這裡使用反射獲取 TPS，實際實現可能因版本而異
-            Object server = Bukkit.getServer().getClass().getMethod("getServer").invoke(Bukkit.getServer());
-            Object[] recentTps = (Object[]) server.getClass().getField("recentTps").get(server);
-            return Math.min(20.0, (Double) recentTps[0]);
-        } catch (Exception e) {
-            // 如果無法獲取 TPS，返回默認值
-            return 20.0;
-        }
+    private void applyLevel() {
+        maxParticlesPerTick = Math.max(1, (int) Math.round(particleBudget * EFFECT_SCALE[level]));
+        maxSoundsPerTick = Math.max(1, (int) Math.round(soundBudget * EFFECT_SCALE[level]));
     }
     
     /**
-     * 獲取平均 TPS
+     * 伺服器實際 TPS，以監控任務的執行間隔估算
      */
-    private double getAverageTPS() {
-        if (recentTPSValues.isEmpty()) {
-            return 20.0;
-        }
-        
-        double sum = 0;
-        for (double tps : recentTPSValues) {
-            sum += tps;
-        }
-        return sum / recentTPSValues.size();
+    public double getAverageTPS() {
+        return Math.min(20.0, 1_000_000_000.0 / averageTickInterval);
+    }
+    
+    /**
+     * 插件每 tick 耗時的移動平均（納秒）
+     */
+    public double getAverageTickNanos() {
+        return averageNanos;
+    }
+    
+    /**
+     * 目前追蹤的盔甲架數量
+     */
+    public int getTrackedArmorStandCount() {
+        return trackedArmorStands.size();
+    }
+    
+    private int getActiveFlightCount() {
+        return plugin.getFlightController() != null ? plugin.getFlightController().getActiveFlightCount() : 0;
+    }
+    
+    /**
+     * 設定調節器：插件每 tick 的時間預算與升降級的條件
+     */
+    public void configureGovernor(double budgetMillis, double recoverRatio, int degradeTicks, int recoverTicks) {
+        this.budgetNanos = Math.max(1L, (long) (budgetMillis * 1_000_000.0));
+        this.recoverRatio = Math.max(0.0, Math.min(1.0, recoverRatio));
+        this.degradeTicks = Math.max(1, degradeTicks);
+        this.recoverTicks = Math.max(1, recoverTicks);
+    }
+    
+    /**
+     * 設定每 tick 的特效預算，降級時以此為基準縮減
+     */
+    public void configureBudget(int particlesPerTick, int soundsPerTick) {
+        this.particleBudget = Math.max(1, particlesPerTick);
+        this.soundBudget = Math.max(1, soundsPerTick);
+        applyLevel();
+    }
+    
+    /**
+     * 目前粒子預算相對於配置預算的比例（不超過 1），降級時用來同步減少粒子數量
+     */
+    public double getBudgetScale() {
+        return Math.min(1.0, maxParticlesPerTick / (double) particleBudget);
+    }
+    
+    /**
+     * 細節層級各距離的縮放，降級時縮小近距離與中距離範圍
+     */
+    public double getLodRadiusScale() {
+        return LOD_RADIUS_SCALE[level];
+    }
+    
+    /**
+     * 細節層級更新間隔的倍數
+     */
+    public int getLodIntervalScale() {
+        return LOD_INTERVAL_SCALE[level];
+    }
+    
+    /**
+     * 障礙物檢查的間隔（tick）
+     */
+    public int getCollisionInterval() {
+        return COLLISION_INTERVAL[level];
+    }
+    
+    /**
+     * 目前的降級等級，0 表示完整品質
+     */
+    public int getLevel() {
+        return level;
     }
     
     /**
@@ -337,8 +404,11 @@ public class PerformanceOptimizer {
         StringBuilder stats = new StringBuilder();
         stats.append("=== FlySword 性能統計 ===\n");
         stats.append(String.format("平均TPS: %.2f\n", getAverageTPS()));
+        stats.append(String.format("插件耗時: 平均 %.3f ms/tick, 預算 %.3f ms\n",
+            averageNanos / 1_000_000.0, budgetNanos / 1_000_000.0));
+        stats.append(String.format("降級等級: %d/%d\n", level, MAX_LEVEL));
         stats.append(String.format("在線玩家: %d\n", Bukkit.getOnlinePlayers().size()));
-        stats.append(String.format("活躍飛行: %d\n", 0)); // TODO: Replace 0 with actual active flight count if available
+        stats.append(String.format("活躍飛行: %d\n", getActiveFlightCount()));
         stats.append(String.format("追蹤盔甲架: %d\n", trackedArmorStands.size()));
         stats.append(String.format("最大粒子/tick: %d\n", maxParticlesPerTick));
         stats.append(String.format("最大音效/tick: %d\n", maxSoundsPerTick));
@@ -351,14 +421,12 @@ public class PerformanceOptimizer {
      * 關閉性能優化器
      */
     public void shutdown() {
+        // 關閉時不能再排程主線程任務，只清除追蹤記錄
+        trackedArmorStands.clear();
         asyncExecutor.shutdown();
-        forceCleanupAllArmorStands();
     }
     
     // Getters and Setters
-    public double getMaxTPS() { return maxTPS; }
-    public void setMaxTPS(double maxTPS) { this.maxTPS = maxTPS; }
-    
     public int getMaxParticlesPerTick() { return maxParticlesPerTick; }
     public void setMaxParticlesPerTick(int maxParticlesPerTick) { this.maxParticlesPerTick = maxParticlesPerTick; }
     
@@ -366,7 +434,11 @@ public class PerformanceOptimizer {
     public void setMaxSoundsPerTick(int maxSoundsPerTick) { this.maxSoundsPerTick = maxSoundsPerTick; }
     
     public boolean isAdaptiveMode() { return adaptiveMode; }
-    public void setAdaptiveMode(boolean adaptiveMode) { this.adaptiveMode = adaptiveMode; }
-    
-    public Map<String, Long> getPerformanceMetrics() { return new HashMap<>(performanceMetrics); }
+    public void setAdaptiveMode(boolean adaptiveMode) {
+        this.adaptiveMode = adaptiveMode;
+        if (!adaptiveMode && level != 0) {
+            level = 0;
+            applyLevel();
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.bird.flysword.core.render;
+
+import org.bukkit.Location;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.EulerAngle;
+
+/**
+ * 以伺服器端盔甲座顯示飛劍
+ * 不需要任何前置插件，作為封包渲染器無法使用時的後備方案
+ */
+public class ArmorStandSwordRenderer implements SwordRenderer {
+
+    @Override
+    public SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ) {
+        ArmorStand stand = location.getWorld().spawn(location, ArmorStand.class);
+
+        // 關鍵：設置盔甲座為完全固定狀態
+        stand.setVisible(false);          // 隱藏盔甲座本體
+        stand.setGravity(false);          // 禁用重力
+        stand.setInvulnerable(true);      // 無敵狀態
+        stand.setMarker(true);            // 標記狀態（無碰撞箱）
+        stand.setSmall(true);             // 小尺寸
+        stand.setBasePlate(false);        // 隱藏底盤
+        stand.setArms(false);             // 隱藏手臂（頭盔模式不需要）
+        stand.setCanPickupItems(false);   // 禁止拾取物品
+        stand.setSilent(true);            // 靜音
+        stand.setPersistent(false);       // 不持久化
+        stand.setAI(false);               // 設置AI為空，防止移動
+
+        // 設置到頭盔位置而不是主手
+        if (stand.getEquipment() != null) {
+            stand.getEquipment().setHelmet(item);
+        }
+
+        ArmorStandDisplay display = new ArmorStandDisplay(stand);
+        display.applyPose(rotX, rotY, rotZ);
+        return display;
+    }
+
+    private static final class ArmorStandDisplay implements SwordDisplay {
+
+        private final ArmorStand stand;
+        private double poseX = Double.NaN;
+        private double poseY = Double.NaN;
+        private double poseZ = Double.NaN;
+
+        ArmorStandDisplay(ArmorStand stand) {
+            this.stand = stand;
+        }
+
+        @Override
+        public void update(Location location, double rotX, double rotY, double rotZ) {
+            // 傳送時一併帶上偏航角，不再另外呼叫 setRotation；重力與速度已在生成時固定
+            stand.teleport(location);
+            applyPose(rotX, rotY, rotZ);
+        }
+
+        void applyPose(double rotX, double rotY, double rotZ) {
+            if (rotX == poseX && rotY == poseY && rotZ == poseZ) {
+                return;
+            }
+            poseX = rotX;
+            poseY = rotY;
+            poseZ = rotZ;
+            stand.setHeadPose(new EulerAngle(Math.toRadians(rotX), Math.toRadians(rotY), Math.toRadians(rotZ)));
+        }
+
+        @Override
+        public boolean isValid() {
+            return !stand.isDead();
+        }
+
+        @Override
+        public void remove() {
+            if (!stand.isDead()) {
+                stand.remove();
+            }
+        }
+    }
+}
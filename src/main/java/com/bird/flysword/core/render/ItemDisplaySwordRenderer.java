@@ -0,0 +1,197 @@
+package com.bird.flysword.core.render;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.ItemDisplay;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.Transformation;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * 以 ItemDisplay 顯示飛劍
+ * 位置與角度交由客戶端插值，伺服器每隔數 tick 才推送一次新的目標，
+ * 期間若客戶端的預測與實際位置相差過大才提前推送
+ */
+public class ItemDisplaySwordRenderer implements SwordRenderer {
+
+    // 小型盔甲座頭部的高度與縮放，讓兩種渲染方式共用同一組偏移設定
+    private static final float HEAD_HEIGHT = 0.7F;
+    private static final float HEAD_SCALE = 0.5F;
+    private static final double MOVE_EPSILON_SQUARED = 1.0E-6;
+
+    private final int updateInterval;
+    private final double positionErrorSquared;
+    private final double rotationError;
+    private final float viewRange;
+
+    /**
+     * @param updateInterval 推送間隔（tick），同時作為客戶端的插值時長
+     * @param positionError 允許的位置誤差（方塊）
+     * @param rotationError 允許的角度誤差（度）
+     * @param viewDistance 可看見飛劍的距離（方塊）
+     */
+    public ItemDisplaySwordRenderer(int updateInterval, double positionError, double rotationError, double viewDistance) {
+        // 傳送插值時長上限為 59 tick
+        this.updateInterval = Math.max(1, Math.min(59, updateInterval));
+        this.positionErrorSquared = positionError * positionError;
+        this.rotationError = rotationError;
+        this.viewRange = (float) (viewDistance / 64.0);
+    }
+
+    @Override
+    public SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ) {
+        ItemDisplay entity = location.getWorld().spawn(location, ItemDisplay.class, display -> {
+            display.setItemStack(item);
+            display.setItemDisplayTransform(ItemDisplay.ItemDisplayTransform.HEAD);
+            display.setBillboard(Display.Billboard.FIXED);
+            display.setTeleportDuration(updateInterval);
+            display.setInterpolationDuration(updateInterval);
+            display.setViewRange(viewRange);
+            display.setPersistent(false);
+            display.setTransformation(createTransformation(rotX, rotY, rotZ));
+        });
+        return new ItemDisplaySword(entity, location, rotX, rotY, rotZ);
+    }
+
+    private static Transformation createTransformation(double rotX, double rotY, double rotZ) {
+        // 盔甲座頭部姿勢的套用順序為 Z、Y、X
+        Quaternionf rotation = new Quaternionf().rotationZYX(
+            (float) Math.toRadians(rotZ), (float) Math.toRadians(rotY), (float) Math.toRadians(rotX));
+        return new Transformation(
+            new Vector3f(0.0F, HEAD_HEIGHT, 0.0F),
+            rotation,
+            new Vector3f(HEAD_SCALE, HEAD_SCALE, HEAD_SCALE),
+            new Quaternionf());
+    }
+
+    private final class ItemDisplaySword implements SwordDisplay {
+
+        private final ItemDisplay entity;
+
+        // 客戶端正在從 from 插值到 to
+        private double fromX;
+        private double fromY;
+        private double fromZ;
+        private double toX;
+        private double toY;
+        private double toZ;
+        private float sentYaw;
+        private int moveTick;
+
+        // 上一次更新的實際位置，用於估算速度；更新可能被門檻略過，因此以實體存活 tick 計時
+        private double lastX;
+        private double lastY;
+        private double lastZ;
+        private int lastTick;
+
+        private double poseX;
+        private double poseY;
+        private double poseZ;
+        private int poseTick;
+
+        ItemDisplaySword(ItemDisplay entity, Location location, double rotX, double rotY, double rotZ) {
+            this.entity = entity;
+            this.fromX = this.toX = this.lastX = location.getX();
+            this.fromY = this.toY = this.lastY = location.getY();
+            this.fromZ = this.toZ = this.lastZ = location.getZ();
+            this.sentYaw = location.getYaw();
+            this.moveTick = this.lastTick = this.poseTick = entity.getTicksLived();
+            this.poseX = rotX;
+            this.poseY = rotY;
+            this.poseZ = rotZ;
+        }
+
+        @Override
+        public void update(Location location, double rotX, double rotY, double rotZ) {
+            int now = entity.getTicksLived();
+            updatePosition(location, now);
+            updatePose(rotX, rotY, rotZ, now);
+        }
+
+        private void updatePosition(Location location, int now) {
+            double x = location.getX();
+            double y = location.getY();
+            double z = location.getZ();
+            int elapsed = Math.max(1, now - lastTick);
+            double velocityX = (x - lastX) / elapsed;
+            double velocityY = (y - lastY) / elapsed;
+            double velocityZ = (z - lastZ) / elapsed;
+            lastX = x;
+            lastY = y;
+            lastZ = z;
+            lastTick = now;
+
+            // 客戶端目前應顯示的位置
+            int ticksSinceMove = now - moveTick;
+            double progress = Math.min(1.0, ticksSinceMove / (double) updateInterval);
+            double clientX = fromX + (toX - fromX) * progress;
+            double clientY = fromY + (toY - fromY) * progress;
+            double clientZ = fromZ + (toZ - fromZ) * progress;
+
+            double errorX = x - clientX;
+            double errorY = y - clientY;
+            double errorZ = z - clientZ;
+            double errorSquared = errorX * errorX + errorY * errorY + errorZ * errorZ;
+            double yawError = Math.abs(wrapDegrees(location.getYaw() - sentYaw));
+
+            boolean due = ticksSinceMove >= updateInterval
+                && (errorSquared > MOVE_EPSILON_SQUARED || yawError > 0.0);
+            if (!due && errorSquared <= positionErrorSquared && yawError <= rotationError) {
+                return;
+            }
+
+            // 以目前速度外推，讓客戶端在下一次推送時剛好抵達玩家所在位置
+            fromX = clientX;
+            fromY = clientY;
+            fromZ = clientZ;
+            toX = x + velocityX * updateInterval;
+            toY = y + velocityY * updateInterval;
+            toZ = z + velocityZ * updateInterval;
+            sentYaw = location.getYaw();
+            moveTick = now;
+
+            entity.teleport(new Location(location.getWorld(), toX, toY, toZ, sentYaw, 0.0F));
+        }
+
+        private void updatePose(double rotX, double rotY, double rotZ, int now) {
+            double error = Math.max(Math.abs(wrapDegrees(rotX - poseX)),
+                Math.max(Math.abs(wrapDegrees(rotY - poseY)), Math.abs(wrapDegrees(rotZ - poseZ))));
+            if (error == 0.0 || (error <= rotationError && now - poseTick < updateInterval)) {
+                return;
+            }
+
+            poseX = rotX;
+            poseY = rotY;
+            poseZ = rotZ;
+            poseTick = now;
+
+            // 延遲設為 0 讓客戶端從收到時開始插值
+            entity.setInterpolationDelay(0);
+            entity.setTransformation(createTransformation(rotX, rotY, rotZ));
+        }
+
+        @Override
+        public boolean isValid() {
+            return !entity.isDead();
+        }
+
+        @Override
+        public void remove() {
+            if (!entity.isDead()) {
+                entity.remove();
+            }
+        }
+    }
+
+    private static double wrapDegrees(double degrees) {
+        double wrapped = degrees % 360.0;
+        if (wrapped >= 180.0) {
+            wrapped -= 360.0;
+        } else if (wrapped < -180.0) {
+            wrapped += 360.0;
+        }
+        return wrapped;
+    }
+}
@@ -0,0 +1,212 @@
+package com.bird.flysword.core.render;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 單一虛擬飛劍
+ * 位置以 1/4096 方塊的定點數記錄，與客戶端解碼相對移動的方式一致，累積移動不會產生誤差
+ * 觀看者以 UUID 記錄，並記下生成當時的客戶端變更次數，重生或切換世界後重新生成
+ */
+class PacketSwordDisplay implements SwordDisplay {
+
+    private static final double POSITION_SCALE = 4096.0;
+    private static final int VIEWER_SCAN_INTERVAL = 10; // 每 10 tick 重新檢查觀看者
+
+    private final PacketSwordRenderer renderer;
+    private final SwordProtocol protocol;
+    private final int entityId;
+    private final UUID uuid;
+    private final Player rider;
+    private final ItemStack item;
+    private final double viewDistanceSquared;
+
+    // 每 tick 逐一發送封包的清單，與依 UUID 查詢的索引保持一致
+    private final List<Viewer> viewers = new ArrayList<>();
+    private final Map<UUID, Viewer> viewersById = new HashMap<>();
+    private int scanCountdown;
+    private boolean removed;
+
+    // 最後發送的狀態
+    private boolean positioned;
+    private long x;
+    private long y;
+    private long z;
+    private float yaw;
+    private float poseX;
+    private float poseY;
+    private float poseZ;
+
+    PacketSwordDisplay(PacketSwordRenderer renderer, SwordProtocol protocol, int entityId, UUID uuid,
+            Player rider, ItemStack item, double viewDistanceSquared) {
+        this.renderer = renderer;
+        this.protocol = protocol;
+        this.entityId = entityId;
+        this.uuid = uuid;
+        this.rider = rider;
+        this.item = item;
+        this.viewDistanceSquared = viewDistanceSquared;
+    }
+
+    @Override
+    public void update(Location location, double rotX, double rotY, double rotZ) {
+        if (removed) {
+            return;
+        }
+
+        long newX = Math.round(location.getX() * POSITION_SCALE);
+        long newY = Math.round(location.getY() * POSITION_SCALE);
+        long newZ = Math.round(location.getZ() * POSITION_SCALE);
+        float newYaw = location.getYaw();
+        long dx = newX - x;
+        long dy = newY - y;
+        long dz = newZ - z;
+        boolean moved = dx != 0 || dy != 0 || dz != 0 || toAngleByte(newYaw) != toAngleByte(yaw);
+        // 相對移動封包只能表示 8 格以內的位移，超出時重新生成
+        boolean jumped = positioned && (!fitsShort(dx) || !fitsShort(dy) || !fitsShort(dz));
+
+        float newPoseX = (float) rotX;
+        float newPoseY = (float) rotY;
+        float newPoseZ = (float) rotZ;
+        boolean posed = !positioned || newPoseX != poseX || newPoseY != poseY || newPoseZ != poseZ;
+
+        x = newX;
+        y = newY;
+        z = newZ;
+        yaw = newYaw;
+        poseX = newPoseX;
+        poseY = newPoseY;
+        poseZ = newPoseZ;
+
+        if (positioned) {
+            for (int i = 0; i < viewers.size(); i++) {
+                Player viewer = viewers.get(i).player;
+                if (jumped) {
+                    protocol.destroy(viewer, entityId);
+                    spawnFor(viewer);
+                    continue;
+                }
+                if (moved) {
+                    protocol.moveRelative(viewer, entityId, (short) dx, (short) dy, (short) dz, newYaw);
+                }
+                if (posed) {
+                    protocol.sendMetadata(viewer, entityId, poseX, poseY, poseZ);
+                }
+            }
+        }
+        positioned = true;
+
+        if (--scanCountdown <= 0) {
+            scanCountdown = VIEWER_SCAN_INTERVAL;
+            refreshViewers(location);
+        }
+    }
+
+    /**
+     * 移除離開視距或看不見飛行者的觀看者，向新進入視距的玩家生成飛劍，
+     * 並為重生或切換世界後回到視距內的觀看者重新生成
+     */
+    private void refreshViewers(Location location) {
+        World world = location.getWorld();
+        for (int i = viewers.size() - 1; i >= 0; i--) {
+            Viewer viewer = viewers.get(i);
+            Player player = viewer.player;
+            if (!player.isOnline()) {
+                removeViewer(i);
+            } else if (!inRange(player, world, location) || !player.canSee(rider)) {
+                protocol.destroy(player, entityId);
+                removeViewer(i);
+            } else {
+                int epoch = renderer.getViewerEpoch(player.getUniqueId());
+                if (epoch != viewer.epoch) {
+                    // 客戶端已清除舊的實體
+                    viewer.epoch = epoch;
+                    spawnFor(player);
+                }
+            }
+        }
+
+        for (Player player : world.getPlayers()) {
+            if (!viewersById.containsKey(player.getUniqueId())
+                    && inRange(player, world, location) && player.canSee(rider)) {
+                spawnFor(player);
+                Viewer viewer = new Viewer(player, renderer.getViewerEpoch(player.getUniqueId()));
+                viewers.add(viewer);
+                viewersById.put(player.getUniqueId(), viewer);
+            }
+        }
+    }
+
+    private void removeViewer(int index) {
+        Viewer viewer = viewers.remove(index);
+        viewersById.remove(viewer.player.getUniqueId());
+    }
+
+    private boolean inRange(Player player, World world, Location location) {
+        Location playerLoc = player.getLocation();
+        if (playerLoc.getWorld() != world) {
+            return false;
+        }
+        double dx = playerLoc.getX() - location.getX();
+        double dy = playerLoc.getY() - location.getY();
+        double dz = playerLoc.getZ() - location.getZ();
+        return dx * dx + dy * dy + dz * dz <= viewDistanceSquared;
+    }
+
+    private void spawnFor(Player viewer) {
+        protocol.spawnArmorStand(viewer, entityId, uuid,
+            x / POSITION_SCALE, y / POSITION_SCALE, z / POSITION_SCALE, yaw);
+        protocol.sendMetadata(viewer, entityId, poseX, poseY, poseZ);
+        protocol.sendHelmet(viewer, entityId, item);
+    }
+
+    private static boolean fitsShort(long delta) {
+        return delta >= Short.MIN_VALUE && delta <= Short.MAX_VALUE;
+    }
+
+    private static byte toAngleByte(float degrees) {
+        return (byte) (int) (degrees * 256.0F / 360.0F);
+    }
+
+    @Override
+    public boolean isValid() {
+        return !removed;
+    }
+
+    @Override
+    public void remove() {
+        if (removed) {
+            return;
+        }
+        removed = true;
+        for (Viewer viewer : viewers) {
+            if (viewer.player.isOnline()) {
+                protocol.destroy(viewer.player, entityId);
+            }
+        }
+        viewers.clear();
+        viewersById.clear();
+    }
+
+    /**
+     * 觀看者與生成飛劍時的客戶端變更次數
+     */
+    private static final class Viewer {
+
+        private final Player player;
+        private int epoch;
+
+        Viewer(Player player, int epoch) {
+            this.player = player;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bird.flysword.core.render;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 以封包顯示的虛擬飛劍
+ * 不在伺服器生成實體，只向視距內的玩家發送生成、移動與元數據封包
+ *
+ * 玩家重生或切換世界時客戶端會清除所有實體，渲染器為每位玩家記錄變更次數，
+ * 飛劍發現觀看者的次數改變後重新發送生成封包；需註冊為事件監聽器
+ */
+public class PacketSwordRenderer implements SwordRenderer, Listener {
+
+    private final SwordProtocol protocol;
+    private final double viewDistanceSquared;
+    private final Map<UUID, Integer> viewerEpochs = new HashMap<>();
+
+    public PacketSwordRenderer(SwordProtocol protocol, double viewDistance) {
+        this.protocol = protocol;
+        this.viewDistanceSquared = viewDistance * viewDistance;
+    }
+
+    @Override
+    public SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ) {
+        PacketSwordDisplay display = new PacketSwordDisplay(this, protocol, protocol.allocateEntityId(),
+            UUID.randomUUID(), rider, item, viewDistanceSquared);
+        display.update(location, rotX, rotY, rotZ);
+        return display;
+    }
+
+    /**
+     * 玩家客戶端清除實體的次數（重生或切換世界）
+     */
+    int getViewerEpoch(UUID viewer) {
+        return viewerEpochs.getOrDefault(viewer, 0);
+    }
+
+    private void advanceEpoch(Player player) {
+        viewerEpochs.merge(player.getUniqueId(), 1, Integer::sum);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        advanceEpoch(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        advanceEpoch(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        viewerEpochs.remove(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,121 @@
+package com.bird.flysword.core.render;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.wrappers.EnumWrappers;
+import com.comphenix.protocol.wrappers.Pair;
+import com.comphenix.protocol.wrappers.Vector3F;
+import com.comphenix.protocol.wrappers.WrappedDataValue;
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+
+/**
+ * 以 ProtocolLib 發送虛擬飛劍封包
+ * 僅在伺服器安裝 ProtocolLib 時才會載入此類別
+ */
+public final class ProtocolLibSwordProtocol implements SwordProtocol {
+
+    // 盔甲座元數據索引（1.21）
+    private static final int INDEX_ENTITY_FLAGS = 0;
+    private static final int INDEX_NO_GRAVITY = 5;
+    private static final int INDEX_ARMOR_STAND_FLAGS = 15;
+    private static final int INDEX_HEAD_POSE = 16;
+
+    private static final byte FLAG_INVISIBLE = 0x20;
+    private static final byte FLAG_SMALL = 0x01;
+    private static final byte FLAG_NO_BASEPLATE = 0x08;
+    private static final byte FLAG_MARKER = 0x10;
+
+    // 伺服器實體 ID 由 0 往上遞增，虛擬實體從最大值往下分配以避免衝突
+    private final AtomicInteger nextEntityId = new AtomicInteger(Integer.MAX_VALUE);
+    private final ProtocolManager manager;
+
+    public ProtocolLibSwordProtocol() {
+        this.manager = ProtocolLibrary.getProtocolManager();
+    }
+
+    @Override
+    public int allocateEntityId() {
+        return nextEntityId.getAndDecrement();
+    }
+
+    @Override
+    public void spawnArmorStand(Player viewer, int entityId, UUID uuid, double x, double y, double z, float yaw) {
+        PacketContainer packet = manager.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
+        packet.getIntegers().write(0, entityId);
+        packet.getUUIDs().write(0, uuid);
+        packet.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
+        packet.getDoubles()
+            .write(0, x)
+            .write(1, y)
+            .write(2, z);
+        byte angle = toAngleByte(yaw);
+        packet.getBytes()
+            .write(0, (byte) 0)
+            .write(1, angle)
+            .write(2, angle);
+        manager.sendServerPacket(viewer, packet);
+    }
+
+    @Override
+    public void sendMetadata(Player viewer, int entityId, float headX, float headY, float headZ) {
+        PacketContainer packet = manager.createPacket(PacketType.Play.Server.ENTITY_METADATA);
+        packet.getIntegers().write(0, entityId);
+        packet.getDataValueCollectionModifier().write(0, List.of(
+            new WrappedDataValue(INDEX_ENTITY_FLAGS,
+                WrappedDataWatcher.Registry.get(Byte.class), FLAG_INVISIBLE),
+            new WrappedDataValue(INDEX_NO_GRAVITY,
+                WrappedDataWatcher.Registry.get(Boolean.class), true),
+            new WrappedDataValue(INDEX_ARMOR_STAND_FLAGS,
+                WrappedDataWatcher.Registry.get(Byte.class), (byte) (FLAG_SMALL | FLAG_NO_BASEPLATE | FLAG_MARKER)),
+            WrappedDataValue.fromWrappedValue(INDEX_HEAD_POSE,
+                WrappedDataWatcher.Registry.getVectorSerializer(), new Vector3F(headX, headY, headZ))));
+        manager.sendServerPacket(viewer, packet);
+    }
+
+    @Override
+    public void sendHelmet(Player viewer, int entityId, ItemStack item) {
+        if (item == null) {
+            return;
+        }
+        PacketContainer packet = manager.createPacket(PacketType.Play.Server.ENTITY_EQUIPMENT);
+        packet.getIntegers().write(0, entityId);
+        packet.getSlotStackPairLists().write(0, List.of(new Pair<>(EnumWrappers.ItemSlot.HEAD, item)));
+        manager.sendServerPacket(viewer, packet);
+    }
+
+    @Override
+    public void moveRelative(Player viewer, int entityId, short dx, short dy, short dz, float yaw) {
+        PacketContainer packet = manager.createPacket(PacketType.Play.Server.REL_ENTITY_MOVE_LOOK);
+        packet.getIntegers().write(0, entityId);
+        packet.getShorts()
+            .write(0, dx)
+            .write(1, dy)
+            .write(2, dz);
+        packet.getBytes()
+            .write(0, toAngleByte(yaw))
+            .write(1, (byte) 0);
+        packet.getBooleans().write(0, false);
+        manager.sendServerPacket(viewer, packet);
+    }
+
+    @Override
+    public void destroy(Player viewer, int entityId) {
+        PacketContainer packet = manager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+        packet.getIntLists().write(0, List.of(entityId));
+        manager.sendServerPacket(viewer, packet);
+    }
+
+    private static byte toAngleByte(float degrees) {
+        return (byte) (int) (degrees * 256.0F / 360.0F);
+    }
+}
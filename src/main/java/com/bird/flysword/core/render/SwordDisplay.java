@@ -0,0 +1,25 @@
+package com.bird.flysword.core.render;
+
+import org.bukkit.Location;
+
+/**
+ * 單一玩家的飛劍顯示
+ * 由飛行引擎的渲染階段每 tick 更新
+ */
+public interface SwordDisplay {
+
+    /**
+     * 更新飛劍位置與角度（角度以度為單位），未變化的部分不會重新發送
+     */
+    void update(Location location, double rotX, double rotY, double rotZ);
+
+    /**
+     * 顯示是否仍然存在
+     */
+    boolean isValid();
+
+    /**
+     * 移除飛劍顯示
+     */
+    void remove();
+}
@@ -0,0 +1,43 @@
+package com.bird.flysword.core.render;
+
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 虛擬飛劍所需的封包操作
+ * 每個方法只發送給單一觀看者，伺服器端不存在對應的實體
+ */
+public interface SwordProtocol {
+
+    /**
+     * 分配一個不與伺服器實體衝突的實體 ID
+     */
+    int allocateEntityId();
+
+    /**
+     * 生成盔甲座
+     */
+    void spawnArmorStand(Player viewer, int entityId, UUID uuid, double x, double y, double z, float yaw);
+
+    /**
+     * 發送盔甲座元數據：隱形、小尺寸、標記、無重力，以及頭部姿勢（度）
+     */
+    void sendMetadata(Player viewer, int entityId, float headX, float headY, float headZ);
+
+    /**
+     * 發送頭盔欄位的物品
+     */
+    void sendHelmet(Player viewer, int entityId, ItemStack item);
+
+    /**
+     * 相對移動，位移以 1/4096 方塊為單位
+     */
+    void moveRelative(Player viewer, int entityId, short dx, short dy, short dz, float yaw);
+
+    /**
+     * 移除實體
+     */
+    void destroy(Player viewer, int entityId);
+}
@@ -0,0 +1,24 @@
+package com.bird.flysword.core.render;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 飛劍渲染器
+ * 負責為每位飛行中的玩家建立腳下的飛劍顯示
+ */
+public interface SwordRenderer {
+
+    /**
+     * 為玩家生成飛劍顯示
+     *
+     * @param rider 飛行中的玩家
+     * @param item 飛劍物品
+     * @param location 初始位置（使用其偏航角作為朝向）
+     * @param rotX 飛劍 X 軸角度（度）
+     * @param rotY 飛劍 Y 軸角度（度）
+     * @param rotZ 飛劍 Z 軸角度（度）
+     */
+    SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ);
+}
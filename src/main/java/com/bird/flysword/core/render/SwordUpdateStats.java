@@ -0,0 +1,56 @@
+package com.bird.flysword.core.render;
+
+/**
+ * 飛劍變換更新的統計
+ * 只在主線程的渲染階段累加
+ */
+public final class SwordUpdateStats {
+
+    private long sent;
+    private long suppressed;
+    private long lodSkipped;
+
+    void recordSent() {
+        sent++;
+    }
+
+    void recordSuppressed() {
+        suppressed++;
+    }
+
+    /**
+     * 因細節層級降頻或暫停而未計算的更新
+     */
+    public void recordLodSkipped() {
+        lodSkipped++;
+    }
+
+    /**
+     * 實際送往渲染器的更新次數
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * 因變化低於門檻而略過的更新次數
+     */
+    public long getSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * 因細節層級而未計算的更新次數
+     */
+    public long getLodSkipped() {
+        return lodSkipped;
+    }
+
+    /**
+     * 略過比例（0 到 1）
+     */
+    public double getSuppressedRatio() {
+        long total = sent + suppressed;
+        return total == 0 ? 0.0 : suppressed / (double) total;
+    }
+}
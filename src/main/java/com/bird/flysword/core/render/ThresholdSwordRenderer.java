@@ -0,0 +1,123 @@
+package com.bird.flysword.core.render;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * 為任一渲染器加上變化門檻
+ * 記錄最後送出的位置與角度，變化低於門檻時略過該次更新；
+ * 緩慢漂移會持續累積，超過門檻後才一次送出，因此靜止懸停的玩家幾乎不產生更新；
+ * 連續略過一定次數後仍轉發一次，讓實際渲染器的觀看者掃描與插值修正不會因懸停而停止
+ */
+public class ThresholdSwordRenderer implements SwordRenderer {
+
+    private final SwordRenderer delegate;
+    private double positionEpsilonSquared;
+    private double angleEpsilon;
+    private int maxSkippedUpdates;
+    private final SwordUpdateStats stats;
+
+    /**
+     * @param delegate 實際的渲染器
+     * @param positionEpsilon 位置門檻（方塊）
+     * @param angleEpsilon 角度門檻（度），同時用於偏航角與飛劍角度
+     * @param maxSkippedUpdates 連續略過的更新次數上限，達到後即使低於門檻也轉發
+     * @param stats 更新統計
+     */
+    public ThresholdSwordRenderer(SwordRenderer delegate, double positionEpsilon, double angleEpsilon,
+            int maxSkippedUpdates, SwordUpdateStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+        configure(positionEpsilon, angleEpsilon, maxSkippedUpdates);
+    }
+
+    /**
+     * 更換門檻，重新載入配置時在主線程呼叫，對已顯示的飛劍立即生效
+     */
+    public void configure(double positionEpsilon, double angleEpsilon, int maxSkippedUpdates) {
+        this.positionEpsilonSquared = positionEpsilon * positionEpsilon;
+        this.angleEpsilon = angleEpsilon;
+        this.maxSkippedUpdates = Math.max(1, maxSkippedUpdates);
+    }
+
+    @Override
+    public SwordDisplay spawn(Player rider, ItemStack item, Location location, double rotX, double rotY, double rotZ) {
+        SwordDisplay display = delegate.spawn(rider, item, location, rotX, rotY, rotZ);
+        stats.recordSent();
+        return new ThresholdSwordDisplay(display, location, rotX, rotY, rotZ);
+    }
+
+    private final class ThresholdSwordDisplay implements SwordDisplay {
+
+        private final SwordDisplay delegate;
+
+        // 最後送出的狀態
+        private double x;
+        private double y;
+        private double z;
+        private float yaw;
+        private double rotX;
+        private double rotY;
+        private double rotZ;
+        private int skipped;
+
+        ThresholdSwordDisplay(SwordDisplay delegate, Location location, double rotX, double rotY, double rotZ) {
+            this.delegate = delegate;
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+            this.yaw = location.getYaw();
+            this.rotX = rotX;
+            this.rotY = rotY;
+            this.rotZ = rotZ;
+        }
+
+        @Override
+        public void update(Location location, double rotX, double rotY, double rotZ) {
+            double dx = location.getX() - x;
+            double dy = location.getY() - y;
+            double dz = location.getZ() - z;
+            if (dx * dx + dy * dy + dz * dz <= positionEpsilonSquared
+                    && angleWithin(location.getYaw() - yaw)
+                    && angleWithin(rotX - this.rotX)
+                    && angleWithin(rotY - this.rotY)
+                    && angleWithin(rotZ - this.rotZ)
+                    && ++skipped < maxSkippedUpdates) {
+                stats.recordSuppressed();
+                return;
+            }
+
+            skipped = 0;
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+            yaw = location.getYaw();
+            this.rotX = rotX;
+            this.rotY = rotY;
+            this.rotZ = rotZ;
+            delegate.update(location, rotX, rotY, rotZ);
+            stats.recordSent();
+        }
+
+        private boolean angleWithin(double delta) {
+            double wrapped = delta % 360.0;
+            if (wrapped > 180.0) {
+                wrapped -= 360.0;
+            } else if (wrapped < -180.0) {
+                wrapped += 360.0;
+            }
+            return Math.abs(wrapped) <= angleEpsilon;
+        }
+
+        @Override
+        public boolean isValid() {
+            return delegate.isValid();
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+        }
+    }
+}
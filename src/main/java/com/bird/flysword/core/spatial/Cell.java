@@ -0,0 +1,44 @@
+package com.bird.flysword.core.spatial;
+
+import java.util.Arrays;
+
+/**
+ * 單一網格中的項目，移除時以末尾元素補位
+ */
+final class Cell<T> {
+
+    final int cx;
+    final int cz;
+    SpatialHash.Entry<T>[] entries;
+    int size;
+
+    @SuppressWarnings("unchecked")
+    Cell(int cx, int cz) {
+        this.cx = cx;
+        this.cz = cz;
+        this.entries = (SpatialHash.Entry<T>[]) new SpatialHash.Entry[4];
+    }
+
+    void add(SpatialHash.Entry<T> entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size] = entry;
+        entry.cell = this;
+        entry.index = size;
+        size++;
+    }
+
+    void remove(SpatialHash.Entry<T> entry) {
+        int index = entry.index;
+        int last = size - 1;
+        if (index != last) {
+            entries[index] = entries[last];
+            entries[index].index = index;
+        }
+        entries[last] = null;
+        size = last;
+        entry.cell = null;
+        entry.index = -1;
+    }
+}
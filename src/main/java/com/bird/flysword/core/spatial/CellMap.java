@@ -0,0 +1,110 @@
+package com.bird.flysword.core.spatial;
+
+/**
+ * 以網格座標為鍵的開放定址雜湊表
+ * 鍵為原始 long，查詢時不需裝箱；刪除採用後移補位，不留下墓碑
+ */
+final class CellMap<T> {
+
+    private static final int INITIAL_CAPACITY = 64; // 必須為 2 的次方
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Cell<T>[] cells = newArray(INITIAL_CAPACITY);
+    private int size;
+
+    Cell<T> get(int cx, int cz) {
+        long key = key(cx, cz);
+        int mask = cells.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            Cell<T> cell = cells[slot];
+            if (cell == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return cell;
+            }
+        }
+    }
+
+    Cell<T> getOrCreate(int cx, int cz) {
+        Cell<T> cell = get(cx, cz);
+        if (cell != null) {
+            return cell;
+        }
+        if ((size + 1) * 2 > cells.length) {
+            resize(cells.length * 2);
+        }
+        cell = new Cell<>(cx, cz);
+        insert(key(cx, cz), cell);
+        return cell;
+    }
+
+    void remove(Cell<T> cell) {
+        long key = key(cell.cx, cell.cz);
+        int mask = cells.length - 1;
+        int slot = hash(key) & mask;
+        while (cells[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (cells[slot] == null) {
+            return;
+        }
+        cells[slot] = null;
+        size--;
+
+        // 將後續同一探測鏈上的元素往前補位
+        int next = (slot + 1) & mask;
+        while (cells[next] != null) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                cells[slot] = cells[next];
+                cells[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void insert(long key, Cell<T> cell) {
+        int mask = cells.length - 1;
+        int slot = hash(key) & mask;
+        while (cells[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        cells[slot] = cell;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Cell<T>[] oldCells = cells;
+        keys = new long[capacity];
+        cells = newArray(capacity);
+        size = 0;
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] != null) {
+                insert(oldKeys[i], oldCells[i]);
+            }
+        }
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Cell<T>[] newArray(int capacity) {
+        return (Cell<T>[]) new Cell[capacity];
+    }
+}
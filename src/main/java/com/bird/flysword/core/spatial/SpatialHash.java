@@ -0,0 +1,229 @@
+package com.bird.flysword.core.spatial;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.World;
+
+/**
+ * 以世界區分的均勻網格空間雜湊
+ * 以水平網格（cellSize x cellSize 的柱狀區域）存放項目，位置更新時只有跨越網格才搬移；
+ * 半徑與包圍盒查詢的結果寫入呼叫者持有的 {@link SpatialQuery}，查詢過程不配置物件
+ *
+ * 非線程安全，只應在主線程使用
+ */
+public final class SpatialHash<T> {
+
+    private final int cellShift;
+    private final Map<World, CellMap<T>> worlds = new HashMap<>();
+    private int size;
+    private long nextSerial;
+
+    /**
+     * @param cellSize 網格邊長（方塊），會調整為 2 的次方
+     */
+    public SpatialHash(int cellSize) {
+        this.cellShift = 32 - Integer.numberOfLeadingZeros(Math.max(1, cellSize) - 1);
+    }
+
+    /**
+     * 加入項目並回傳其句柄，之後以句柄更新位置或移除
+     */
+    public Entry<T> insert(T value, World world, double x, double y, double z) {
+        Entry<T> entry = new Entry<>(value, nextSerial++);
+        place(entry, world, x, y, z);
+        size++;
+        return entry;
+    }
+
+    /**
+     * 更新項目位置，仍在同一網格時只更新座標
+     */
+    public void update(Entry<T> entry, World world, double x, double y, double z) {
+        if (entry.cell == null) {
+            return;
+        }
+        if (entry.world == world
+                && entry.cell.cx == cellCoord(x)
+                && entry.cell.cz == cellCoord(z)) {
+            entry.x = x;
+            entry.y = y;
+            entry.z = z;
+            return;
+        }
+        detach(entry);
+        place(entry, world, x, y, z);
+    }
+
+    /**
+     * 移除項目，重複移除不會有任何效果
+     */
+    public void remove(Entry<T> entry) {
+        if (entry.cell == null) {
+            return;
+        }
+        detach(entry);
+        size--;
+    }
+
+    /**
+     * 查詢球形範圍內的項目
+     *
+     * @return 找到的項目數量
+     */
+    public int queryRadius(World world, double x, double y, double z, double radius, SpatialQuery<T> result) {
+        result.clear();
+        CellMap<T> cells = worlds.get(world);
+        if (cells == null) {
+            return 0;
+        }
+        double radiusSquared = radius * radius;
+        int minX = cellCoord(x - radius);
+        int maxX = cellCoord(x + radius);
+        int minZ = cellCoord(z - radius);
+        int maxZ = cellCoord(z + radius);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                Cell<T> cell = cells.get(cx, cz);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; i++) {
+                    Entry<T> entry = cell.entries[i];
+                    double dx = entry.x - x;
+                    double dy = entry.y - y;
+                    double dz = entry.z - z;
+                    double distanceSquared = dx * dx + dy * dy + dz * dz;
+                    if (distanceSquared <= radiusSquared) {
+                        result.add(entry, distanceSquared);
+                    }
+                }
+            }
+        }
+        return result.size();
+    }
+
+    /**
+     * 查詢與軸對齊包圍盒相交的項目（項目視為點）
+     *
+     * @return 找到的項目數量
+     */
+    public int queryBox(World world, double minX, double minY, double minZ,
+                        double maxX, double maxY, double maxZ, SpatialQuery<T> result) {
+        result.clear();
+        CellMap<T> cells = worlds.get(world);
+        if (cells == null) {
+            return 0;
+        }
+        int minCx = cellCoord(minX);
+        int maxCx = cellCoord(maxX);
+        int minCz = cellCoord(minZ);
+        int maxCz = cellCoord(maxZ);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                Cell<T> cell = cells.get(cx, cz);
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; i++) {
+                    Entry<T> entry = cell.entries[i];
+                    if (entry.x >= minX && entry.x <= maxX
+                            && entry.y >= minY && entry.y <= maxY
+                            && entry.z >= minZ && entry.z <= maxZ) {
+                        result.add(entry, 0.0);
+                    }
+                }
+            }
+        }
+        return result.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry, World world, double x, double y, double z) {
+        CellMap<T> cells = worlds.get(world);
+        if (cells == null) {
+            cells = new CellMap<>();
+            worlds.put(world, cells);
+        }
+        entry.world = world;
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+        cells.getOrCreate(cellCoord(x), cellCoord(z)).add(entry);
+    }
+
+    private void detach(Entry<T> entry) {
+        Cell<T> cell = entry.cell;
+        cell.remove(entry);
+        if (cell.size == 0) {
+            CellMap<T> cells = worlds.get(entry.world);
+            if (cells != null) {
+                cells.remove(cell);
+                if (cells.isEmpty()) {
+                    worlds.remove(entry.world);
+                }
+            }
+        }
+    }
+
+    private int cellCoord(double coordinate) {
+        return (int) Math.floor(coordinate) >> cellShift;
+    }
+
+    /**
+     * 項目句柄，記錄目前所在的網格與位置
+     */
+    public static final class Entry<T> {
+
+        private final T value;
+        private final long serial;
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        Cell<T> cell;
+        int index;
+
+        Entry(T value, long serial) {
+            this.value = value;
+            this.serial = serial;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * 加入順序的序號，同一索引內不會重複
+         */
+        public long getSerial() {
+            return serial;
+        }
+
+        public World getWorld() {
+            return world;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        /**
+         * 是否仍在索引中
+         */
+        public boolean isIndexed() {
+            return cell != null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bird.flysword.core.spatial;
+
+import java.util.Arrays;
+
+/**
+ * 可重複使用的查詢結果緩衝區
+ * 容量不足時才會擴充，之後的查詢不再配置
+ */
+public final class SpatialQuery<T> {
+
+    private SpatialHash.Entry<T>[] entries;
+    private double[] distancesSquared;
+    private int size;
+
+    public SpatialQuery() {
+        this(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SpatialQuery(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.entries = (SpatialHash.Entry<T>[]) new SpatialHash.Entry[initial];
+        this.distancesSquared = new double[initial];
+    }
+
+    void clear() {
+        Arrays.fill(entries, 0, size, null);
+        size = 0;
+    }
+
+    void add(SpatialHash.Entry<T> entry, double distanceSquared) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+            distancesSquared = Arrays.copyOf(distancesSquared, size * 2);
+        }
+        entries[size] = entry;
+        distancesSquared[size] = distanceSquared;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public T get(int index) {
+        return entries[index].getValue();
+    }
+
+    public SpatialHash.Entry<T> getEntry(int index) {
+        return entries[index];
+    }
+
+    /**
+     * 與查詢中心的距離平方（僅半徑查詢有效）
+     */
+    public double getDistanceSquared(int index) {
+        return distancesSquared[index];
+    }
+}
@@ -0,0 +1,58 @@
+package com.bird.flysword.data;
+
+/**
+ * 玩家的特效畫質設定
+ * 決定此玩家看到的粒子數量倍率：環境特效（軌跡、附魔）與事件特效（起飛、解鎖）分開計算，
+ * 關閉時仍保留少量事件特效作為操作回饋
+ */
+public enum EffectQuality {
+
+    OFF("off", "關閉", 0.0, 0.25),
+    LOW("low", "低", 0.25, 0.5),
+    MEDIUM("medium", "中", 0.5, 0.75),
+    HIGH("high", "高", 1.0, 1.0),
+    ULTRA("ultra", "極致", 1.5, 1.5);
+
+    private final String id;
+    private final String displayName;
+    private final double ambientScale;
+    private final double eventScale;
+
+    EffectQuality(String id, String displayName, double ambientScale, double eventScale) {
+        this.id = id;
+        this.displayName = displayName;
+        this.ambientScale = ambientScale;
+        this.eventScale = eventScale;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public double getAmbientScale() {
+        return ambientScale;
+    }
+
+    public double getEventScale() {
+        return eventScale;
+    }
+
+    /**
+     * 依 ID 查找畫質，找不到時回傳 null
+     */
+    public static EffectQuality fromId(String id) {
+        if (id == null) {
+            return null;
+        }
+        for (EffectQuality quality : values()) {
+            if (quality.id.equalsIgnoreCase(id)) {
+                return quality;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.bird.flysword.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.Particle;
+import org.bukkit.Registry;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * 附魔的飛行特效定義
+ * 粒子每隔 interval tick 播放一次，間隔加上 ±jitter 的隨機抖動；
+ * 音效只在特效開始時播放，不會隨粒子重複
+ */
+public class EnchantEffect {
+
+    private final Particle particle;
+    private final int count;
+    private final double spreadX;
+    private final double spreadY;
+    private final double spreadZ;
+    private final double speed;
+    private final int interval;
+    private final int jitter;
+    private final String soundKey;
+    private final Sound sound;
+    private final float volume;
+    private final float pitch;
+
+    public EnchantEffect(Particle particle, int count, double spreadX, double spreadY, double spreadZ, double speed,
+                         int interval, int jitter, String soundKey, float volume, float pitch) {
+        this.particle = particle;
+        this.count = Math.max(0, count);
+        this.spreadX = spreadX;
+        this.spreadY = spreadY;
+        this.spreadZ = spreadZ;
+        this.speed = speed;
+        this.interval = Math.max(1, interval);
+        this.jitter = Math.max(0, Math.min(jitter, this.interval - 1));
+        this.soundKey = soundKey;
+        this.sound = soundKey != null ? resolveSound(soundKey) : null;
+        this.volume = volume;
+        this.pitch = pitch;
+    }
+
+    /**
+     * 從 enchants.yml 的 effect 區段載入
+     *
+     * @throws IllegalArgumentException 粒子或音效名稱無效，或粒子需要額外數據（如 DUST、BLOCK）時
+     */
+    public static EnchantEffect fromConfig(ConfigurationSection config) {
+        Particle particle = null;
+        String particleName = config.getString("particle");
+        if (particleName != null) {
+            try {
+                particle = Particle.valueOf(particleName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("未知的粒子: " + particleName);
+            }
+            // 特效播放時不提供粒子數據，需要數據的粒子會在每次播放時拋出例外
+            if (particle.getDataType() != Void.class) {
+                throw new IllegalArgumentException("粒子 " + particle.name() + " 需要額外數據，不能用於附魔特效");
+            }
+        }
+
+        List<Double> spread = config.getDoubleList("spread");
+        double spreadX = spread.size() > 0 ? spread.get(0) : 0.2;
+        double spreadY = spread.size() > 1 ? spread.get(1) : 0.3;
+        double spreadZ = spread.size() > 2 ? spread.get(2) : spreadX;
+
+        String soundKey = config.getString("sound");
+        EnchantEffect effect = new EnchantEffect(
+            particle,
+            config.getInt("count", 5),
+            spreadX, spreadY, spreadZ,
+            config.getDouble("speed", 0.0),
+            config.getInt("interval", 20),
+            config.getInt("jitter", 0),
+            soundKey,
+            (float) config.getDouble("volume", 0.3),
+            (float) config.getDouble("pitch", 1.0));
+        if (soundKey != null && effect.sound == null) {
+            throw new IllegalArgumentException("未知的音效: " + soundKey);
+        }
+        return effect;
+    }
+
+    public void saveToConfig(ConfigurationSection config) {
+        config.set("particle", particle != null ? particle.name() : null);
+        config.set("count", count);
+        config.set("spread", Arrays.asList(spreadX, spreadY, spreadZ));
+        config.set("speed", speed);
+        config.set("interval", interval);
+        config.set("jitter", jitter);
+        config.set("sound", soundKey);
+        config.set("volume", (double) volume);
+        config.set("pitch", (double) pitch);
+    }
+
+    /**
+     * 音效以命名空間鍵指定，例如 entity.horse.gallop 或 minecraft:entity.horse.gallop
+     */
+    private static Sound resolveSound(String key) {
+        NamespacedKey namespacedKey = NamespacedKey.fromString(key.toLowerCase(Locale.ROOT));
+        return namespacedKey != null ? Registry.SOUNDS.get(namespacedKey) : null;
+    }
+
+    // Getter 方法
+    public Particle getParticle() {
+        return particle;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSpreadX() {
+        return spreadX;
+    }
+
+    public double getSpreadY() {
+        return spreadY;
+    }
+
+    public double getSpreadZ() {
+        return spreadZ;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getJitter() {
+        return jitter;
+    }
+
+    public Sound getSound() {
+        return sound;
+    }
+
+    public float getVolume() {
+        return volume;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+}
@@ -1,8 +1,11 @@
 package com.bird.flysword.data;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -27,6 +30,7 @@ public class PlayerData {
     private String currentVipLevel; // VIP等級
     private long totalFlightTime; // 總飛行時間
     private int totalFlights; // 總飛行次數
+    private EffectQuality effectQuality; // 特效畫質
     
     public PlayerData(UUID playerUUID) {
         this.playerUUID = playerUUID;
@@ -45,6 +49,7 @@ public class PlayerData {
         this.currentVipLevel = "NONE";
         this.totalFlightTime = 0L;
         this.totalFlights = 0;
+        this.effectQuality = EffectQuality.HIGH;
     }
     
     public static PlayerData fromConfig(FileConfiguration config) {
@@ -73,12 +78,14 @@ public class PlayerData {
         playerData.currentVipLevel = config.getString("vipLevel", "NONE");
         playerData.totalFlightTime = config.getLong("totalFlightTime", 0L);
         playerData.totalFlights = config.getInt("totalFlights", 0);
+        playerData.setEffectQuality(EffectQuality.fromId(config.getString("effectQuality")));
         
         // 載入活動記錄
         ConfigurationSection activitySection = config.getConfigurationSection("activityRecords");
         if (activitySection != null) {
             for (String key : activitySection.getKeys(false)) {
-                playerData.activityRecords.put(key, activitySection.get(key));
+                // 巢狀區段轉為一般的鍵值，不保留對設定文件的引用
+                playerData.activityRecords.put(key, copyActivityValue(activitySection.get(key)));
             }
         }
         
@@ -93,6 +100,55 @@ public class PlayerData {
         return playerData;
     }
     
+    /**
+     * 複製一份獨立的數據快照，供背景線程保存使用
+     */
+    public PlayerData copy() {
+        PlayerData copy = new PlayerData(playerUUID);
+        copy.selectedSkin = selectedSkin;
+        copy.unlockedSkins.clear();
+        copy.unlockedSkins.addAll(unlockedSkins);
+        copy.enchantLevels.putAll(enchantLevels);
+        copy.durability = durability;
+        copy.lastFlightTime = lastFlightTime;
+        copy.isFlying = isFlying;
+        copy.skinTokens = skinTokens;
+        for (Map.Entry<String, Object> entry : activityRecords.entrySet()) {
+            copy.activityRecords.put(entry.getKey(), copyActivityValue(entry.getValue()));
+        }
+        copy.achievementProgress.putAll(achievementProgress);
+        copy.currentVipLevel = currentVipLevel;
+        copy.totalFlightTime = totalFlightTime;
+        copy.totalFlights = totalFlights;
+        copy.effectQuality = effectQuality;
+        return copy;
+    }
+    
+    /**
+     * 深層複製活動記錄值：清單與鍵值逐層複製，設定區段轉為鍵值，其他值視為不可變直接共用
+     */
+    private static Object copyActivityValue(Object value) {
+        if (value instanceof ConfigurationSection) {
+            value = ((ConfigurationSection) value).getValues(false);
+        }
+        if (value instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), copyActivityValue(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            Collection<?> source = (Collection<?>) value;
+            List<Object> copy = new ArrayList<>(source.size());
+            for (Object element : source) {
+                copy.add(copyActivityValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+    
     public void saveToConfig(FileConfiguration config) {
         config.set("uuid", playerUUID.toString());
         config.set("selectedSkin", selectedSkin);
@@ -106,6 +162,7 @@ public class PlayerData {
         config.set("vipLevel", currentVipLevel);
         config.set("totalFlightTime", totalFlightTime);
         config.set("totalFlights", totalFlights);
+        config.set("effectQuality", effectQuality.getId());
         
         // 保存活動記錄
         if (!activityRecords.isEmpty()) {
@@ -295,4 +352,12 @@ public class PlayerData {
     public void incrementTotalFlights() {
         totalFlights++;
     }
+    
+    public EffectQuality getEffectQuality() {
+        return effectQuality;
+    }
+    
+    public void setEffectQuality(EffectQuality effectQuality) {
+        this.effectQuality = effectQuality != null ? effectQuality : EffectQuality.HIGH;
+    }
 }
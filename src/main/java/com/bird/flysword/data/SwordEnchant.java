@@ -9,13 +9,20 @@ public class SwordEnchant {
     private final String description;
     private final int maxLevel;
     private final double effectPerLevel;
+    private final EnchantEffect effect; // 飛行特效，null 表示沒有特效
     
     public SwordEnchant(String id, String displayName, String description, int maxLevel, double effectPerLevel) {
+        this(id, displayName, description, maxLevel, effectPerLevel, null);
+    }
+    
+    public SwordEnchant(String id, String displayName, String description, int maxLevel, double effectPerLevel,
+                        EnchantEffect effect) {
         this.id = id;
         this.displayName = displayName;
         this.description = description;
         this.maxLevel = maxLevel;
         this.effectPerLevel = effectPerLevel;
+        this.effect = effect;
     }
     
     public static SwordEnchant fromConfig(String id, ConfigurationSection config) {
@@ -32,6 +39,16 @@ public class SwordEnchant {
         config.set("description", description);
         config.set("maxLevel", maxLevel);
         config.set("effectPerLevel", effectPerLevel);
+        if (effect != null) {
+            effect.saveToConfig(config.createSection("effect"));
+        }
+    }
+    
+    /**
+     * 複製一份使用指定特效的附魔
+     */
+    public SwordEnchant withEffect(EnchantEffect effect) {
+        return new SwordEnchant(id, displayName, description, maxLevel, effectPerLevel, effect);
     }
     
     // Getter 方法
@@ -55,6 +72,10 @@ public class SwordEnchant {
         return effectPerLevel;
     }
     
+    public EnchantEffect getFlightEffect() {
+        return effect;
+    }
+    
     public double getEffect(int level) {
         return effectPerLevel * Math.min(level, maxLevel);
     }
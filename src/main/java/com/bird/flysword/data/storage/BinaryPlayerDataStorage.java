@@ -0,0 +1,82 @@
+package com.bird.flysword.data.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * 二進位儲存後端：按 UUID 前兩位十六進位分片，每位玩家一個 .dat 文件
+ */
+public class BinaryPlayerDataStorage implements PlayerDataStorage {
+
+    private static final String EXTENSION = ".dat";
+
+    private final File folder;
+
+    public BinaryPlayerDataStorage(File folder) {
+        this.folder = folder;
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public PlayerData load(UUID uuid) throws IOException {
+        File file = getFile(uuid);
+        if (!file.exists()) {
+            return null;
+        }
+        return PlayerDataCodec.decode(Files.readAllBytes(file.toPath()));
+    }
+
+    @Override
+    public void save(PlayerData playerData) throws IOException {
+        AtomicFiles.write(getFile(playerData.getPlayerUUID()).toPath(), PlayerDataCodec.encode(playerData));
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        Files.deleteIfExists(getFile(uuid).toPath());
+    }
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return getFile(uuid).exists();
+    }
+
+    @Override
+    public List<UUID> listStoredPlayers() {
+        List<UUID> players = new ArrayList<>();
+        File[] shards = folder.listFiles(File::isDirectory);
+        if (shards == null) {
+            return players;
+        }
+        for (File shard : shards) {
+            File[] files = shard.listFiles((dir, name) -> name.endsWith(EXTENSION));
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    players.add(UUID.fromString(name.substring(0, name.length() - EXTENSION.length())));
+                } catch (IllegalArgumentException ignored) {
+                    // 非玩家數據文件
+                }
+            }
+        }
+        return players;
+    }
+
+    private File getFile(UUID uuid) {
+        String name = uuid.toString();
+        return new File(new File(folder, name.substring(0, 2)), name + EXTENSION);
+    }
+}
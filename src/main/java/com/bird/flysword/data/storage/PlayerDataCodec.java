@@ -0,0 +1,260 @@
+package com.bird.flysword.data.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import com.bird.flysword.data.EffectQuality;
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * 玩家數據的二進位編碼
+ * 格式：魔數 + 版本號 + 定長欄位 + 帶長度前綴的字串與集合
+ *
+ * 版本 2 在總飛行次數之後加入特效畫質，版本 1 的數據以預設畫質讀取；
+ * 版本 3 的活動記錄值可以是清單或巢狀鍵值（例如從 YAML 遷移的區段），舊版本的數據不含這些類型
+ */
+public final class PlayerDataCodec {
+
+    private static final int MAGIC = 0x46535044; // "FSPD"
+    public static final int VERSION = 3;
+
+    // 活動記錄值的類型標記
+    private static final byte TAG_STRING = 0;
+    private static final byte TAG_INT = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_LIST = 5;
+    private static final byte TAG_MAP = 6;
+    private static final byte TAG_NULL = 7; // 只出現在清單與鍵值之內
+
+    private PlayerDataCodec() {
+    }
+
+    public static byte[] encode(PlayerData playerData) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+
+        UUID uuid = playerData.getPlayerUUID();
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+
+        out.writeUTF(playerData.getSelectedSkin());
+        out.writeInt(playerData.getDurability());
+        out.writeLong(playerData.getLastFlightTime());
+        out.writeBoolean(playerData.isFlying());
+        out.writeInt(playerData.getSkinTokens());
+        out.writeUTF(playerData.getCurrentVipLevel());
+        out.writeLong(playerData.getTotalFlightTime());
+        out.writeInt(playerData.getTotalFlights());
+        out.writeUTF(playerData.getEffectQuality().getId());
+
+        writeVarInt(out, playerData.getUnlockedSkins().size());
+        for (String skinId : playerData.getUnlockedSkins()) {
+            out.writeUTF(skinId);
+        }
+
+        writeVarInt(out, playerData.getEnchantLevels().size());
+        for (Map.Entry<String, Integer> entry : playerData.getEnchantLevels().entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeVarInt(out, entry.getValue());
+        }
+
+        writeVarInt(out, playerData.getAchievementProgress().size());
+        for (Map.Entry<String, Long> entry : playerData.getAchievementProgress().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+
+        int recordCount = 0;
+        for (Object value : playerData.getActivityRecords().values()) {
+            if (value != null) {
+                recordCount++;
+            }
+        }
+        writeVarInt(out, recordCount);
+        for (Map.Entry<String, Object> entry : playerData.getActivityRecords().entrySet()) {
+            if (entry.getValue() != null) {
+                out.writeUTF(entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        }
+
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    public static PlayerData decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是飛劍玩家數據文件");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("不支援的玩家數據版本: " + version);
+        }
+
+        PlayerData playerData = new PlayerData(new UUID(in.readLong(), in.readLong()));
+        playerData.setSelectedSkin(in.readUTF());
+        playerData.setDurability(in.readInt());
+        playerData.setLastFlightTime(in.readLong());
+        playerData.setFlying(in.readBoolean());
+        playerData.setSkinTokens(in.readInt());
+        playerData.setCurrentVipLevel(in.readUTF());
+        playerData.setTotalFlightTime(in.readLong());
+        playerData.setTotalFlights(in.readInt());
+        if (version >= 2) {
+            playerData.setEffectQuality(EffectQuality.fromId(in.readUTF()));
+        }
+
+        int skinCount = readVarInt(in);
+        for (int i = 0; i < skinCount; i++) {
+            playerData.unlockSkin(in.readUTF());
+        }
+
+        int enchantCount = readVarInt(in);
+        for (int i = 0; i < enchantCount; i++) {
+            playerData.setEnchantLevel(in.readUTF(), readVarInt(in));
+        }
+
+        int achievementCount = readVarInt(in);
+        for (int i = 0; i < achievementCount; i++) {
+            playerData.setAchievementProgress(in.readUTF(), in.readLong());
+        }
+
+        int recordCount = readVarInt(in);
+        for (int i = 0; i < recordCount; i++) {
+            playerData.setActivityRecord(in.readUTF(), readValue(in));
+        }
+
+        return playerData;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TAG_INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof ConfigurationSection) {
+            writeValue(out, ((ConfigurationSection) value).getValues(false));
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(TAG_MAP);
+            writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.writeUTF(String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> list = (Collection<?>) value;
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else {
+            // 其他類型以字串保存
+            out.writeByte(TAG_STRING);
+            out.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_STRING:
+                return in.readUTF();
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_NULL:
+                return null;
+            case TAG_LIST: {
+                int size = readVarInt(in);
+                List<Object> list = new ArrayList<>(Math.min(size, 256));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case TAG_MAP: {
+                int size = readVarInt(in);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(in.readUTF(), readValue(in));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("未知的活動記錄類型: " + tag);
+        }
+    }
+
+    /**
+     * 單獨編碼一個活動記錄值（供其他儲存後端保存清單與巢狀鍵值）
+     */
+    static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+        writeValue(out, value);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    static Object decodeValue(byte[] data) throws IOException {
+        return readValue(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 28) {
+                throw new IOException("VarInt 過長");
+            }
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bird.flysword.data.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * 一次性遷移工具：將舊的 YAML 玩家數據轉存到新的儲存後端
+ * 所有玩家都遷移成功後才寫入標記文件，之後不再執行；有失敗時下次啟動會重試，原 YAML 文件保留作為備份
+ */
+public final class PlayerDataMigrator {
+
+    private static final int BATCH_SIZE = 256;
+
+    private PlayerDataMigrator() {
+    }
+
+    /**
+     * 執行遷移，返回成功遷移的玩家數量
+     */
+    public static int migrate(YamlPlayerDataStorage source, PlayerDataStorage target, File folder, Logger logger) {
+        File marker = getMarker(target, folder);
+        if (marker.exists()) {
+            return 0;
+        }
+
+        int migrated = 0;
+        int failed = 0;
+        try {
+            List<PlayerData> batch = new ArrayList<>(BATCH_SIZE);
+            for (UUID uuid : source.listStoredPlayers()) {
+                // 目標後端已有數據則以目標為準
+                if (target.exists(uuid)) {
+                    continue;
+                }
+                try {
+                    PlayerData playerData = source.load(uuid);
+                    if (playerData != null) {
+                        batch.add(playerData);
+                    }
+                } catch (IOException e) {
+                    failed++;
+                    logger.warning("遷移玩家數據失敗 " + uuid + ": " + e.getMessage());
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    target.saveBatch(batch);
+                    migrated += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                target.saveBatch(batch);
+                migrated += batch.size();
+            }
+            // 有玩家遷移失敗時不寫標記，讓讀取繼續改讀 YAML，避免以空白數據覆蓋原有數據
+            if (failed > 0) {
+                logger.warning("有 " + failed + " 個玩家數據遷移失敗，下次啟動時會重試");
+            } else if (!marker.createNewFile() && !marker.exists()) {
+                logger.warning("無法寫入遷移標記文件: " + marker.getName());
+            }
+        } catch (IOException e) {
+            logger.severe("玩家數據遷移中斷: " + e.getMessage());
+            return migrated;
+        }
+
+        if (migrated > 0 || failed > 0) {
+            logger.info("已將 " + migrated + " 個 YAML 玩家數據遷移到 " + target.getName() + " 儲存"
+                + (failed > 0 ? "，失敗 " + failed + " 個" : ""));
+        }
+        return migrated;
+    }
+
+    /**
+     * 遷移是否已完成（標記文件存在）
+     */
+    public static boolean isMigrated(PlayerDataStorage target, File folder) {
+        return getMarker(target, folder).exists();
+    }
+
+    private static File getMarker(PlayerDataStorage target, File folder) {
+        return new File(folder, ".migrated-" + target.getName());
+    }
+}
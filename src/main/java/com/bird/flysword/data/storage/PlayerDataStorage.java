@@ -0,0 +1,59 @@
+package com.bird.flysword.data.storage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * 玩家數據儲存後端
+ * 所有方法都只會在 DataManager 的 IO 線程上呼叫
+ */
+public interface PlayerDataStorage {
+
+    /**
+     * 後端名稱（對應 config.yml 的 data.storage）
+     */
+    String getName();
+
+    /**
+     * 載入玩家數據，不存在時返回 null
+     */
+    PlayerData load(UUID uuid) throws IOException;
+
+    /**
+     * 保存單一玩家數據
+     */
+    void save(PlayerData playerData) throws IOException;
+
+    /**
+     * 批量保存玩家數據
+     */
+    default void saveBatch(List<PlayerData> batch) throws IOException {
+        for (PlayerData playerData : batch) {
+            save(playerData);
+        }
+    }
+
+    /**
+     * 刪除玩家數據
+     */
+    void delete(UUID uuid) throws IOException;
+
+    /**
+     * 檢查玩家數據是否存在
+     */
+    boolean exists(UUID uuid) throws IOException;
+
+    /**
+     * 列出所有已保存的玩家
+     */
+    List<UUID> listStoredPlayers() throws IOException;
+
+    /**
+     * 關閉後端，釋放資源
+     */
+    default void close() throws IOException {
+    }
+}
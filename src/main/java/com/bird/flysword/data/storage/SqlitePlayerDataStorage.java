@@ -0,0 +1,451 @@
+package com.bird.flysword.data.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import com.bird.flysword.data.EffectQuality;
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * SQLite 儲存後端：所有玩家保存在單一資料庫文件中
+ * 皮膚、附魔、成就與活動記錄各自一張表，方便排行榜等查詢
+ * 連線只在 IO 線程上使用，首次存取時才建立
+ */
+public class SqlitePlayerDataStorage implements PlayerDataStorage {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS players ("
+            + "uuid TEXT PRIMARY KEY, selected_skin TEXT NOT NULL, durability INTEGER NOT NULL, "
+            + "last_flight_time INTEGER NOT NULL, flying INTEGER NOT NULL, skin_tokens INTEGER NOT NULL, "
+            + "vip_level TEXT NOT NULL, total_flight_time INTEGER NOT NULL, total_flights INTEGER NOT NULL, "
+            + "effect_quality TEXT NOT NULL DEFAULT 'high')",
+        "CREATE TABLE IF NOT EXISTS player_skins ("
+            + "uuid TEXT NOT NULL, skin_id TEXT NOT NULL, PRIMARY KEY (uuid, skin_id))",
+        "CREATE TABLE IF NOT EXISTS player_enchants ("
+            + "uuid TEXT NOT NULL, enchant_id TEXT NOT NULL, level INTEGER NOT NULL, PRIMARY KEY (uuid, enchant_id))",
+        "CREATE TABLE IF NOT EXISTS player_achievements ("
+            + "uuid TEXT NOT NULL, achievement_id TEXT NOT NULL, progress INTEGER NOT NULL, "
+            + "PRIMARY KEY (uuid, achievement_id))",
+        "CREATE TABLE IF NOT EXISTS player_activity ("
+            + "uuid TEXT NOT NULL, record_key TEXT NOT NULL, value_type TEXT NOT NULL, value TEXT NOT NULL, "
+            + "PRIMARY KEY (uuid, record_key))",
+        "CREATE INDEX IF NOT EXISTS idx_players_flight_time ON players (total_flight_time DESC)"
+    };
+
+    private static final String UPSERT_PLAYER =
+        "INSERT INTO players (uuid, selected_skin, durability, last_flight_time, flying, skin_tokens, "
+            + "vip_level, total_flight_time, total_flights, effect_quality) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET selected_skin = excluded.selected_skin, "
+            + "durability = excluded.durability, last_flight_time = excluded.last_flight_time, "
+            + "flying = excluded.flying, skin_tokens = excluded.skin_tokens, vip_level = excluded.vip_level, "
+            + "total_flight_time = excluded.total_flight_time, total_flights = excluded.total_flights, "
+            + "effect_quality = excluded.effect_quality";
+
+    // 舊版資料庫缺少的欄位：表名、欄位名、欄位定義
+    private static final String[][] ADDED_COLUMNS = {
+        {"players", "effect_quality", "TEXT NOT NULL DEFAULT 'high'"}
+    };
+
+    // 子表先刪後插，確保移除的項目不會殘留
+    private static final String[] CHILD_TABLES = {
+        "player_skins", "player_enchants", "player_achievements", "player_activity"
+    };
+
+    private final File databaseFile;
+    private Connection connection;
+
+    public SqlitePlayerDataStorage(File databaseFile) {
+        this.databaseFile = databaseFile;
+    }
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            return connection;
+        }
+        File parent = databaseFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("找不到 SQLite 驅動", e);
+        }
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+            for (String[] column : ADDED_COLUMNS) {
+                addColumnIfMissing(statement, column[0], column[1], column[2]);
+            }
+        }
+        return connection;
+    }
+
+    private static void addColumnIfMissing(Statement statement, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet result = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (result.next()) {
+                if (column.equalsIgnoreCase(result.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        statement.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+
+    @Override
+    public PlayerData load(UUID uuid) throws IOException {
+        String id = uuid.toString();
+        try {
+            Connection conn = connection();
+            PlayerData playerData;
+            try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT selected_skin, durability, last_flight_time, flying, skin_tokens, vip_level, "
+                    + "total_flight_time, total_flights, effect_quality FROM players WHERE uuid = ?")) {
+                statement.setString(1, id);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (!result.next()) {
+                        return null;
+                    }
+                    playerData = new PlayerData(uuid);
+                    playerData.setSelectedSkin(result.getString(1));
+                    playerData.setDurability(result.getInt(2));
+                    playerData.setLastFlightTime(result.getLong(3));
+                    playerData.setFlying(result.getInt(4) != 0);
+                    playerData.setSkinTokens(result.getInt(5));
+                    playerData.setCurrentVipLevel(result.getString(6));
+                    playerData.setTotalFlightTime(result.getLong(7));
+                    playerData.setTotalFlights(result.getInt(8));
+                    playerData.setEffectQuality(EffectQuality.fromId(result.getString(9)));
+                }
+            }
+
+            try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT skin_id FROM player_skins WHERE uuid = ?")) {
+                statement.setString(1, id);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        playerData.unlockSkin(result.getString(1));
+                    }
+                }
+            }
+
+            try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT enchant_id, level FROM player_enchants WHERE uuid = ?")) {
+                statement.setString(1, id);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        playerData.setEnchantLevel(result.getString(1), result.getInt(2));
+                    }
+                }
+            }
+
+            try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT achievement_id, progress FROM player_achievements WHERE uuid = ?")) {
+                statement.setString(1, id);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        playerData.setAchievementProgress(result.getString(1), result.getLong(2));
+                    }
+                }
+            }
+
+            try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT record_key, value_type, value FROM player_activity WHERE uuid = ?")) {
+                statement.setString(1, id);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        playerData.setActivityRecord(result.getString(1),
+                            decodeValue(result.getString(2), result.getString(3)));
+                    }
+                }
+            }
+
+            return playerData;
+        } catch (SQLException e) {
+            throw new IOException("讀取玩家數據失敗: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void save(PlayerData playerData) throws IOException {
+        saveBatch(Collections.singletonList(playerData));
+    }
+
+    /**
+     * 在單一交易中以批量語句寫入整批玩家
+     */
+    @Override
+    public void saveBatch(List<PlayerData> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Connection conn = connection();
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement statement = conn.prepareStatement(UPSERT_PLAYER)) {
+                    for (PlayerData playerData : batch) {
+                        statement.setString(1, playerData.getPlayerUUID().toString());
+                        statement.setString(2, playerData.getSelectedSkin());
+                        statement.setInt(3, playerData.getDurability());
+                        statement.setLong(4, playerData.getLastFlightTime());
+                        statement.setInt(5, playerData.isFlying() ? 1 : 0);
+                        statement.setInt(6, playerData.getSkinTokens());
+                        statement.setString(7, playerData.getCurrentVipLevel());
+                        statement.setLong(8, playerData.getTotalFlightTime());
+                        statement.setInt(9, playerData.getTotalFlights());
+                        statement.setString(10, playerData.getEffectQuality().getId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+
+                deleteChildRows(conn, batch);
+
+                try (PreparedStatement statement = conn.prepareStatement(
+                    "INSERT INTO player_skins (uuid, skin_id) VALUES (?, ?)")) {
+                    for (PlayerData playerData : batch) {
+                        String id = playerData.getPlayerUUID().toString();
+                        for (String skinId : playerData.getUnlockedSkins()) {
+                            statement.setString(1, id);
+                            statement.setString(2, skinId);
+                            statement.addBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+
+                try (PreparedStatement statement = conn.prepareStatement(
+                    "INSERT INTO player_enchants (uuid, enchant_id, level) VALUES (?, ?, ?)")) {
+                    for (PlayerData playerData : batch) {
+                        String id = playerData.getPlayerUUID().toString();
+                        for (Map.Entry<String, Integer> entry : playerData.getEnchantLevels().entrySet()) {
+                            statement.setString(1, id);
+                            statement.setString(2, entry.getKey());
+                            statement.setInt(3, entry.getValue());
+                            statement.addBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+
+                try (PreparedStatement statement = conn.prepareStatement(
+                    "INSERT INTO player_achievements (uuid, achievement_id, progress) VALUES (?, ?, ?)")) {
+                    for (PlayerData playerData : batch) {
+                        String id = playerData.getPlayerUUID().toString();
+                        for (Map.Entry<String, Long> entry : playerData.getAchievementProgress().entrySet()) {
+                            statement.setString(1, id);
+                            statement.setString(2, entry.getKey());
+                            statement.setLong(3, entry.getValue());
+                            statement.addBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+
+                try (PreparedStatement statement = conn.prepareStatement(
+                    "INSERT INTO player_activity (uuid, record_key, value_type, value) VALUES (?, ?, ?, ?)")) {
+                    for (PlayerData playerData : batch) {
+                        String id = playerData.getPlayerUUID().toString();
+                        for (Map.Entry<String, Object> entry : playerData.getActivityRecords().entrySet()) {
+                            Object value = entry.getValue();
+                            if (value == null) {
+                                continue;
+                            }
+                            statement.setString(1, id);
+                            statement.setString(2, entry.getKey());
+                            String type = valueType(value);
+                            statement.setString(3, type);
+                            statement.setString(4, "nested".equals(type)
+                                ? Base64.getEncoder().encodeToString(PlayerDataCodec.encodeValue(value))
+                                : value.toString());
+                            statement.addBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("寫入玩家數據失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private void deleteChildRows(Connection conn, List<PlayerData> batch) throws SQLException {
+        for (String table : CHILD_TABLES) {
+            try (PreparedStatement statement = conn.prepareStatement("DELETE FROM " + table + " WHERE uuid = ?")) {
+                for (PlayerData playerData : batch) {
+                    statement.setString(1, playerData.getPlayerUUID().toString());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        try {
+            Connection conn = connection();
+            conn.setAutoCommit(false);
+            try {
+                for (String table : CHILD_TABLES) {
+                    deleteRows(conn, table, uuid);
+                }
+                deleteRows(conn, "players", uuid);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("刪除玩家數據失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private void deleteRows(Connection conn, String table, UUID uuid) throws SQLException {
+        try (PreparedStatement statement = conn.prepareStatement("DELETE FROM " + table + " WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public boolean exists(UUID uuid) throws IOException {
+        try (PreparedStatement statement = connection().prepareStatement("SELECT 1 FROM players WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        } catch (SQLException e) {
+            throw new IOException("查詢玩家數據失敗: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<UUID> listStoredPlayers() throws IOException {
+        List<UUID> players = new ArrayList<>();
+        try (Statement statement = connection().createStatement();
+             ResultSet result = statement.executeQuery("SELECT uuid FROM players")) {
+            while (result.next()) {
+                players.add(UUID.fromString(result.getString(1)));
+            }
+        } catch (SQLException e) {
+            throw new IOException("列出玩家數據失敗: " + e.getMessage(), e);
+        }
+        return players;
+    }
+
+    /**
+     * 按總飛行時間排序的排行榜
+     */
+    public Map<UUID, Long> getTopFlightTime(int limit) throws IOException {
+        Map<UUID, Long> top = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection().prepareStatement(
+            "SELECT uuid, total_flight_time FROM players ORDER BY total_flight_time DESC LIMIT ?")) {
+            statement.setInt(1, limit);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    top.put(UUID.fromString(result.getString(1)), result.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("查詢排行榜失敗: " + e.getMessage(), e);
+        }
+        return top;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("關閉資料庫失敗: " + e.getMessage(), e);
+        } finally {
+            connection = null;
+        }
+    }
+
+    private static String valueType(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return "int";
+        }
+        if (value instanceof Long) {
+            return "long";
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return "double";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        // 清單與巢狀鍵值以二進位編碼保存
+        if (value instanceof Map || value instanceof Collection || value instanceof ConfigurationSection) {
+            return "nested";
+        }
+        return "string";
+    }
+
+    private static Object decodeValue(String type, String value) throws IOException {
+        if ("nested".equals(type)) {
+            try {
+                return PlayerDataCodec.decodeValue(Base64.getDecoder().decode(value));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("活動記錄格式錯誤: " + e.getMessage(), e);
+            }
+        }
+        try {
+            switch (type) {
+                case "int":
+                    return Integer.parseInt(value);
+                case "long":
+                    return Long.parseLong(value);
+                case "double":
+                    return Double.parseDouble(value);
+                case "boolean":
+                    return Boolean.parseBoolean(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bird.flysword.data.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import com.bird.flysword.data.PlayerData;
+
+/**
+ * YAML 儲存後端：每位玩家一個 &lt;uuid&gt;.yml 文件
+ */
+public class YamlPlayerDataStorage implements PlayerDataStorage {
+
+    private static final String EXTENSION = ".yml";
+
+    private final File folder;
+
+    public YamlPlayerDataStorage(File folder) {
+        this.folder = folder;
+    }
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+
+    @Override
+    public PlayerData load(UUID uuid) throws IOException {
+        File file = getFile(uuid);
+        if (!file.exists()) {
+            return null;
+        }
+        FileConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            return PlayerData.fromConfig(config);
+        } catch (InvalidConfigurationException | IllegalArgumentException | NullPointerException e) {
+            throw new IOException("無效的玩家數據文件: " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public void save(PlayerData playerData) throws IOException {
+        AtomicFiles.write(getFile(playerData.getPlayerUUID()).toPath(), encode(playerData));
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        Files.deleteIfExists(getFile(uuid).toPath());
+    }
+
+    @Override
+    public boolean exists(UUID uuid) {
+        return getFile(uuid).exists();
+    }
+
+    @Override
+    public List<UUID> listStoredPlayers() {
+        List<UUID> players = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    players.add(UUID.fromString(name.substring(0, name.length() - EXTENSION.length())));
+                } catch (IllegalArgumentException ignored) {
+                    // 非玩家數據文件
+                }
+            }
+        }
+        return players;
+    }
+
+    /**
+     * 將玩家數據序列化為 YAML 文本
+     */
+    public static byte[] encode(PlayerData playerData) {
+        FileConfiguration config = new YamlConfiguration();
+        playerData.saveToConfig(config);
+        return config.saveToString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private File getFile(UUID uuid) {
+        return new File(folder, uuid.toString() + EXTENSION);
+    }
+}
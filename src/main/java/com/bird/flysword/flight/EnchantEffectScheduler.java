@@ -0,0 +1,75 @@
+package com.bird.flysword.flight;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.bukkit.entity.Player;
+
+import com.bird.flysword.Flysword;
+import com.bird.flysword.data.EnchantEffect;
+import com.bird.flysword.data.SwordEnchant;
+import com.bird.flysword.managers.EffectManager;
+
+/**
+ * 附魔特效排程
+ * 每個附魔依 enchants.yml 設定的間隔播放粒子，間隔加上隨機抖動，避免同時起飛的飛行者同步閃爍；
+ * 音效只在附魔特效開始（起飛或等級改變）時播放一次
+ */
+public class EnchantEffectScheduler {
+
+    private final Flysword plugin;
+
+    public EnchantEffectScheduler(Flysword plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 特效階段：推進此會話的附魔計時並播放到期的特效
+     */
+    public void update(FlightSession session) {
+        EnchantEffectTimers timers = session.getEnchantEffectTimers();
+        long tick = timers.advance();
+        Player player = session.getPlayer();
+        EffectManager effects = plugin.getEffectManager();
+
+        int active = 0;
+        for (Map.Entry<String, Integer> entry : session.getPlayerData().getEnchantLevels().entrySet()) {
+            int level = entry.getValue();
+            if (level <= 0) {
+                continue;
+            }
+            SwordEnchant enchant = plugin.getEnchantManager().getEnchant(entry.getKey());
+            EnchantEffect effect = enchant != null ? enchant.getFlightEffect() : null;
+            if (effect == null) {
+                continue;
+            }
+
+            EnchantEffectTimers.Timer timer = timers.get(entry.getKey());
+            if (timer == null || timer.level != level) {
+                // 狀態改變：播放音效，第一次粒子落在隨機相位上
+                timer = timers.start(entry.getKey(), level,
+                    tick + ThreadLocalRandom.current().nextInt(effect.getInterval()));
+                effects.playEnchantSound(player, effect);
+            }
+            timer.seenTick = tick;
+            active++;
+
+            if (tick >= timer.nextTick) {
+                effects.playEnchantParticles(player, effect);
+                timer.nextTick = tick + nextInterval(effect);
+            }
+        }
+
+        if (active < timers.size()) {
+            timers.removeUnseen(tick);
+        }
+    }
+
+    private static int nextInterval(EnchantEffect effect) {
+        int jitter = effect.getJitter();
+        if (jitter == 0) {
+            return effect.getInterval();
+        }
+        return effect.getInterval() + ThreadLocalRandom.current().nextInt(-jitter, jitter + 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bird.flysword.flight;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 單一飛行會話的附魔特效計時
+ * 記錄每個附魔目前的等級與下一次播放的 tick，只在附魔開始或改變時配置
+ */
+final class EnchantEffectTimers {
+
+    private final Map<String, Timer> timers = new HashMap<>();
+    private long tick;
+
+    /**
+     * 前進一個 tick 並回傳目前的 tick
+     */
+    long advance() {
+        return ++tick;
+    }
+
+    Timer get(String enchantId) {
+        return timers.get(enchantId);
+    }
+
+    Timer start(String enchantId, int level, long nextTick) {
+        Timer timer = timers.get(enchantId);
+        if (timer == null) {
+            timer = new Timer();
+            timers.put(enchantId, timer);
+        }
+        timer.level = level;
+        timer.nextTick = nextTick;
+        return timer;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * 移除本 tick 沒有出現的附魔（等級歸零或已移除）
+     */
+    void removeUnseen(long currentTick) {
+        Iterator<Timer> iterator = timers.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().seenTick != currentTick) {
+                iterator.remove();
+            }
+        }
+    }
+
+    static final class Timer {
+        int level;
+        long nextTick;
+        long seenTick;
+    }
+}
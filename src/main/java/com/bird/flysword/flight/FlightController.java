@@ -8,10 +8,19 @@ import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.core.collision.BlockClassifier;
+import com.bird.flysword.core.collision.CollisionPrediction;
+import com.bird.flysword.core.collision.CollisionStats;
+import com.bird.flysword.core.collision.LandingSearch;
+import com.bird.flysword.core.collision.RiderSeparation;
+import com.bird.flysword.core.collision.VoxelWindow;
+import com.bird.flysword.core.spatial.SpatialQuery;
 import com.bird.flysword.data.PlayerData;
 
 public class FlightController {
@@ -21,26 +30,26 @@ public class FlightController {
     private final Map<UUID, Long> cooldowns;
     private final Map<UUID, FlightState> flightStates;
     
-    // 飛行配置（從配置文件讀取）
-    private final double BASE_SPEED;
-    private final double MAX_SPEED;
-    private final double ACCELERATION;
-    private final double DECELERATION;
-    private static final long COOLDOWN_TIME = 2000; // 2秒冷卻
+    // 飛行配置改由 plugin.getFlightSettings() 提供，重新載入後立即生效
     private static final int OBSTACLE_CHECK_DISTANCE = 3;
     private static final double SAFE_LANDING_DISTANCE = 2.0;
+    private static final double PLAYER_HALF_WIDTH = 0.3;
+    private static final double PLAYER_HEIGHT = 1.8;
+    private static final int SLOW_FALL_TICKS = 200; // 找不到地面時給予10秒緩降
+    private static final Vector HOVER_VELOCITY = new Vector(0, 0, 0); // 只讀，setVelocity 不會修改傳入的向量
+    
+    // 飛行者分離的暫存，只在主線程的物理階段使用
+    private final SpatialQuery<FlightSession> separationQuery = new SpatialQuery<>();
+    private final double[] separationImpulse = new double[RiderSeparation.IMPULSE_SIZE];
+    
+    private final EnchantEffectScheduler enchantEffectScheduler;
     
     public FlightController(Flysword plugin) {
         this.plugin = plugin;
+        this.enchantEffectScheduler = new EnchantEffectScheduler(plugin);
         this.activeFlights = new HashMap<>();
         this.cooldowns = new HashMap<>();
         this.flightStates = new HashMap<>();
-        
-        // 從配置文件讀取飛行參數
-        this.BASE_SPEED = plugin.getConfig().getDouble("flight.speed.base_speed", 0.4);
-        this.MAX_SPEED = plugin.getConfig().getDouble("flight.speed.max_speed", 1.0);
-        this.ACCELERATION = plugin.getConfig().getDouble("flight.speed.acceleration", 0.05);
-        this.DECELERATION = plugin.getConfig().getDouble("flight.speed.deceleration", 0.03);
     }
     
     /**
@@ -96,24 +105,23 @@ public class FlightController {
         // 設置冷卻時間
         setCooldown(uuid);
         
-        // 創建飛行會話
+        // 創建飛行會話（會自動註冊到飛行引擎）
         FlightSession session = new FlightSession(plugin, player);
         activeFlights.put(uuid, session);
         
         // 設置飛行狀態
         FlightState state = new FlightState();
         state.setFlying(true);
-        state.setSpeed(BASE_SPEED);
+        state.setSpeed(plugin.getFlightSettings().getBaseSpeed());
         state.setLastUpdateTime(System.currentTimeMillis());
         flightStates.put(uuid, state);
-        
-        // 添加到調度器
-        plugin.getFlightScheduler().addActivePlayer(uuid);
+        session.setState(state);
         
         // 更新玩家數據
         PlayerData playerData = plugin.getDataManager().getPlayerData(player);
         playerData.setFlying(true);
         playerData.setLastFlightTime(System.currentTimeMillis());
+        playerData.incrementTotalFlights();
         plugin.getDataManager().savePlayerData(player);
         
         // 播放啟動特效
@@ -139,6 +147,16 @@ public class FlightController {
             return false;
         }
         
+        endFlight(player);
+        return true;
+    }
+    
+    /**
+     * 結束飛行會話並更新玩家數據，不做降落檢查
+     */
+    private void endFlight(Player player) {
+        UUID uuid = player.getUniqueId();
+        
         // 停止飛行會話
         FlightSession session = activeFlights.remove(uuid);
         if (session != null) {
@@ -146,32 +164,31 @@ public class FlightController {
         }
         
         // 清除飛行狀態
-        flightStates.remove(uuid);
-        
-        // 從調度器移除
-        plugin.getFlightScheduler().removeActivePlayer(uuid);
+        FlightState state = flightStates.remove(uuid);
         
         // 更新玩家數據
         PlayerData playerData = plugin.getDataManager().getPlayerData(player);
         playerData.setFlying(false);
+        if (state != null) {
+            playerData.addFlightTime(state.getFlightDuration());
+        }
         plugin.getDataManager().savePlayerData(player);
         
         // 播放停止特效
         plugin.getEffectManager().playFlightStopEffect(player);
         
         player.sendMessage("§c§l💨 飛劍模式已關閉！");
-        return true;
     }
     
     /**
-     * 更新飛行狀態
+     * 輸入階段：檢查耐久度並處理 Shift 鍵輸入
      */
-    public void updateFlight(Player player) {
-        UUID uuid = player.getUniqueId();
-        
-        if (!isFlying(uuid)) {
+    public void processInput(FlightSession session) {
+        FlightState state = session.getState();
+        if (state == null) {
             return;
         }
+        Player player = session.getPlayer();
         
         // 檢查耐久度
         if (!hasValidSwordDurability(player)) {
@@ -180,37 +197,65 @@ public class FlightController {
             return;
         }
         
-        FlightSession session = activeFlights.get(uuid);
-        FlightState state = flightStates.get(uuid);
-        
-        if (session == null || state == null) {
+        // 強制降落搜索進行中，繼續搜索
+        if (session.getLandingSearch() != null) {
+            continueForceLanding(session);
             return;
         }
         
-        // 更新飛行邏輯
-        updateFlightMovement(player, state);
-        updateFlightEffects(player, state);
-        checkObstacles(player, state);
-        
-        // 更新會話
-        session.update();
-        
-        // 更新狀態時間
+        // 處理 Shift 鍵強制降落邏輯
+        handleShiftLanding(player, state, player.isSneaking());
+    }
+    
+    /**
+     * 物理階段：更新飛行移動與速度
+     */
+    public void updateMovement(FlightSession session) {
+        FlightState state = session.getState();
+        if (state == null || session.getLandingSearch() != null) {
+            return;
+        }
+        updateFlightMovement(session, state);
         state.setLastUpdateTime(System.currentTimeMillis());
     }
     
+    /**
+     * 碰撞階段：檢查前方障礙物
+     */
+    public void checkCollision(FlightSession session) {
+        FlightState state = session.getState();
+        if (state == null) {
+            return;
+        }
+        // 性能調節降級時降低障礙物檢查頻率，掃描距離依間隔延長
+        int interval = plugin.getPerformanceOptimizer().getCollisionInterval();
+        if (!session.shouldCheckCollision(interval)) {
+            return;
+        }
+        checkObstacles(session, state, state.getSpeed() * (interval - 1));
+    }
+    
+    /**
+     * 特效階段：播放飛行與附魔特效
+     */
+    public void updateEffects(FlightSession session) {
+        FlightState state = session.getState();
+        if (state == null) {
+            return;
+        }
+        updateFlightEffects(session);
+    }
+    
     /**
      * 更新飛行移動
      */
-    private void updateFlightMovement(Player player, FlightState state) {
+    private void updateFlightMovement(FlightSession session, FlightState state) {
+        Player player = session.getPlayer();
         Location playerLoc = player.getLocation();
         
         // 獲取玩家輸入
         boolean isSneaking = player.isSneaking();
         
-        // 處理 Shift 鍵強制降落邏輯
-        handleShiftLanding(player, state, isSneaking);
-        
         // 原有的移動邏輯（僅在非強制降落狀態下執行）
         if (!state.isShiftLandingActive()) {
             boolean isJumping = isSneaking; // 蹲下上升
@@ -233,8 +278,9 @@ public class FlightController {
             Vector velocity = direction.multiply(currentSpeed);
             
             // 檢查高度限制
-            double maxHeight = plugin.getConfig().getDouble("flight.max_height", 256);
-            double minHeight = plugin.getConfig().getDouble("flight.min_height", 0);
+            FlightSettings settings = plugin.getFlightSettings();
+            double maxHeight = settings.getMaxHeight();
+            double minHeight = settings.getMinHeight();
             
             if (playerLoc.getY() >= maxHeight) {
                 // 開始違反高度限制
@@ -270,6 +316,9 @@ public class FlightController {
                 }
             }
             
+            // 與附近的飛行者保持距離
+            applyRiderSeparation(session, velocity);
+            
             // 設置玩家速度
             player.setVelocity(velocity);
             
@@ -278,17 +327,37 @@ public class FlightController {
         }
     }
     
+    /**
+     * 與附近飛行者重疊時加上柔性分離推力
+     */
+    private void applyRiderSeparation(FlightSession session, Vector velocity) {
+        FlightSettings settings = plugin.getFlightSettings();
+        if (!settings.isRiderCollisionEnabled() || session.getSpatialEntry() == null) {
+            return;
+        }
+        int contacts = RiderSeparation.computeImpulse(plugin.getFlightScheduler().getRiderIndex(),
+            session.getSpatialEntry(), settings.getRiderCollisionRadius(),
+            settings.getRiderSeparationStrength(), settings.getRiderMaxImpulse(),
+            separationQuery, separationImpulse);
+        if (contacts > 0) {
+            velocity.setX(velocity.getX() + separationImpulse[0]);
+            velocity.setY(velocity.getY() + separationImpulse[1]);
+            velocity.setZ(velocity.getZ() + separationImpulse[2]);
+        }
+    }
+    
     /**
      * 處理 Shift 鍵強制降落邏輯
      */
     private void handleShiftLanding(Player player, FlightState state, boolean isSneaking) {
         // 檢查功能是否啟用
-        if (!plugin.getConfig().getBoolean("flight.shift_landing.enabled", true)) {
+        FlightSettings settings = plugin.getFlightSettings();
+        if (!settings.isShiftLandingEnabled()) {
             return;
         }
         
-        long delay = plugin.getConfig().getLong("flight.shift_landing.delay", 10000);
-        boolean showCountdown = plugin.getConfig().getBoolean("flight.shift_landing.show_countdown", true);
+        long delay = settings.getShiftLandingDelay();
+        boolean showCountdown = settings.isShiftLandingShowCountdown();
         
         if (isSneaking) {
             // 開始或繼續 Shift 降落倒計時
@@ -333,14 +402,15 @@ public class FlightController {
         double speedEnchant = plugin.getEnchantManager().getEnchantEffect("speed", 
             playerData.getEnchantLevel("speed"));
         
-        double targetSpeed = BASE_SPEED + speedEnchant;
-        targetSpeed = Math.min(targetSpeed, MAX_SPEED);
+        FlightSettings settings = plugin.getFlightSettings();
+        double targetSpeed = settings.getBaseSpeed() + speedEnchant;
+        targetSpeed = Math.min(targetSpeed, settings.getMaxSpeed());
         
         double currentSpeed = state.getSpeed();
         if (currentSpeed < targetSpeed) {
-            currentSpeed = Math.min(currentSpeed + ACCELERATION, targetSpeed);
+            currentSpeed = Math.min(currentSpeed + settings.getAcceleration(), targetSpeed);
         } else if (currentSpeed > targetSpeed) {
-            currentSpeed = Math.max(currentSpeed - DECELERATION, targetSpeed);
+            currentSpeed = Math.max(currentSpeed - settings.getDeceleration(), targetSpeed);
         }
         
         state.setSpeed(currentSpeed);
@@ -349,44 +419,65 @@ public class FlightController {
     /**
      * 更新飛行特效
      */
-    private void updateFlightEffects(Player player, FlightState state) {
+    private void updateFlightEffects(FlightSession session) {
         // 飛行軌跡特效
-        if (plugin.getConfig().getBoolean("effects.enable_particles", true)) {
-            Location trailLoc = player.getLocation().add(0, -0.5, 0);
+        if (plugin.getFlightSettings().isParticlesEnabled()) {
+            Location trailLoc = session.getPlayer().getLocation().add(0, -0.5, 0);
             plugin.getEffectManager().playFlightTrailEffect(trailLoc);
         }
         
-        // 附魔特效
-        PlayerData playerData = plugin.getDataManager().getPlayerData(player);
-        for (Map.Entry<String, Integer> entry : playerData.getEnchantLevels().entrySet()) {
-            if (entry.getValue() > 0) {
-                plugin.getEffectManager().playEnchantEffect(player, entry.getKey());
-            }
-        }
+        // 附魔特效依各自的間隔播放
+        enchantEffectScheduler.update(session);
     }
     
     /**
-     * 檢查障礙物
+     * 檢查障礙物：沿視線方向掃描玩家碰撞箱
      */
-    private void checkObstacles(Player player, FlightState state) {
+    private void checkObstacles(FlightSession session, FlightState state, double extraDistance) {
+        Player player = session.getPlayer();
         Location playerLoc = player.getLocation();
         Vector direction = playerLoc.getDirection();
+        VoxelWindow window = session.getCollisionWindow();
+        CollisionStats stats = plugin.getCollisionEngine().getStats();
+        
+        if (plugin.getFlightSettings().isAsyncPrediction()) {
+            // 套用上一個 tick 提交的預測結果，再提交本 tick 的預測
+            CollisionPrediction prediction = session.getCollisionPrediction();
+            if (prediction.poll() && prediction.isBlocked()) {
+                stats.recordObstacleHit();
+                slowDownForObstacle(player, state);
+            }
+            stats.recordPrediction();
+            // 結果晚一個 tick 才套用，多掃描一個 tick 的移動距離作為補償
+            plugin.getCollisionPredictor().submit(prediction, window, playerLoc.getWorld(),
+                playerLoc.getX(), playerLoc.getY(), playerLoc.getZ(),
+                direction.getX(), direction.getY(), direction.getZ(),
+                OBSTACLE_CHECK_DISTANCE + state.getSpeed() + extraDistance,
+                PLAYER_HALF_WIDTH, 0, PLAYER_HEIGHT);
+            return;
+        }
+        
+        window.update(playerLoc.getWorld(), playerLoc.getX(), playerLoc.getY(), playerLoc.getZ());
         
         // 檢查前方障礙物
-        for (int i = 1; i <= OBSTACLE_CHECK_DISTANCE; i++) {
-            Location checkLoc = playerLoc.clone().add(direction.clone().multiply(i));
-            Block block = checkLoc.getBlock();
-            
-            if (block.getType().isSolid()) {
-                // 發現障礙物，減速（但不重複提醒避免洗頻）
-                double newSpeed = Math.max(state.getSpeed() * 0.8, BASE_SPEED * 0.5);
-                if (state.getSpeed() > newSpeed + 0.1) { // 只有當速度真正降低時才提醒
-                    state.setSpeed(newSpeed);
-                    if (state.canSendObstacleWarning()) {
-                        player.sendMessage("§e前方發現障礙物，自動減速！");
-                    }
-                }
-                break;
+        stats.recordSweep();
+        if (window.sweep(playerLoc.getX(), playerLoc.getY(), playerLoc.getZ(),
+                direction.getX(), direction.getY(), direction.getZ(), OBSTACLE_CHECK_DISTANCE + extraDistance,
+                PLAYER_HALF_WIDTH, 0, PLAYER_HEIGHT, session.getCollisionHit())) {
+            stats.recordObstacleHit();
+            slowDownForObstacle(player, state);
+        }
+    }
+    
+    /**
+     * 發現障礙物，減速（但不重複提醒避免洗頻）
+     */
+    private void slowDownForObstacle(Player player, FlightState state) {
+        double newSpeed = Math.max(state.getSpeed() * 0.8, plugin.getFlightSettings().getBaseSpeed() * 0.5);
+        if (state.getSpeed() > newSpeed + 0.1) { // 只有當速度真正降低時才提醒
+            state.setSpeed(newSpeed);
+            if (state.canSendObstacleWarning()) {
+                player.sendMessage("§e前方發現障礙物，自動減速！");
             }
         }
     }
@@ -402,7 +493,7 @@ public class FlightController {
             Location checkLoc = playerLoc.clone().subtract(0, y, 0);
             Block block = checkLoc.getBlock();
             
-            if (block.getType().isSolid()) {
+            if (BlockClassifier.isLandable(block.getType())) {
                 // 找到安全降落點
                 Location safeLoc = checkLoc.clone().add(0, 1, 0);
                 player.teleport(safeLoc);
@@ -465,7 +556,7 @@ public class FlightController {
     }
     
     private void setCooldown(UUID uuid) {
-        cooldowns.put(uuid, System.currentTimeMillis() + COOLDOWN_TIME);
+        cooldowns.put(uuid, System.currentTimeMillis() + plugin.getFlightSettings().getCooldownTime());
     }
     
     /**
@@ -475,6 +566,13 @@ public class FlightController {
         return activeFlights.containsKey(uuid);
     }
     
+    /**
+     * 獲取目前飛行中的玩家數量
+     */
+    public int getActiveFlightCount() {
+        return activeFlights.size();
+    }
+    
     public FlightSession getFlightSession(UUID uuid) {
         return activeFlights.get(uuid);
     }
@@ -504,9 +602,6 @@ public class FlightController {
         }
         flightStates.remove(uuid);
         cooldowns.remove(uuid);
-        
-        // 從調度器移除
-        plugin.getFlightScheduler().removeActivePlayer(uuid);
     }
     
     /**
@@ -517,60 +612,56 @@ public class FlightController {
     }
     
     /**
-     * 執行強制降落
+     * 執行強制降落：開始搜索安全降落點，搜索可能跨越多個 tick
      */
     private void performForceLanding(Player player) {
-        // 找到安全降落點
-        Location safeLandingLoc = findSafeLandingLocation(player);
-        
-        if (safeLandingLoc != null) {
-            // 平滑降落到安全位置
-            player.teleport(safeLandingLoc);
-            player.sendMessage("§a已安全降落到地面");
-        } else {
-            // 如果找不到安全位置，降落到當前位置下方的安全地點
-            Location playerLoc = player.getLocation();
-            for (int y = (int)playerLoc.getY(); y >= 0; y--) {
-                Location checkLoc = playerLoc.clone();
-                checkLoc.setY(y);
-                if (checkLoc.getBlock().getType().isSolid()) {
-                    checkLoc.setY(y + 1); // 在固體方塊上方
-                    player.teleport(checkLoc);
-                    player.sendMessage("§a已降落到安全位置");
-                    break;
-                }
-            }
+        FlightSession session = activeFlights.get(player.getUniqueId());
+        if (session == null) {
+            return;
         }
         
-        // 停止飛行
-        stopFlight(player);
-        
-        // 播放降落特效
-        plugin.getEffectManager().playFlightStopEffect(player);
+        if (session.getLandingSearch() == null) {
+            FlightSettings settings = plugin.getFlightSettings();
+            session.setLandingSearch(plugin.getCollisionEngine().beginLandingSearch(
+                player.getLocation(), settings.getLandingSearchRadius(), settings.getLandingMaxDepth()));
+        }
+        continueForceLanding(session);
     }
     
     /**
-     * 找到安全降落位置
+     * 以每 tick 的探測預算推進降落搜索，找到後傳送並停止飛行；
+     * 範圍內沒有降落點時，再以同樣的預算搜索正下方直到世界底部
      */
-    private Location findSafeLandingLocation(Player player) {
-        Location playerLoc = player.getLocation();
+    private void continueForceLanding(FlightSession session) {
+        Player player = session.getPlayer();
+        LandingSearch search = session.getLandingSearch();
         
-        // 向下搜索安全降落點
-        for (int y = (int)playerLoc.getY(); y >= 0; y--) {
-            Location checkLoc = playerLoc.clone();
-            checkLoc.setY(y);
-            
-            if (checkLoc.getBlock().getType().isSolid()) {
-                // 找到固體方塊，檢查上方是否有足夠空間
-                Location landingLoc = checkLoc.clone().add(0, 1, 0);
-                if (!landingLoc.getBlock().getType().isSolid() && 
-                    !landingLoc.clone().add(0, 1, 0).getBlock().getType().isSolid()) {
-                    return landingLoc;
-                }
-            }
+        if (!search.step(plugin.getFlightSettings().getLandingProbesPerTick())) {
+            // 搜索期間懸停
+            player.setVelocity(HOVER_VELOCITY);
+            return;
         }
+        session.setLandingSearch(null);
         
-        return null;
+        if (search.isFound()) {
+            // 平滑降落到安全位置
+            player.teleport(search.toLocation(player.getLocation()));
+            player.sendMessage(session.isLandingFallback() ? "§a已降落到安全位置" : "§a已安全降落到地面");
+            applyLandingShield(player);
+        } else if (!session.isLandingFallback()) {
+            // 範圍內沒有安全降落點，改為搜索正下方的整列，露天時只需一次地表快取查詢
+            Location from = player.getLocation();
+            session.setLandingFallback(true);
+            session.setLandingSearch(plugin.getCollisionEngine().beginLandingSearch(
+                from, 0, from.getBlockY() - from.getWorld().getMinHeight()));
+            player.setVelocity(HOVER_VELOCITY);
+            return;
+        } else if (!performSafeLanding(player)) {
+            // 正下方也沒有地面（例如虛空上方）時仍結束飛行並給予緩降，避免下一個 tick 重新搜索而一直懸停
+            player.addPotionEffect(new PotionEffect(PotionEffectType.SLOW_FALLING, SLOW_FALL_TICKS, 0));
+            player.sendMessage("§e找不到降落點，已給予緩降效果");
+        }
+        endFlight(player);
     }
     
     /**
@@ -4,24 +4,43 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.bukkit.Location;
-import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.core.collision.CollisionPrediction;
+import com.bird.flysword.core.collision.LandingSearch;
+import com.bird.flysword.core.collision.VoxelHit;
+import com.bird.flysword.core.collision.VoxelWindow;
+import com.bird.flysword.core.render.SwordDisplay;
+import com.bird.flysword.core.spatial.SpatialHash;
 import com.bird.flysword.data.PlayerData;
+import com.bird.flysword.utils.SwordMathKernel;
 
 public class FlightSession {
     
     private final Flysword plugin;
     private final Player player;
     private final PlayerData playerData;
-    private ArmorStand swordEntity;
+    private SwordDisplay swordDisplay;
+    private final Location swordLocation = new Location(null, 0, 0, 0); // 渲染階段重用
+    private final double[] swordTransform = new double[SwordMathKernel.OUTPUT_SIZE];
+    private int renderInterval = 1; // 由 SwordLodPolicy 設定，0 表示暫停更新
+    private int renderCountdown;
+    private int collisionCountdown;
+    private SpatialHash.Entry<FlightSession> spatialEntry; // 在飛行者空間索引中的句柄
     private final Map<String, Double> enchantEffects;
     private boolean isActive;
-    private int taskId;
+    private FlightState state;
+    private int engineSlot = -1; // 在飛行引擎陣列中的位置
+    private int tickCounter;
+    private final VoxelWindow collisionWindow; // 周圍區段的碰撞快照，跨越區段時才更新
+    private final VoxelHit collisionHit;
+    private final CollisionPrediction collisionPrediction;
+    private LandingSearch landingSearch; // 進行中的強制降落搜索
+    private boolean landingFallback; // 降落搜索已改為搜索正下方直到世界底部
+    private final EnchantEffectTimers enchantEffectTimers = new EnchantEffectTimers();
     
     public FlightSession(Flysword plugin, Player player) {
         this.plugin = plugin;
@@ -29,10 +48,13 @@ public class FlightSession {
         this.playerData = plugin.getDataManager().getPlayerData(player);
         this.enchantEffects = new HashMap<>();
         this.isActive = true;
+        this.collisionWindow = plugin.getCollisionEngine().createWindow();
+        this.collisionHit = new VoxelHit();
+        this.collisionPrediction = plugin.getCollisionPredictor().createPrediction();
         
         loadEnchantEffects();
         spawnSwordEntity();
-        startUpdateTask();
+        plugin.getFlightScheduler().register(this);
     }
     
     private void loadEnchantEffects() {
@@ -47,29 +69,11 @@ public class FlightSession {
     private void spawnSwordEntity() {
         Location playerLoc = player.getLocation();
         
-        // 從配置文件讀取劍的位置偏移
-        double offsetX = plugin.getConfig().getDouble("flight.sword_offset.x", 0.0);
-        double offsetY = plugin.getConfig().getDouble("flight.sword_offset.y", -2.0);
-        double offsetZ = plugin.getConfig().getDouble("flight.sword_offset.z", 0.0);
-        
-        Location swordLoc = playerLoc.clone().add(offsetX, offsetY, offsetZ);
-        
-        swordEntity = player.getWorld().spawn(swordLoc, ArmorStand.class);
-        
-        // 關鍵：設置盔甲座為完全固定狀態
-        swordEntity.setVisible(false);          // 隱藏盔甲座本體
-        swordEntity.setGravity(false);          // 禁用重力
-        swordEntity.setInvulnerable(true);      // 無敵狀態
-        swordEntity.setMarker(true);            // 標記狀態（無碰撞箱）
-        swordEntity.setSmall(true);             // 小尺寸
-        swordEntity.setBasePlate(false);        // 隱藏底盤
-        swordEntity.setArms(false);             // 隱藏手臂（頭盔模式不需要）
-        swordEntity.setCanPickupItems(false);   // 禁止拾取物品
-        swordEntity.setSilent(true);            // 靜音
-        swordEntity.setPersistent(false);       // 不持久化
-        
-        // 設置AI為空，防止移動
-        swordEntity.setAI(false);
+        // 從配置快照讀取劍的位置偏移
+        FlightSettings settings = plugin.getFlightSettings();
+        Location swordLoc = playerLoc.clone().add(
+            settings.getSwordOffsetX(), settings.getSwordOffsetY(), settings.getSwordOffsetZ());
+        swordLoc.setPitch(0);
         
         // 設置飛劍物品
         String selectedSkin = playerData.getSelectedSkin();
@@ -91,107 +95,76 @@ public class FlightSession {
             }
         }
         
-        // 設置到頭盔位置而不是主手
-        if (swordEntity.getEquipment() != null) {
-            swordEntity.getEquipment().setHelmet(swordItem);
-        }
-        
-        // 從配置讀取角度設定
-        double rotX = Math.toRadians(plugin.getConfig().getDouble("flight.sword_rotation.x", 0));
-        double rotY = Math.toRadians(plugin.getConfig().getDouble("flight.sword_rotation.y", 0));
-        double rotZ = Math.toRadians(plugin.getConfig().getDouble("flight.sword_rotation.z", 0));
-        
-        // 設置頭部姿勢來控制飛劍角度
-        swordEntity.setHeadPose(new org.bukkit.util.EulerAngle(rotX, rotY, rotZ));
+        // 由渲染器生成飛劍，角度取自配置
+        swordDisplay = plugin.getSwordRenderer().spawn(player, swordItem, swordLoc,
+            settings.getSwordRotationX(), settings.getSwordRotationY(), settings.getSwordRotationZ());
         
-        plugin.getLogger().info("為玩家 " + player.getName() + " 生成飛劍實體，皮膚: " + selectedSkin + ", 盔甲座已固定在玩家腳下");
+        plugin.getLogger().info("為玩家 " + player.getName() + " 生成飛劍，皮膚: " + selectedSkin);
     }
     
-    private void startUpdateTask() {
-        taskId = new BukkitRunnable() {
-            private int tickCounter = 0;
-            
-            @Override
-            public void run() {
-                if (!isActive || !player.isOnline()) {
-                    // 通過 FlightController 正確停止飛行
-                    plugin.getFlightController().stopFlight(player);
-                    return;
-                }
-                
-                // 每 tick 更新位置和特效（平滑）
-                updateSwordPosition();
-                applyFlightEffects();
-                
-                // 每秒（20 tick）消耗一次耐久度
-                tickCounter++;
-                if (tickCounter >= 20) {
-                    consumeDurability();
-                    tickCounter = 0;
-                }
-            }
-        }.runTaskTimer(plugin, 1L, 1L).getTaskId();
+    /**
+     * 耐久度階段：每 tick 處理能量回復，每秒（20 tick）消耗一次耐久度並刷新附魔效果
+     */
+    public void tickDurability() {
+        double regenEffect = enchantEffects.getOrDefault("regen", 0.0);
+        if (regenEffect > 0) {
+            repairSword(regenEffect);
+        }
+        
+        tickCounter++;
+        if (tickCounter >= 20) {
+            tickCounter = 0;
+            loadEnchantEffects();
+            consumeDurability();
+        }
     }
     
-    private void updateSwordPosition() {
-        if (swordEntity == null || swordEntity.isDead()) {
+    /**
+     * 渲染階段：更新飛劍位置與角度
+     */
+    public void updateSwordPosition() {
+        if (swordDisplay == null || !swordDisplay.isValid()) {
             return;
         }
         
-        Location playerLoc = player.getLocation();
-        if (playerLoc == null) {
+        // 細節層級：觀看者較遠時降低更新頻率，無人觀看時暫停
+        if (renderInterval == SwordLodPolicy.SUSPENDED || --renderCountdown > 0) {
+            plugin.getSwordUpdateStats().recordLodSkipped();
             return;
         }
+        renderCountdown = renderInterval;
         
-        // 檢查是否啟用智能計算
-        boolean smartCalculationEnabled = plugin.getConfig().getBoolean("flight.smart_calculation.enabled", false);
-        
-        Vector swordOffset;
-        Vector swordRotation;
+        // 重用同一個 Location，變化是否足以送出由渲染器的門檻判斷
+        Location targetLoc = player.getLocation(swordLocation);
+        if (targetLoc == null) {
+            return;
+        }
+        float pitch = targetLoc.getPitch();
+        targetLoc.setPitch(0); // 朝向與玩家一致但不跟隨俯仰
         
-        if (smartCalculationEnabled) {
-            // 使用智能數學計算
-            com.bird.flysword.utils.SwordMathUtils.SwordTransform transform = 
-                com.bird.flysword.utils.SwordMathUtils.calculateOptimalSwordTransform(player);
-            
-            swordOffset = transform.position;
-            swordRotation = transform.rotation;
+        FlightSettings settings = plugin.getFlightSettings();
+        if (settings.isSmartCalculationEnabled()) {
+            // 使用智能數學計算，結果寫入會話持有的緩衝區
+            Vector velocity = player.getVelocity();
+            SwordMathKernel.computeTransform(targetLoc.getYaw(), pitch,
+                velocity.getX(), velocity.getY(), velocity.getZ(), swordTransform);
             
+            targetLoc.add(swordTransform[SwordMathKernel.POSITION_X],
+                swordTransform[SwordMathKernel.POSITION_Y], swordTransform[SwordMathKernel.POSITION_Z]);
+            swordDisplay.update(targetLoc, swordTransform[SwordMathKernel.ROTATION_X],
+                swordTransform[SwordMathKernel.ROTATION_Y], swordTransform[SwordMathKernel.ROTATION_Z]);
         } else {
             // 使用配置檔中的固定值
-            double offsetX = plugin.getConfig().getDouble("flight.sword_offset.x", 0.0);
-            double offsetY = plugin.getConfig().getDouble("flight.sword_offset.y", -2.0);
-            double offsetZ = plugin.getConfig().getDouble("flight.sword_offset.z", 0.0);
-            swordOffset = new org.bukkit.util.Vector(offsetX, offsetY, offsetZ);
-            
-            double rotX = plugin.getConfig().getDouble("flight.sword_rotation.x", 0);
-            double rotY = plugin.getConfig().getDouble("flight.sword_rotation.y", 0);
-            double rotZ = plugin.getConfig().getDouble("flight.sword_rotation.z", 0);
-            swordRotation = new org.bukkit.util.Vector(rotX, rotY, rotZ);
+            targetLoc.add(settings.getSwordOffsetX(), settings.getSwordOffsetY(), settings.getSwordOffsetZ());
+            swordDisplay.update(targetLoc,
+                settings.getSwordRotationX(), settings.getSwordRotationY(), settings.getSwordRotationZ());
         }
-        
-        // 計算目標位置
-        Location targetLoc = playerLoc.clone().add(swordOffset);
-        
-        // 強制傳送到目標位置，不使用任何平滑移動
-        swordEntity.teleport(targetLoc);
-        
-        // 確保盔甲座保持固定狀態
-        swordEntity.setGravity(false);
-        swordEntity.setVelocity(new org.bukkit.util.Vector(0, 0, 0));
-        
-        // 保持盔甲架的朝向與玩家一致，但不影響飛劍角度
-        swordEntity.setRotation(playerLoc.getYaw(), 0);
-        
-        // 應用計算出的飛劍角度
-        double rotXRad = Math.toRadians(swordRotation.getX());
-        double rotYRad = Math.toRadians(swordRotation.getY());
-        double rotZRad = Math.toRadians(swordRotation.getZ());
-        
-        swordEntity.setHeadPose(new org.bukkit.util.EulerAngle(rotXRad, rotYRad, rotZRad));
     }
     
-    private void applyFlightEffects() {
+    /**
+     * 物理階段：套用附魔對飛行的影響
+     */
+    public void applyFlightEffects() {
         // 飛行加速效果
         double speedEffect = enchantEffects.getOrDefault("speed", 0.0);
         if (speedEffect > 0) {
@@ -208,12 +181,6 @@ public class FlightSession {
             loc.setPitch((float)(loc.getPitch() * (1.0 - stabilityEffect)));
             player.teleport(loc);
         }
-        
-        // 能量回復效果（修復物品耐久度）
-        double regenEffect = enchantEffects.getOrDefault("regen", 0.0);
-        if (regenEffect > 0) {
-            repairSword(regenEffect);
-        }
     }
     
     private void consumeDurability() {
@@ -267,33 +234,107 @@ public class FlightSession {
     public void stop() {
         isActive = false;
         
-        if (taskId != -1) {
-            plugin.getServer().getScheduler().cancelTask(taskId);
-            taskId = -1;
-        }
+        plugin.getFlightScheduler().unregister(this);
         
-        if (swordEntity != null && !swordEntity.isDead()) {
-            swordEntity.remove();
-            swordEntity = null;
+        if (swordDisplay != null) {
+            swordDisplay.remove();
+            swordDisplay = null;
         }
         
         playerData.setFlying(false);
     }
     
-    public void update() {
-        // 更新附魔效果
-        loadEnchantEffects();
-    }
-    
     public boolean isActive() {
         return isActive;
     }
     
+    public FlightState getState() {
+        return state;
+    }
+    
+    public void setState(FlightState state) {
+        this.state = state;
+    }
+    
+    public int getEngineSlot() {
+        return engineSlot;
+    }
+    
+    public VoxelWindow getCollisionWindow() {
+        return collisionWindow;
+    }
+    
+    public VoxelHit getCollisionHit() {
+        return collisionHit;
+    }
+    
+    public CollisionPrediction getCollisionPrediction() {
+        return collisionPrediction;
+    }
+    
+    public LandingSearch getLandingSearch() {
+        return landingSearch;
+    }
+    
+    public void setLandingSearch(LandingSearch landingSearch) {
+        this.landingSearch = landingSearch;
+    }
+    
+    public boolean isLandingFallback() {
+        return landingFallback;
+    }
+    
+    public void setLandingFallback(boolean landingFallback) {
+        this.landingFallback = landingFallback;
+    }
+    
+    /**
+     * 障礙物檢查是否輪到此 tick，間隔為 1 時每 tick 檢查
+     */
+    public boolean shouldCheckCollision(int interval) {
+        if (--collisionCountdown > 0) {
+            return false;
+        }
+        collisionCountdown = interval;
+        return true;
+    }
+    
+    public int getRenderInterval() {
+        return renderInterval;
+    }
+    
+    public void setRenderInterval(int renderInterval) {
+        if (renderInterval != this.renderInterval) {
+            this.renderInterval = renderInterval;
+            renderCountdown = Math.min(renderCountdown, renderInterval);
+        }
+    }
+    
+    public SpatialHash.Entry<FlightSession> getSpatialEntry() {
+        return spatialEntry;
+    }
+    
+    public void setSpatialEntry(SpatialHash.Entry<FlightSession> spatialEntry) {
+        this.spatialEntry = spatialEntry;
+    }
+    
+    public void setEngineSlot(int engineSlot) {
+        this.engineSlot = engineSlot;
+    }
+    
     public Player getPlayer() {
         return player;
     }
     
-    public ArmorStand getSwordEntity() {
-        return swordEntity;
+    public PlayerData getPlayerData() {
+        return playerData;
+    }
+    
+    EnchantEffectTimers getEnchantEffectTimers() {
+        return enchantEffectTimers;
+    }
+    
+    public SwordDisplay getSwordDisplay() {
+        return swordDisplay;
     }
 }
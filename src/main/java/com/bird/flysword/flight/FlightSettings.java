@@ -0,0 +1,307 @@
+package com.bird.flysword.flight;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import com.bird.flysword.data.EffectQuality;
+
+/**
+ * 飛行相關配置的不可變快照
+ * 於插件啟動、/flysword reload 及指令修改配置後重新建立並整體替換，
+ * tick 中的程式碼只讀取欄位，不再以字串路徑查詢配置
+ */
+public final class FlightSettings {
+
+    // 速度
+    private final double baseSpeed;
+    private final double maxSpeed;
+    private final double acceleration;
+    private final double deceleration;
+
+    // 高度限制
+    private final double maxHeight;
+    private final double minHeight;
+
+    // Shift 強制降落
+    private final boolean shiftLandingEnabled;
+    private final long shiftLandingDelay;
+    private final boolean shiftLandingShowCountdown;
+
+    // 強制降落搜索
+    private final int landingSearchRadius;
+    private final int landingProbesPerTick;
+    private final int landingMaxDepth;
+
+    // 飛劍位置與角度（角度以度為單位）
+    private final double swordOffsetX;
+    private final double swordOffsetY;
+    private final double swordOffsetZ;
+    private final double swordRotationX;
+    private final double swordRotationY;
+    private final double swordRotationZ;
+    private final boolean smartCalculationEnabled;
+
+    // 飛劍渲染細節層級（間隔以 tick 為單位，0 表示不因此更新）
+    private final boolean lodEnabled;
+    private final double lodNearRadius;
+    private final double lodMidRadius;
+    private final double lodFarRadius;
+    private final int lodMidInterval;
+    private final int lodFarInterval;
+    private final int lodSelfInterval;
+
+    // 飛行者之間的碰撞
+    private final boolean riderCollisionEnabled;
+    private final double riderCollisionRadius;
+    private final double riderSeparationStrength;
+    private final double riderMaxImpulse;
+
+    // 特效觀看者剔除
+    private final double effectViewDistance;
+    private final double effectFov;
+    private final double effectNearRadius;
+    private final double particleDensity;
+    private final EffectQuality maxEffectQuality;
+
+    // 其他
+    private final boolean particlesEnabled;
+    private final boolean asyncPrediction;
+    private final long cooldownTime;
+    private final Set<String> disabledWorlds;
+    private final boolean performanceMonitoring;
+    private final boolean profilerEnabled;
+
+    private FlightSettings(FileConfiguration config) {
+        this.baseSpeed = config.getDouble("flight.speed.base_speed", 0.4);
+        this.maxSpeed = config.getDouble("flight.speed.max_speed", 1.0);
+        this.acceleration = config.getDouble("flight.speed.acceleration", 0.05);
+        this.deceleration = config.getDouble("flight.speed.deceleration", 0.03);
+
+        this.maxHeight = config.getDouble("flight.max_height", 256);
+        this.minHeight = config.getDouble("flight.min_height", 0);
+
+        this.shiftLandingEnabled = config.getBoolean("flight.shift_landing.enabled", true);
+        this.shiftLandingDelay = config.getLong("flight.shift_landing.delay", 10000);
+        this.shiftLandingShowCountdown = config.getBoolean("flight.shift_landing.show_countdown", true);
+
+        this.landingSearchRadius = config.getInt("flight.landing.search_radius", 3);
+        this.landingProbesPerTick = Math.max(1, config.getInt("flight.landing.probes_per_tick", 64));
+        this.landingMaxDepth = config.getInt("flight.landing.max_depth", 64);
+
+        this.swordOffsetX = config.getDouble("flight.sword_offset.x", 0.0);
+        this.swordOffsetY = config.getDouble("flight.sword_offset.y", -2.0);
+        this.swordOffsetZ = config.getDouble("flight.sword_offset.z", 0.0);
+        this.swordRotationX = config.getDouble("flight.sword_rotation.x", 0);
+        this.swordRotationY = config.getDouble("flight.sword_rotation.y", 0);
+        this.swordRotationZ = config.getDouble("flight.sword_rotation.z", 0);
+        this.smartCalculationEnabled = config.getBoolean("flight.smart_calculation.enabled", false);
+
+        this.lodEnabled = config.getBoolean("flight.renderer.lod.enabled", true);
+        this.lodNearRadius = config.getDouble("flight.renderer.lod.near_radius", 16.0);
+        this.lodMidRadius = config.getDouble("flight.renderer.lod.mid_radius", 32.0);
+        this.lodFarRadius = config.getDouble("flight.renderer.view_distance", 48.0);
+        this.lodMidInterval = Math.max(1, config.getInt("flight.renderer.lod.mid_interval", 3));
+        this.lodFarInterval = Math.max(1, config.getInt("flight.renderer.lod.far_interval", 10));
+        this.lodSelfInterval = Math.max(0, config.getInt("flight.renderer.lod.self_interval", 2));
+
+        this.riderCollisionEnabled = config.getBoolean("collision.riders.enabled", true);
+        this.riderCollisionRadius = Math.max(0.1, config.getDouble("collision.riders.radius", 1.2));
+        this.riderSeparationStrength = config.getDouble("collision.riders.strength", 0.15);
+        this.riderMaxImpulse = config.getDouble("collision.riders.max_impulse", 0.4);
+
+        this.effectViewDistance = Math.max(1.0, config.getDouble("effects.culling.view_distance", 32.0));
+        this.effectFov = config.getDouble("effects.culling.fov", 120.0);
+        this.effectNearRadius = Math.max(0.0, config.getDouble("effects.culling.near_radius", 6.0));
+        // 密度 5 為原始粒子數量
+        this.particleDensity = Math.max(1, Math.min(10, config.getInt("effects.particle_density", 5))) / 5.0;
+        EffectQuality maxQuality = EffectQuality.fromId(config.getString("effects.max_quality", "ultra"));
+        this.maxEffectQuality = maxQuality != null ? maxQuality : EffectQuality.ULTRA;
+
+        this.particlesEnabled = config.getBoolean("effects.enable_particles", true);
+        this.asyncPrediction = config.getBoolean("collision.async_prediction.enabled", false);
+        this.cooldownTime = config.getLong("flight.cooldown_time", 2000);
+        this.disabledWorlds = Collections.unmodifiableSet(new HashSet<>(config.getStringList("flight.disabled_worlds")));
+        this.performanceMonitoring = config.getBoolean("debug.performance_monitoring", false);
+        this.profilerEnabled = config.getBoolean("debug.profiler.enabled", false);
+    }
+
+    public static FlightSettings fromConfig(FileConfiguration config) {
+        return new FlightSettings(config);
+    }
+
+    public double getBaseSpeed() {
+        return baseSpeed;
+    }
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    public double getDeceleration() {
+        return deceleration;
+    }
+
+    public double getMaxHeight() {
+        return maxHeight;
+    }
+
+    public double getMinHeight() {
+        return minHeight;
+    }
+
+    public boolean isShiftLandingEnabled() {
+        return shiftLandingEnabled;
+    }
+
+    public long getShiftLandingDelay() {
+        return shiftLandingDelay;
+    }
+
+    public boolean isShiftLandingShowCountdown() {
+        return shiftLandingShowCountdown;
+    }
+
+    public int getLandingSearchRadius() {
+        return landingSearchRadius;
+    }
+
+    public int getLandingProbesPerTick() {
+        return landingProbesPerTick;
+    }
+
+    public int getLandingMaxDepth() {
+        return landingMaxDepth;
+    }
+
+    public double getSwordOffsetX() {
+        return swordOffsetX;
+    }
+
+    public double getSwordOffsetY() {
+        return swordOffsetY;
+    }
+
+    public double getSwordOffsetZ() {
+        return swordOffsetZ;
+    }
+
+    public double getSwordRotationX() {
+        return swordRotationX;
+    }
+
+    public double getSwordRotationY() {
+        return swordRotationY;
+    }
+
+    public double getSwordRotationZ() {
+        return swordRotationZ;
+    }
+
+    public boolean isSmartCalculationEnabled() {
+        return smartCalculationEnabled;
+    }
+
+    public boolean isLodEnabled() {
+        return lodEnabled;
+    }
+
+    public double getLodNearRadius() {
+        return lodNearRadius;
+    }
+
+    public double getLodMidRadius() {
+        return lodMidRadius;
+    }
+
+    public double getLodFarRadius() {
+        return lodFarRadius;
+    }
+
+    public int getLodMidInterval() {
+        return lodMidInterval;
+    }
+
+    public int getLodFarInterval() {
+        return lodFarInterval;
+    }
+
+    public int getLodSelfInterval() {
+        return lodSelfInterval;
+    }
+
+    public boolean isRiderCollisionEnabled() {
+        return riderCollisionEnabled;
+    }
+
+    public double getRiderCollisionRadius() {
+        return riderCollisionRadius;
+    }
+
+    public double getRiderSeparationStrength() {
+        return riderSeparationStrength;
+    }
+
+    public double getRiderMaxImpulse() {
+        return riderMaxImpulse;
+    }
+
+    public double getEffectViewDistance() {
+        return effectViewDistance;
+    }
+
+    public double getEffectFov() {
+        return effectFov;
+    }
+
+    public double getEffectNearRadius() {
+        return effectNearRadius;
+    }
+
+    /**
+     * 全域粒子數量倍率
+     */
+    public double getParticleDensity() {
+        return particleDensity;
+    }
+
+    /**
+     * 伺服器允許的最高特效畫質，玩家設定高於此值時以此值計算
+     */
+    public EffectQuality getMaxEffectQuality() {
+        return maxEffectQuality;
+    }
+
+    public boolean isParticlesEnabled() {
+        return particlesEnabled;
+    }
+
+    public boolean isAsyncPrediction() {
+        return asyncPrediction;
+    }
+
+    public long getCooldownTime() {
+        return cooldownTime;
+    }
+
+    public Set<String> getDisabledWorlds() {
+        return disabledWorlds;
+    }
+
+    public boolean isPerformanceMonitoring() {
+        return performanceMonitoring;
+    }
+
+    /**
+     * 啟動時是否開啟飛行引擎取樣，之後可用 /flysword perf 切換
+     */
+    public boolean isProfilerEnabled() {
+        return profilerEnabled;
+    }
+}
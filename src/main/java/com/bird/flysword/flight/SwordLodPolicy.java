@@ -0,0 +1,105 @@
+package com.bird.flysword.flight;
+
+import java.util.Arrays;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import com.bird.flysword.Flysword;
+import com.bird.flysword.core.performance.PerformanceOptimizer;
+import com.bird.flysword.core.spatial.SpatialHash;
+import com.bird.flysword.core.spatial.SpatialQuery;
+
+/**
+ * 飛劍渲染的細節層級
+ * 依最近觀看者的距離決定每位飛行者的飛劍多久更新一次：
+ * 近距離每 tick 更新，中遠距離逐步降低頻率，沒有任何玩家看得到時完全暫停
+ *
+ * 觀看者只計算其他玩家，且必須能看見飛行者（隱身的飛行者不會被計入），
+ * 飛行者本人看自己的飛劍則以 self_interval 計算
+ *
+ * 性能調節降級時，近距離與中距離範圍依比例縮小，間隔依倍數延長
+ */
+public class SwordLodPolicy {
+
+    public static final int SUSPENDED = 0;
+
+    private final Flysword plugin;
+    private final SpatialQuery<FlightSession> query = new SpatialQuery<>();
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private double[] nearestSquared = new double[16];
+
+    public SwordLodPolicy(Flysword plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 重新計算所有會話的渲染間隔，陣列索引需與會話的引擎位置一致
+     */
+    public void refresh(FlightSession[] sessions, int size, SpatialHash<FlightSession> riderIndex) {
+        FlightSettings settings = plugin.getFlightSettings();
+        if (!settings.isLodEnabled()) {
+            for (int i = 0; i < size; i++) {
+                sessions[i].setRenderInterval(1);
+            }
+            return;
+        }
+
+        if (nearestSquared.length < size) {
+            nearestSquared = new double[Math.max(size, nearestSquared.length * 2)];
+        }
+        Arrays.fill(nearestSquared, 0, size, Double.MAX_VALUE);
+        findNearestViewers(riderIndex, settings.getLodFarRadius());
+
+        PerformanceOptimizer governor = plugin.getPerformanceOptimizer();
+        double radiusScale = governor.getLodRadiusScale();
+        int intervalScale = governor.getLodIntervalScale();
+        double nearRadius = settings.getLodNearRadius() * radiusScale;
+        double midRadius = settings.getLodMidRadius() * radiusScale;
+        double near = nearRadius * nearRadius;
+        double mid = midRadius * midRadius;
+        double far = settings.getLodFarRadius() * settings.getLodFarRadius();
+        for (int i = 0; i < size; i++) {
+            double distance = nearestSquared[i];
+            int interval;
+            if (distance <= near) {
+                interval = intervalScale;
+            } else if (distance <= mid) {
+                interval = settings.getLodMidInterval() * intervalScale;
+            } else if (distance <= far) {
+                interval = settings.getLodFarInterval() * intervalScale;
+            } else {
+                interval = SUSPENDED;
+            }
+
+            int self = settings.getLodSelfInterval() * intervalScale;
+            if (self != SUSPENDED && (interval == SUSPENDED || self < interval)) {
+                interval = self;
+            }
+            sessions[i].setRenderInterval(interval);
+        }
+    }
+
+    /**
+     * 從每位線上玩家查詢附近的飛行者，記錄各飛行者最近觀看者的距離
+     */
+    private void findNearestViewers(SpatialHash<FlightSession> riderIndex, double radius) {
+        for (Player viewer : plugin.getServer().getOnlinePlayers()) {
+            Location location = viewer.getLocation(scratch);
+            int found = riderIndex.queryRadius(location.getWorld(),
+                location.getX(), location.getY(), location.getZ(), radius, query);
+            for (int i = 0; i < found; i++) {
+                FlightSession session = query.get(i);
+                Player rider = session.getPlayer();
+                if (rider == viewer || !viewer.canSee(rider)) {
+                    continue;
+                }
+                int slot = session.getEngineSlot();
+                double distance = query.getDistanceSquared(i);
+                if (distance < nearestSquared[slot]) {
+                    nearestSquared[slot] = distance;
+                }
+            }
+        }
+    }
+}
@@ -2,90 +2,588 @@ package com.bird.flysword.managers;
 
 import com.bird.flysword.Flysword;
 import com.bird.flysword.data.PlayerData;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import com.bird.flysword.data.storage.BinaryPlayerDataStorage;
+import com.bird.flysword.data.storage.PlayerDataMigrator;
+import com.bird.flysword.data.storage.PlayerDataStorage;
+import com.bird.flysword.data.storage.SqlitePlayerDataStorage;
+import com.bird.flysword.data.storage.YamlPlayerDataStorage;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class DataManager {
-    
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final long LOAD_TIMEOUT_SECONDS = 10;
+    private static final long EVICTION_INTERVAL_TICKS = 600; // 每30秒檢查一次快取
+    private static final long LOAD_RETRY_TICKS = 100; // 背景載入失敗後5秒再重試
+    private static final long SAVE_RETRY_BASE_MILLIS = 1000L; // 寫入失敗後的重試間隔，連續失敗時加倍
+    private static final long SAVE_RETRY_MAX_MILLIS = 60_000L;
+
     private final Flysword plugin;
     private final Map<UUID, PlayerData> playerDataMap;
+    // 快取未命中時回傳的暫時數據，背景載入完成前使用，永遠不會寫入儲存後端
+    private final Map<UUID, PlayerData> placeholders;
+    private final Set<UUID> pendingLoads;
     private final File dataFolder;
-    
+    private final YamlPlayerDataStorage yamlStorage;
+    private final PlayerDataStorage storage;
+    // 遷移未完成時，新後端沒有的玩家改讀舊的 YAML 數據（在 IO 線程讀取）
+    private volatile boolean legacyFallback;
+
+    // 延遲寫入：標記為髒的玩家會在下一次刷新時批量寫入
+    private final Set<UUID> dirtyPlayers;
+    private final ExecutorService ioExecutor;
+    private int flushTaskId = -1;
+    // 已交給 IO 線程但尚未確認寫入的玩家（主線程），寫入失敗時重新標記為髒，確認前不會被移出快取
+    private final Map<UUID, Integer> writesInFlight;
+    private final AtomicInteger consecutiveSaveFailures = new AtomicInteger();
+    private long saveRetryAt; // 寫入失敗後，定期刷新暫停到此時間（毫秒）
+
+    // 寫入統計：排隊與刷新只在主線程累加，寫出結果由 IO 線程累加
+    private long savesQueued;
+    private long savesFlushed;
+    private final AtomicLong savesWritten = new AtomicLong();
+    private final AtomicLong saveFailures = new AtomicLong();
+
+    // 離線玩家的快取：記錄離線時間，逾時或超出上限後移出記憶體
+    private final Map<UUID, Long> offlineSince;
+    private int evictionTaskId = -1;
+
     public DataManager(Flysword plugin) {
         this.plugin = plugin;
-        this.playerDataMap = new HashMap<>();
+        this.playerDataMap = new ConcurrentHashMap<>();
+        this.placeholders = new ConcurrentHashMap<>();
+        this.pendingLoads = ConcurrentHashMap.newKeySet();
+        this.dirtyPlayers = new LinkedHashSet<>();
+        this.writesInFlight = new HashMap<>();
+        this.offlineSince = new LinkedHashMap<>();
+        this.ioExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "FlySword-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
         if (!dataFolder.exists()) {
             dataFolder.mkdirs();
         }
+        this.yamlStorage = new YamlPlayerDataStorage(dataFolder);
+        this.storage = createStorage(plugin.getConfig().getString("data.storage", "binary"));
     }
-    
+
+    /**
+     * 依配置選擇儲存後端
+     */
+    private PlayerDataStorage createStorage(String type) {
+        if ("binary".equalsIgnoreCase(type)) {
+            return new BinaryPlayerDataStorage(dataFolder);
+        }
+        if ("sqlite".equalsIgnoreCase(type)) {
+            return new SqlitePlayerDataStorage(new File(plugin.getDataFolder(), "playerdata.db"));
+        }
+        if (!"yaml".equalsIgnoreCase(type)) {
+            plugin.getLogger().warning("未知的儲存類型: " + type + "，改用 yaml");
+        }
+        return yamlStorage;
+    }
+
+    /**
+     * 玩家數據改為登入時按需載入，此處只載入目前在線的玩家（例如重新載入插件時）
+     */
     public void loadData() {
-        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (files != null) {
-            for (File file : files) {
-                String uuidString = file.getName().replace(".yml", "");
-                try {
-                    UUID uuid = UUID.fromString(uuidString);
-                    FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-                    PlayerData playerData = PlayerData.fromConfig(config);
-                    playerDataMap.put(uuid, playerData);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("無效的UUID文件名: " + file.getName());
+        plugin.getLogger().info("玩家數據儲存類型: " + storage.getName());
+        if (storage != yamlStorage) {
+            migrateLegacyData();
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            requestLoad(player.getUniqueId());
+        }
+        plugin.getLogger().info("正在背景載入 " + pendingLoads.size() + " 個在線玩家數據，其餘玩家將於登入時載入");
+
+        startFlushTask();
+        startEvictionTask();
+    }
+
+    /**
+     * 在啟用時等待 YAML 數據遷移完成，之後才接受任何讀取；
+     * 遷移失敗或中斷時改為從舊的 YAML 數據補讀，避免玩家讀到空白數據後覆蓋原有數據
+     */
+    private void migrateLegacyData() {
+        if (PlayerDataMigrator.isMigrated(storage, dataFolder)) {
+            return;
+        }
+        plugin.getLogger().info("正在將 YAML 玩家數據遷移到 " + storage.getName() + " 儲存，完成前暫停啟用...");
+        try {
+            ioExecutor.submit(() -> PlayerDataMigrator.migrate(yamlStorage, storage, dataFolder, plugin.getLogger())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("等待玩家數據遷移時被中斷");
+        } catch (ExecutionException e) {
+            plugin.getLogger().severe("玩家數據遷移失敗: " + e.getCause());
+        }
+        legacyFallback = !PlayerDataMigrator.isMigrated(storage, dataFolder);
+        if (legacyFallback) {
+            plugin.getLogger().warning("玩家數據遷移未完成，找不到的玩家將改讀 YAML 數據，下次啟動時會重試遷移");
+        }
+    }
+
+    /**
+     * 在登入線程預先載入玩家數據（由 AsyncPlayerPreLoginEvent 呼叫）
+     * 沒有數據的新玩家會建立新的數據；讀取失敗或逾時返回 false，不快取任何數據，由呼叫者拒絕登入
+     */
+    public boolean preloadPlayerData(UUID uuid) {
+        if (playerDataMap.containsKey(uuid)) {
+            return true;
+        }
+        PlayerData loaded;
+        try {
+            loaded = loadThroughIoThread(uuid);
+        } catch (IOException e) {
+            plugin.getLogger().severe("無法載入玩家數據 " + uuid + ": " + e.getMessage());
+            return false;
+        }
+        playerDataMap.putIfAbsent(uuid, loaded != null ? loaded : new PlayerData(uuid));
+        placeholders.remove(uuid);
+        return true;
+    }
+
+    /**
+     * 經由 IO 線程讀取，確保讀到的是已排隊寫入之後的最新數據
+     * 沒有數據時返回 null；讀取失敗、逾時或被中斷時拋出 IOException
+     */
+    private PlayerData loadThroughIoThread(UUID uuid) throws IOException {
+        try {
+            return ioExecutor.submit(() -> readPlayerFile(uuid)).get(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("載入被中斷", e);
+        } catch (TimeoutException e) {
+            throw new IOException("載入逾時（" + LOAD_TIMEOUT_SECONDS + " 秒）", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(String.valueOf(cause), cause);
+        }
+    }
+
+    /**
+     * 在 IO 線程背景載入，完成後回到主線程放入快取；失敗時不快取，稍後再重試
+     */
+    private void requestLoad(UUID uuid) {
+        if (!pendingLoads.add(uuid)) {
+            return;
+        }
+        ioExecutor.execute(() -> {
+            PlayerData loaded;
+            try {
+                loaded = readPlayerFile(uuid);
+            } catch (IOException e) {
+                plugin.getLogger().severe("無法載入玩家數據 " + uuid + ": " + e.getMessage());
+                if (plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTaskLater(plugin, () -> pendingLoads.remove(uuid), LOAD_RETRY_TICKS);
                 }
+                return;
             }
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    // 等待期間數據已被刪除時不再放入快取
+                    if (pendingLoads.remove(uuid)) {
+                        playerDataMap.putIfAbsent(uuid, loaded != null ? loaded : new PlayerData(uuid));
+                        placeholders.remove(uuid);
+                    }
+                });
+            }
+        });
+    }
+
+    private PlayerData readPlayerFile(UUID uuid) throws IOException {
+        PlayerData playerData = storage.load(uuid);
+        if (playerData == null && legacyFallback) {
+            playerData = yamlStorage.load(uuid);
         }
-        plugin.getLogger().info("已加載 " + playerDataMap.size() + " 個玩家數據");
+        return playerData;
     }
-    
-    public void saveData() {
-        for (Map.Entry<UUID, PlayerData> entry : playerDataMap.entrySet()) {
-            savePlayerData(entry.getKey(), entry.getValue());
+
+    /**
+     * 啟動離線玩家快取清理任務
+     */
+    private void startEvictionTask() {
+        evictionTaskId = new BukkitRunnable() {
+            @Override
+            public void run() {
+                evictOfflinePlayers();
+            }
+        }.runTaskTimer(plugin, EVICTION_INTERVAL_TICKS, EVICTION_INTERVAL_TICKS).getTaskId();
+    }
+
+    /**
+     * 移除離線逾時的玩家數據，並將離線快取限制在上限以內
+     */
+    private void evictOfflinePlayers() {
+        long now = System.currentTimeMillis();
+        long evictAfter = plugin.getConfig().getLong("data.cache.evict_after_seconds", 300L) * 1000L;
+        int maxOffline = plugin.getConfig().getInt("data.cache.max_offline_entries", 1000);
+
+        // 補記未經退出事件離線的數據（例如查詢離線玩家或登入被拒）
+        for (UUID uuid : playerDataMap.keySet()) {
+            if (!offlineSince.containsKey(uuid) && Bukkit.getPlayer(uuid) == null) {
+                offlineSince.put(uuid, now);
+            }
+        }
+        placeholders.keySet().removeIf(uuid -> Bukkit.getPlayer(uuid) == null);
+
+        int overflow = offlineSince.size() - maxOffline;
+        Iterator<Map.Entry<UUID, Long>> iterator = offlineSince.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            UUID uuid = entry.getKey();
+            if (Bukkit.getPlayer(uuid) != null) {
+                iterator.remove();
+                continue;
+            }
+            boolean expired = now - entry.getValue() >= evictAfter;
+            if (!expired && overflow <= 0) {
+                continue;
+            }
+            // 尚未確認寫出的數據等寫入成功後再移除
+            if (dirtyPlayers.contains(uuid) || writesInFlight.containsKey(uuid)) {
+                continue;
+            }
+            playerDataMap.remove(uuid);
+            iterator.remove();
+            overflow--;
+        }
+    }
+
+    /**
+     * 玩家離線時開始計算快取逾時
+     */
+    public void handlePlayerQuit(UUID uuid) {
+        if (playerDataMap.containsKey(uuid)) {
+            offlineSince.remove(uuid);
+            offlineSince.put(uuid, System.currentTimeMillis());
         }
-        plugin.getLogger().info("已保存 " + playerDataMap.size() + " 個玩家數據");
     }
-    
+
+    /**
+     * 啟動定期刷新任務
+     */
+    private void startFlushTask() {
+        long interval = Math.max(1L, plugin.getConfig().getLong("data.write_behind.flush_interval_ticks", 40L));
+        flushTaskId = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (System.currentTimeMillis() >= saveRetryAt) {
+                    flush();
+                }
+            }
+        }.runTaskTimer(plugin, interval, interval).getTaskId();
+    }
+
+    public void saveData() {
+        dirtyPlayers.addAll(playerDataMap.keySet());
+        int count = flush();
+        plugin.getLogger().info("已保存 " + count + " 個玩家數據");
+    }
+
     public PlayerData getPlayerData(Player player) {
         return getPlayerData(player.getUniqueId());
     }
-    
+
+    /**
+     * 取得玩家數據，不會在主線程等待讀取
+     * 快取未命中（例如重新載入插件時已在線的玩家）時改為背景載入，
+     * 載入完成前回傳暫時數據；暫時數據的修改不會被保存，可用 {@link #isPlayerDataLoaded(UUID)} 判斷
+     */
     public PlayerData getPlayerData(UUID uuid) {
-        return playerDataMap.computeIfAbsent(uuid, k -> new PlayerData(uuid));
+        PlayerData playerData = playerDataMap.get(uuid);
+        if (playerData != null) {
+            return playerData;
+        }
+
+        requestLoad(uuid);
+        return placeholders.computeIfAbsent(uuid, PlayerData::new);
+    }
+
+    /**
+     * 玩家數據是否已從儲存後端載入
+     */
+    public boolean isPlayerDataLoaded(UUID uuid) {
+        return playerDataMap.containsKey(uuid);
     }
-    
+
+    /**
+     * 標記玩家數據需要保存（實際寫入會在下一次刷新時於背景執行）
+     * 尚未載入的暫時數據不會保存，避免以空白數據覆蓋儲存後端中的數據
+     */
     public void savePlayerData(UUID uuid, PlayerData playerData) {
-        File file = new File(dataFolder, uuid.toString() + ".yml");
-        FileConfiguration config = new YamlConfiguration();
-        playerData.saveToConfig(config);
-        
-        try {
-            config.save(file);
-        } catch (IOException e) {
-            plugin.getLogger().severe("無法保存玩家數據 " + uuid + ": " + e.getMessage());
+        if (placeholders.get(uuid) == playerData) {
+            plugin.getLogger().warning("玩家數據 " + uuid + " 尚未載入，略過保存");
+            return;
         }
+        playerDataMap.put(uuid, playerData);
+        dirtyPlayers.add(uuid);
+        savesQueued++;
     }
-    
+
     public void savePlayerData(Player player) {
         PlayerData playerData = getPlayerData(player);
         savePlayerData(player.getUniqueId(), playerData);
     }
-    
+
+    /**
+     * 在主線程複製所有髒數據，並交由 IO 線程批量寫入
+     */
+    public int flush() {
+        if (dirtyPlayers.isEmpty()) {
+            return 0;
+        }
+
+        List<PlayerData> batch = new ArrayList<>(dirtyPlayers.size());
+        for (UUID uuid : dirtyPlayers) {
+            PlayerData playerData = playerDataMap.get(uuid);
+            if (playerData != null) {
+                batch.add(playerData.copy());
+                writesInFlight.merge(uuid, 1, Integer::sum);
+            }
+        }
+        dirtyPlayers.clear();
+        savesFlushed += batch.size();
+
+        ioExecutor.execute(() -> writeBatch(batch));
+        return batch.size();
+    }
+
+    private void writeBatch(List<PlayerData> batch) {
+        boolean saved;
+        long retryDelay = 0L;
+        try {
+            storage.saveBatch(batch);
+            savesWritten.addAndGet(batch.size());
+            consecutiveSaveFailures.set(0);
+            saved = true;
+        } catch (IOException e) {
+            saveFailures.addAndGet(batch.size());
+            int failures = consecutiveSaveFailures.incrementAndGet();
+            retryDelay = Math.min(SAVE_RETRY_MAX_MILLIS, SAVE_RETRY_BASE_MILLIS << Math.min(failures - 1, 6));
+            plugin.getLogger().severe("無法保存 " + batch.size() + " 個玩家數據（連續第 " + failures + " 次失敗），"
+                + (retryDelay / 1000L) + " 秒後重試: " + e.getMessage());
+            saved = false;
+        }
+
+        boolean written = saved;
+        if (!plugin.isEnabled()) {
+            // 關閉時無法回到主線程重試，列出未保存的玩家
+            if (!written) {
+                for (PlayerData playerData : batch) {
+                    plugin.getLogger().severe("玩家數據未保存: " + playerData.getPlayerUUID());
+                }
+            }
+            return;
+        }
+        long delay = retryDelay;
+        Bukkit.getScheduler().runTask(plugin, () -> completeBatch(batch, written, delay));
+    }
+
+    /**
+     * 在主線程確認一批寫入的結果；失敗時重新標記為髒，並將下一次定期刷新延後
+     */
+    private void completeBatch(List<PlayerData> batch, boolean written, long retryDelay) {
+        for (PlayerData playerData : batch) {
+            UUID uuid = playerData.getPlayerUUID();
+            writesInFlight.computeIfPresent(uuid, (key, count) -> count > 1 ? count - 1 : null);
+            // 寫入期間被刪除的玩家不再重試
+            if (!written && playerDataMap.containsKey(uuid)) {
+                dirtyPlayers.add(uuid);
+            }
+        }
+        if (!written) {
+            saveRetryAt = System.currentTimeMillis() + retryDelay;
+        }
+    }
+
+    /**
+     * 在 IO 線程將玩家數據匯出為 YAML 文件以便除錯，結果回到主線程交給 callback：
+     * 成功時傳入匯出的文件；找不到玩家數據時文件與錯誤皆為 null；讀寫失敗時傳入錯誤
+     */
+    public void exportToYaml(UUID uuid, BiConsumer<File, IOException> callback) {
+        // 未快取的玩家在 IO 線程讀取，不匯出暫時數據
+        PlayerData cached = playerDataMap.get(uuid);
+        PlayerData snapshot = cached != null ? cached.copy() : null;
+        File exportFolder = new File(plugin.getDataFolder(), "exports");
+        File file = new File(exportFolder, uuid.toString() + ".yml");
+        ioExecutor.execute(() -> {
+            File exported = null;
+            IOException error = null;
+            try {
+                PlayerData playerData = snapshot != null ? snapshot : readPlayerFile(uuid);
+                if (playerData != null) {
+                    Files.createDirectories(exportFolder.toPath());
+                    Files.write(file.toPath(), YamlPlayerDataStorage.encode(playerData));
+                    exported = file;
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            File result = exported;
+            IOException failure = error;
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(result, failure));
+            }
+        });
+    }
+
+    /**
+     * 刷新所有剩餘數據並等待 IO 線程寫完
+     */
+    public void shutdown() {
+        if (flushTaskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(flushTaskId);
+            flushTaskId = -1;
+        }
+        if (evictionTaskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(evictionTaskId);
+            evictionTaskId = -1;
+        }
+
+        long failuresBefore = saveFailures.get();
+        saveData();
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("玩家數據寫入逾時，部分數據可能未保存！");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            plugin.getLogger().severe("等待玩家數據寫入時被中斷");
+        }
+        long lost = saveFailures.get() - failuresBefore;
+        if (lost > 0) {
+            plugin.getLogger().severe("==============================================");
+            plugin.getLogger().severe("關閉時有 " + lost + " 筆玩家數據寫入失敗，這些修改已遺失！");
+            plugin.getLogger().severe("請檢查儲存後端（" + storage.getName() + "）的錯誤訊息");
+            plugin.getLogger().severe("==============================================");
+        }
+
+        try {
+            storage.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("關閉玩家數據儲存時發生錯誤: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 等待下一次刷新的玩家數量
+     */
+    public int getPendingSaveCount() {
+        return dirtyPlayers.size();
+    }
+
+    /**
+     * 標記為需要保存的次數（同一玩家在刷新前多次標記會合併為一次寫入）
+     */
+    public long getSavesQueued() {
+        return savesQueued;
+    }
+
+    /**
+     * 交給 IO 線程寫入的玩家數據筆數
+     */
+    public long getSavesFlushed() {
+        return savesFlushed;
+    }
+
+    /**
+     * 已成功寫入儲存後端的玩家數據筆數
+     */
+    public long getSavesWritten() {
+        return savesWritten.get();
+    }
+
+    /**
+     * 寫入失敗的玩家數據筆數
+     */
+    public long getSaveFailures() {
+        return saveFailures.get();
+    }
+
     public void removePlayerData(UUID uuid) {
         playerDataMap.remove(uuid);
-        File file = new File(dataFolder, uuid.toString() + ".yml");
-        if (file.exists()) {
-            file.delete();
+        placeholders.remove(uuid);
+        pendingLoads.remove(uuid);
+        dirtyPlayers.remove(uuid);
+        writesInFlight.remove(uuid);
+        offlineSince.remove(uuid);
+        // 排在已提交的寫入之後刪除
+        ioExecutor.execute(() -> {
+            try {
+                storage.delete(uuid);
+            } catch (IOException e) {
+                plugin.getLogger().warning("無法刪除玩家數據 " + uuid + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 是否支援排行榜查詢（僅資料庫儲存）
+     */
+    public boolean supportsLeaderboard() {
+        return storage instanceof SqlitePlayerDataStorage;
+    }
+
+    /**
+     * 在 IO 線程查詢總飛行時間排行榜，結果回到主線程交給 callback
+     */
+    public void queryFlightTimeLeaderboard(int limit, Consumer<Map<UUID, Long>> callback) {
+        if (!supportsLeaderboard()) {
+            callback.accept(null);
+            return;
         }
+        // 先寫出記憶體中的最新數據，查詢會排在這批寫入之後
+        flush();
+        SqlitePlayerDataStorage database = (SqlitePlayerDataStorage) storage;
+        ioExecutor.execute(() -> {
+            Map<UUID, Long> top;
+            try {
+                top = database.getTopFlightTime(limit);
+            } catch (IOException e) {
+                plugin.getLogger().warning(e.getMessage());
+                top = null;
+            }
+            Map<UUID, Long> result = top;
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(result));
+            }
+        });
     }
-    
-    public boolean hasPlayerData(UUID uuid) {
-        return playerDataMap.containsKey(uuid);
+
+    /**
+     * 獲取目前快取中的玩家數據數量
+     */
+    public int getCachedPlayerCount() {
+        return playerDataMap.size();
     }
 }
@@ -1,88 +1,173 @@
 package com.bird.flysword.managers;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.core.effect.EffectQueue;
+import com.bird.flysword.core.effect.EffectStats;
+import com.bird.flysword.data.EffectQuality;
+import com.bird.flysword.data.EnchantEffect;
+import com.bird.flysword.flight.FlightSettings;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
+/**
+ * 特效管理器
+ * 特效不直接廣播，而是加入每 tick 的特效佇列，於 tick 結束時合併、剔除並依預算送出
+ */
 public class EffectManager {
     
     private final Flysword plugin;
+    private final EffectStats stats;
+    private final EffectQueue queue;
+    private int taskId = -1;
+    private long lastFlushNanos;
     
     public EffectManager(Flysword plugin) {
         this.plugin = plugin;
+        this.stats = new EffectStats();
+        this.queue = new EffectQueue(plugin.getPerformanceOptimizer(), stats, this::getParticleScale);
+    }
+    
+    /**
+     * 啟動特效送出任務，需在飛行調度器之後啟動，才能在同一 tick 送出飛行特效
+     */
+    public void start() {
+        if (taskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(taskId);
+        }
+        
+        taskId = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }.runTaskTimer(plugin, 1L, 1L).getTaskId();
+    }
+    
+    /**
+     * 停止特效送出任務
+     */
+    public void stop() {
+        if (taskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+    }
+    
+    /**
+     * 送出本 tick 累積的特效
+     */
+    public void flush() {
+        long start = System.nanoTime();
+        FlightSettings settings = plugin.getFlightSettings();
+        queue.flush(plugin.getServer().getOnlinePlayers(),
+            settings.getEffectViewDistance(), settings.getEffectFov(), settings.getEffectNearRadius());
+        lastFlushNanos = System.nanoTime() - start;
+        plugin.getFlightScheduler().getProfiler().recordEffectFlush(lastFlushNanos);
+        plugin.getMetricsManager().recordEffectFlush(lastFlushNanos);
+    }
+    
+    /**
+     * 獲取上一次送出特效的耗時（納秒）
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+    
+    /**
+     * 觀看者的粒子倍率：玩家畫質（不超過伺服器上限）x 全域密度 x 目前預算比例
+     */
+    private double getParticleScale(Player viewer, boolean ambient) {
+        FlightSettings settings = plugin.getFlightSettings();
+        EffectQuality quality = getEffectiveQuality(viewer);
+        double scale = ambient ? quality.getAmbientScale() : quality.getEventScale();
+        return scale * settings.getParticleDensity() * plugin.getPerformanceOptimizer().getBudgetScale();
+    }
+    
+    /**
+     * 玩家實際套用的特效畫質
+     */
+    public EffectQuality getEffectiveQuality(Player player) {
+        EffectQuality quality = plugin.getDataManager().getPlayerData(player).getEffectQuality();
+        EffectQuality max = plugin.getFlightSettings().getMaxEffectQuality();
+        return quality.compareTo(max) > 0 ? max : quality;
     }
     
     public void playFlightStartEffect(Player player) {
         Location loc = player.getLocation();
         
         // 視覺特效
-        player.getWorld().spawnParticle(Particle.FIREWORK, loc, 50, 0.5, 1, 0.5, 0.1);
-        player.getWorld().spawnParticle(Particle.END_ROD, loc, 20, 0.3, 0.5, 0.3, 0.05);
+        queue.particle(Particle.FIREWORK, loc, 50, 0.5, 1, 0.5, 0.1, false);
+        queue.particle(Particle.END_ROD, loc, 20, 0.3, 0.5, 0.3, 0.05, false);
         
         // 音效
-        player.getWorld().playSound(loc, Sound.ENTITY_ILLUSIONER_MIRROR_MOVE, 1.0f, 1.5f);
-        player.getWorld().playSound(loc, Sound.BLOCK_ANVIL_LAND, 0.5f, 2.0f);
+        queue.sound(loc, Sound.ENTITY_ILLUSIONER_MIRROR_MOVE, 1.0f, 1.5f);
+        queue.sound(loc, Sound.BLOCK_ANVIL_LAND, 0.5f, 2.0f);
     }
     
     public void playFlightStopEffect(Player player) {
         Location loc = player.getLocation();
         
         // 視覺特效
-        player.getWorld().spawnParticle(Particle.SMOKE, loc, 30, 0.3, 0.5, 0.3, 0.05);
-        player.getWorld().spawnParticle(Particle.CLOUD, loc, 15, 0.2, 0.3, 0.2, 0.02);
+        queue.particle(Particle.SMOKE, loc, 30, 0.3, 0.5, 0.3, 0.05, false);
+        queue.particle(Particle.CLOUD, loc, 15, 0.2, 0.3, 0.2, 0.02, false);
         
         // 音效
-        player.getWorld().playSound(loc, Sound.BLOCK_GLASS_BREAK, 0.8f, 0.8f);
+        queue.sound(loc, Sound.BLOCK_GLASS_BREAK, 0.8f, 0.8f);
     }
     
     public void playSkinUnlockEffect(Player player, String skinId) {
         Location loc = player.getLocation();
         
         // 視覺特效
-        player.getWorld().spawnParticle(Particle.FIREWORK, loc, 100, 0.5, 1, 0.5, 0.2);
-        player.getWorld().spawnParticle(Particle.END_ROD, loc, 50, 0.3, 0.5, 0.3, 0.1);
+        queue.particle(Particle.FIREWORK, loc, 100, 0.5, 1, 0.5, 0.2, false);
+        queue.particle(Particle.END_ROD, loc, 50, 0.3, 0.5, 0.3, 0.1, false);
         
         // 音效
-        player.getWorld().playSound(loc, Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.2f);
-        player.getWorld().playSound(loc, Sound.BLOCK_NOTE_BLOCK_CHIME, 0.8f, 1.5f);
+        queue.sound(loc, Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.2f);
+        queue.sound(loc, Sound.BLOCK_NOTE_BLOCK_CHIME, 0.8f, 1.5f);
     }
     
     public void playFlightTrailEffect(Location location) {
-        location.getWorld().spawnParticle(Particle.FIREWORK, location, 3, 0.1, 0.1, 0.1, 0.01);
-        location.getWorld().spawnParticle(Particle.END_ROD, location, 1, 0.05, 0.05, 0.05, 0.005);
+        queue.particle(Particle.FIREWORK, location, 3, 0.1, 0.1, 0.1, 0.01, true);
+        queue.particle(Particle.END_ROD, location, 1, 0.05, 0.05, 0.05, 0.005, true);
     }
     
     public void playDurabilityWarningEffect(Player player) {
         Location loc = player.getLocation();
         
         // 警告特效
-        player.getWorld().spawnParticle(Particle.SMOKE, loc, 10, 0.2, 0.5, 0.2, 0);
-        player.getWorld().playSound(loc, Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f, 0.5f);
+        queue.particle(Particle.SMOKE, loc, 10, 0.2, 0.5, 0.2, 0, false);
+        queue.sound(loc, Sound.BLOCK_NOTE_BLOCK_BASS, 0.5f, 0.5f);
     }
     
-    public void playEnchantEffect(Player player, String enchantId) {
-        Location loc = player.getLocation();
-        
-        // 根據附魔類型播放不同特效
-        switch (enchantId) {
-            case "speed":
-                player.getWorld().spawnParticle(Particle.FIREWORK, loc, 20, 0.3, 0.5, 0.3, 0.1);
-                player.getWorld().playSound(loc, Sound.ENTITY_HORSE_GALLOP, 0.3f, 1.5f);
-                break;
-            case "stability":
-                player.getWorld().spawnParticle(Particle.SMOKE, loc, 15, 0.2, 0.3, 0.2, 0.05);
-                player.getWorld().playSound(loc, Sound.BLOCK_ANVIL_USE, 0.2f, 1.0f);
-                break;
-            case "regen":
-                player.getWorld().spawnParticle(Particle.HEART, loc, 5, 0.2, 0.3, 0.2, 0);
-                player.getWorld().playSound(loc, Sound.ENTITY_PLAYER_LEVELUP, 0.2f, 1.5f);
-                break;
-            case "shield":
-                player.getWorld().spawnParticle(Particle.SMOKE, loc, 10, 0.3, 0.5, 0.3, 0);
-                player.getWorld().playSound(loc, Sound.BLOCK_GLASS_PLACE, 0.3f, 0.8f);
-                break;
+    /**
+     * 播放附魔的粒子，由附魔特效排程依間隔呼叫
+     */
+    public void playEnchantParticles(Player player, EnchantEffect effect) {
+        if (effect.getParticle() == null || effect.getCount() == 0) {
+            return;
         }
+        queue.particle(effect.getParticle(), player.getLocation(), effect.getCount(),
+            effect.getSpreadX(), effect.getSpreadY(), effect.getSpreadZ(), effect.getSpeed(), true);
+    }
+    
+    /**
+     * 播放附魔的音效，只在附魔特效開始時呼叫
+     */
+    public void playEnchantSound(Player player, EnchantEffect effect) {
+        if (effect.getSound() == null) {
+            return;
+        }
+        queue.sound(player.getLocation(), effect.getSound(), effect.getVolume(), effect.getPitch());
+    }
+    
+    /**
+     * 獲取特效統計
+     */
+    public EffectStats getStats() {
+        return stats;
     }
 }
@@ -1,7 +1,9 @@
 package com.bird.flysword.managers;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.data.EnchantEffect;
 import com.bird.flysword.data.SwordEnchant;
+import org.bukkit.Particle;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -27,28 +29,70 @@ public class EnchantManager {
                 ConfigurationSection enchantSection = enchantsSection.getConfigurationSection(enchantId);
                 if (enchantSection != null) {
                     SwordEnchant enchant = SwordEnchant.fromConfig(enchantId, enchantSection);
-                    enchants.put(enchantId, enchant);
+                    enchants.put(enchantId, enchant.withEffect(loadFlightEffect(enchantId, enchantSection)));
                 }
             }
         }
         
         // 添加默認附魔
         if (!enchants.containsKey("speed")) {
-            enchants.put("speed", new SwordEnchant("speed", "飛行加速", "提升飛行速度", 3, 0.2));
+            enchants.put("speed", new SwordEnchant("speed", "飛行加速", "提升飛行速度", 3, 0.2,
+                createDefaultFlightEffect("speed")));
         }
         if (!enchants.containsKey("stability")) {
-            enchants.put("stability", new SwordEnchant("stability", "飛行穩定", "提升飛行穩定性", 3, 0.15));
+            enchants.put("stability", new SwordEnchant("stability", "飛行穩定", "提升飛行穩定性", 3, 0.15,
+                createDefaultFlightEffect("stability")));
         }
         if (!enchants.containsKey("regen")) {
-            enchants.put("regen", new SwordEnchant("regen", "能量回復", "飛行時回復能量", 3, 0.1));
+            enchants.put("regen", new SwordEnchant("regen", "能量回復", "飛行時回復能量", 3, 0.1,
+                createDefaultFlightEffect("regen")));
         }
         if (!enchants.containsKey("shield")) {
-            enchants.put("shield", new SwordEnchant("shield", "降落護盾", "降落時提供保護", 3, 0.25));
+            enchants.put("shield", new SwordEnchant("shield", "降落護盾", "降落時提供保護", 3, 0.25,
+                createDefaultFlightEffect("shield")));
         }
         
         plugin.getLogger().info("已加載 " + enchants.size() + " 個飛劍附魔");
     }
     
+    /**
+     * 載入附魔的 effect 區段，舊版配置沒有此區段時使用內建特效
+     */
+    private EnchantEffect loadFlightEffect(String enchantId, ConfigurationSection enchantSection) {
+        ConfigurationSection effectSection = enchantSection.getConfigurationSection("effect");
+        if (effectSection == null) {
+            return createDefaultFlightEffect(enchantId);
+        }
+        try {
+            return EnchantEffect.fromConfig(effectSection);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("附魔 " + enchantId + " 的特效設定無效，已停用特效: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * 內建附魔的預設特效
+     */
+    private EnchantEffect createDefaultFlightEffect(String enchantId) {
+        switch (enchantId) {
+            case "speed":
+                return new EnchantEffect(Particle.FIREWORK, 20, 0.3, 0.5, 0.3, 0.1, 10, 3,
+                    "entity.horse.gallop", 0.3f, 1.5f);
+            case "stability":
+                return new EnchantEffect(Particle.SMOKE, 15, 0.2, 0.3, 0.2, 0.05, 20, 5,
+                    "block.anvil.use", 0.2f, 1.0f);
+            case "regen":
+                return new EnchantEffect(Particle.HEART, 5, 0.2, 0.3, 0.2, 0, 20, 5,
+                    "entity.player.levelup", 0.2f, 1.5f);
+            case "shield":
+                return new EnchantEffect(Particle.SMOKE, 10, 0.3, 0.5, 0.3, 0, 20, 5,
+                    "block.glass.place", 0.3f, 0.8f);
+            default:
+                return null;
+        }
+    }
+    
     public SwordEnchant getEnchant(String enchantId) {
         return enchants.get(enchantId);
     }
@@ -65,13 +65,6 @@ public class FlightManager {
         activeFlights.clear();
     }
     
-    public void updateFlight(Player player) {
-        FlightSession session = activeFlights.get(player.getUniqueId());
-        if (session != null) {
-            session.update();
-        }
-    }
-    
     public void handlePlayerQuit(Player player) {
         stopFlight(player);
     }
@@ -0,0 +1,250 @@
+package com.bird.flysword.managers;
+
+import com.bird.flysword.Flysword;
+import com.bird.flysword.core.collision.CollisionStats;
+import com.bird.flysword.core.effect.EffectStats;
+import com.bird.flysword.core.metrics.MetricsHttpServer;
+import com.bird.flysword.core.metrics.MetricsRegistry;
+import com.bird.flysword.core.render.SwordUpdateStats;
+import com.bird.flysword.data.storage.AtomicFiles;
+import com.bird.flysword.scheduler.FlightStage;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 指標管理器
+ * 將各模組現有的統計註冊為 Prometheus 指標，定期在主線程收集，
+ * 再經由只綁定本機的 HTTP 端點或定期改寫的文字文件匯出
+ */
+public class MetricsManager {
+
+    private final Flysword plugin;
+    private final MetricsRegistry registry;
+    private final MetricsRegistry.Summary[] stageSummaries;
+    private final MetricsRegistry.Summary tickSummary;
+    private final MetricsRegistry.Summary effectFlushSummary;
+    private final boolean enabled;
+    private MetricsHttpServer httpServer;
+    private File exportFile;
+    // 等待寫出的最新快照；同一時間只有一個背景任務寫入，較舊的快照直接被取代
+    private final AtomicReference<String> pendingSnapshot = new AtomicReference<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private int taskId = -1;
+
+    public MetricsManager(Flysword plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("metrics.enabled", false);
+        this.registry = new MetricsRegistry("flysword");
+
+        FlightStage[] stages = FlightStage.values();
+        this.stageSummaries = new MetricsRegistry.Summary[stages.length];
+        for (FlightStage stage : stages) {
+            stageSummaries[stage.ordinal()] = registry.summary("stage_seconds", "飛行引擎各階段每 tick 的耗時",
+                "stage", stage.name().toLowerCase(Locale.ROOT));
+        }
+        this.tickSummary = registry.summary("tick_seconds", "飛行引擎每 tick 的總耗時，包含套用方塊變化");
+        this.effectFlushSummary = registry.summary("effect_flush_seconds", "每 tick 送出特效的耗時");
+        registerSources();
+    }
+
+    /**
+     * 註冊各模組的統計來源，收集時才讀取
+     */
+    private void registerSources() {
+        registry.gauge("active_flights", "目前飛行中的玩家數量",
+            () -> plugin.getFlightScheduler().getActivePlayerCount());
+        registry.gauge("online_players", "在線玩家數量", () -> Bukkit.getOnlinePlayers().size());
+        registry.gauge("tps", "以監控任務間隔估算的伺服器 TPS",
+            () -> plugin.getPerformanceOptimizer().getAverageTPS());
+        registry.gauge("plugin_tick_seconds_average", "插件每 tick 耗時的移動平均",
+            () -> plugin.getPerformanceOptimizer().getAverageTickNanos() / 1_000_000_000.0);
+        registry.gauge("governor_level", "性能調節的降級等級，0 為完整品質",
+            () -> plugin.getPerformanceOptimizer().getLevel());
+        registry.gauge("tracked_armor_stands", "追蹤中的盔甲架數量",
+            () -> plugin.getPerformanceOptimizer().getTrackedArmorStandCount());
+
+        registry.counter("sword_updates_sent_total", "送往渲染器的飛劍變換更新",
+            () -> swordStats().getSent());
+        registry.counter("sword_updates_suppressed_total", "因變化低於門檻而略過的飛劍更新",
+            () -> swordStats().getSuppressed());
+        registry.counter("sword_updates_lod_skipped_total", "因細節層級而未計算的飛劍更新",
+            () -> swordStats().getLodSkipped());
+
+        registry.counter("collision_sweeps_total", "主線程的障礙物掃描次數",
+            () -> collisionStats().getSweeps());
+        registry.counter("collision_predictions_total", "提交給背景線程的障礙物預測次數",
+            () -> collisionStats().getPredictions());
+        registry.counter("collision_obstacle_hits_total", "發現前方障礙物的次數",
+            () -> collisionStats().getObstacleHits());
+        registry.counter("landing_probes_total", "安全降落搜索的方塊探測次數",
+            () -> collisionStats().getLandingProbes());
+        registry.gauge("collision_cached_chunks", "碰撞引擎快取的區塊數量",
+            () -> plugin.getCollisionEngine().getCachedColumnCount());
+
+        registry.counter("effect_requests_total", "加入特效佇列的請求",
+            () -> effectStats().getQueued());
+        registry.counter("effect_merged_total", "與同 tick 相同特效合併的請求",
+            () -> effectStats().getMerged());
+        registry.counter("effect_culled_total", "因觀看者視野而略過的發送",
+            () -> effectStats().getCulled());
+        registry.counter("effect_scaled_out_total", "因觀看者特效畫質而略過的發送",
+            () -> effectStats().getScaledOut());
+        registry.counter("effect_over_budget_total", "因超出每 tick 預算而放棄的發送",
+            () -> effectStats().getOverBudget());
+        registry.counter("effect_particles_sent_total", "送給玩家的粒子封包",
+            () -> effectStats().getParticlesSent());
+        registry.counter("effect_sounds_sent_total", "送給玩家的音效",
+            () -> effectStats().getSoundsSent());
+        registry.gauge("effect_particle_budget", "目前每 tick 的粒子預算（降級後）",
+            () -> plugin.getPerformanceOptimizer().getMaxParticlesPerTick());
+        registry.gauge("effect_sound_budget", "目前每 tick 的音效預算（降級後）",
+            () -> plugin.getPerformanceOptimizer().getMaxSoundsPerTick());
+
+        registry.counter("saves_queued_total", "標記為需要保存的次數",
+            () -> plugin.getDataManager().getSavesQueued());
+        registry.counter("saves_flushed_total", "交給 IO 線程寫入的玩家數據筆數",
+            () -> plugin.getDataManager().getSavesFlushed());
+        registry.counter("saves_written_total", "成功寫入的玩家數據筆數",
+            () -> plugin.getDataManager().getSavesWritten());
+        registry.counter("save_failures_total", "寫入失敗的玩家數據筆數",
+            () -> plugin.getDataManager().getSaveFailures());
+        registry.gauge("saves_pending", "等待下一次刷新的玩家數量",
+            () -> plugin.getDataManager().getPendingSaveCount());
+    }
+
+    private SwordUpdateStats swordStats() {
+        return plugin.getSwordUpdateStats();
+    }
+
+    private CollisionStats collisionStats() {
+        return plugin.getCollisionEngine().getStats();
+    }
+
+    private EffectStats effectStats() {
+        return plugin.getEffectManager().getStats();
+    }
+
+    /**
+     * 啟動收集任務與匯出端點，需在所有被註冊的模組初始化之後呼叫
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        FileConfiguration config = plugin.getConfig();
+        String exporter = config.getString("metrics.exporter", "http");
+        if ("file".equalsIgnoreCase(exporter)) {
+            exportFile = new File(plugin.getDataFolder(), config.getString("metrics.file.path", "metrics.prom"));
+            plugin.getLogger().info("指標將定期寫入 " + exportFile.getPath());
+        } else {
+            if (!"http".equalsIgnoreCase(exporter)) {
+                plugin.getLogger().warning("未知的指標匯出方式: " + exporter + "，改用 http");
+            }
+            try {
+                httpServer = new MetricsHttpServer(registry, config.getInt("metrics.http.port", 9464));
+                httpServer.start();
+                plugin.getLogger().info("指標端點已啟動: http://127.0.0.1:" + httpServer.getPort() + "/metrics");
+            } catch (IOException e) {
+                plugin.getLogger().warning("無法啟動指標端點: " + e.getMessage());
+                httpServer = null;
+            }
+        }
+
+        long interval = Math.max(20L, config.getLong("metrics.interval_ticks", 100L));
+        collect();
+        taskId = new BukkitRunnable() {
+            @Override
+            public void run() {
+                collect();
+            }
+        }.runTaskTimer(plugin, interval, interval).getTaskId();
+    }
+
+    /**
+     * 停止收集任務與匯出端點
+     */
+    public void stop() {
+        if (taskId != -1) {
+            plugin.getServer().getScheduler().cancelTask(taskId);
+            taskId = -1;
+        }
+        if (httpServer != null) {
+            httpServer.stop();
+            httpServer = null;
+        }
+    }
+
+    /**
+     * 在主線程讀取所有來源，文件匯出交由背景線程寫入
+     */
+    private void collect() {
+        registry.collect();
+        if (exportFile != null) {
+            Path target = exportFile.toPath();
+            pendingSnapshot.set(registry.getSnapshot());
+            if (writing.compareAndSet(false, true)) {
+                plugin.getPerformanceOptimizer().runAsync(() -> drainSnapshots(target));
+            }
+        }
+    }
+
+    /**
+     * 寫出等待中的快照，直到沒有新的快照為止
+     */
+    private void drainSnapshots(Path target) {
+        do {
+            String snapshot;
+            while ((snapshot = pendingSnapshot.getAndSet(null)) != null) {
+                writeSnapshot(target, snapshot);
+            }
+            writing.set(false);
+            // 釋放後才排入的快照若沒有任務接手，由這個任務繼續寫出
+        } while (pendingSnapshot.get() != null && writing.compareAndSet(false, true));
+    }
+
+    /**
+     * 寫入臨時文件後替換，讀取端不會看到寫到一半的內容
+     */
+    private void writeSnapshot(Path target, String snapshot) {
+        try {
+            AtomicFiles.write(target, snapshot.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().warning("無法寫入指標文件: " + e.getMessage());
+        }
+    }
+
+    public void recordStage(FlightStage stage, long nanos) {
+        if (enabled) {
+            stageSummaries[stage.ordinal()].record(nanos);
+        }
+    }
+
+    public void recordTick(long nanos) {
+        if (enabled) {
+            tickSummary.record(nanos);
+        }
+    }
+
+    public void recordEffectFlush(long nanos) {
+        if (enabled) {
+            effectFlushSummary.record(nanos);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+}
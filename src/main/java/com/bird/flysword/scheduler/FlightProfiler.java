@@ -0,0 +1,219 @@
+package com.bird.flysword.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+
+import com.bird.flysword.core.metrics.LatencyHistogram;
+import com.bird.flysword.core.metrics.RollingHistogram;
+import com.bird.flysword.flight.FlightSession;
+
+/**
+ * 飛行引擎的取樣分析器
+ * 開啟時記錄每個階段每 tick 的耗時、整個 tick 與特效送出的耗時，以及每位飛行者每 tick 的總耗時；
+ * 關閉時飛行引擎每個會話只多一次布林判斷
+ *
+ * 所有記錄以 {@link #WINDOW_TICKS} 為一個視窗滾動，報告涵蓋上一個與目前的視窗，
+ * 舊的尖峰與已不再飛行的飛行者會隨視窗移出
+ *
+ * 直方圖可由其他線程讀取，飛行者統計只在主線程存取
+ */
+public class FlightProfiler {
+
+    private static final FlightStage[] STAGES = FlightStage.values();
+    public static final int WINDOW_TICKS = 1200; // 每個視窗 60 秒
+
+    private volatile boolean enabled;
+    private final RollingHistogram[] stageHistograms;
+    private final RollingHistogram tickHistogram = new RollingHistogram();
+    private final RollingHistogram effectFlushHistogram = new RollingHistogram();
+    private long[] riderNanos = new long[16]; // 本 tick 各引擎位置的累計耗時
+    private Map<UUID, RiderProfile> riders = new HashMap<>();
+    private Map<UUID, RiderProfile> previousRiders = new HashMap<>();
+    private int windowTicks;
+    private long windowStartedAt; // 目前視窗的開始時間
+    private long coveredSince; // 報告涵蓋範圍的開始時間（上一個視窗的開始時間）
+
+    public FlightProfiler() {
+        this.stageHistograms = new RollingHistogram[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            stageHistograms[i] = new RollingHistogram();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 開啟或關閉取樣，開啟時清除先前的記錄
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    void beginTick(int size) {
+        if (riderNanos.length < size) {
+            riderNanos = new long[Math.max(size, riderNanos.length * 2)];
+        }
+        Arrays.fill(riderNanos, 0, size, 0L);
+    }
+
+    void addRiderNanos(int slot, long nanos) {
+        riderNanos[slot] += nanos;
+    }
+
+    void recordStage(FlightStage stage, long nanos) {
+        stageHistograms[stage.ordinal()].record(nanos);
+    }
+
+    void endTick(FlightSession[] sessions, int size, long tickNanos) {
+        tickHistogram.record(tickNanos);
+        for (int i = 0; i < size; i++) {
+            Player player = sessions[i].getPlayer();
+            RiderProfile profile = riders.get(player.getUniqueId());
+            if (profile == null) {
+                profile = new RiderProfile();
+                riders.put(player.getUniqueId(), profile);
+            }
+            profile.name = player.getName();
+            profile.record(riderNanos[i]);
+        }
+        if (++windowTicks >= WINDOW_TICKS) {
+            rotate();
+        }
+    }
+
+    /**
+     * 開始新的視窗，丟棄上一個視窗的記錄
+     */
+    private void rotate() {
+        for (RollingHistogram histogram : stageHistograms) {
+            histogram.rotate();
+        }
+        tickHistogram.rotate();
+        effectFlushHistogram.rotate();
+        Map<UUID, RiderProfile> oldest = previousRiders;
+        oldest.clear();
+        previousRiders = riders;
+        riders = oldest;
+        windowTicks = 0;
+        coveredSince = windowStartedAt;
+        windowStartedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 記錄一次特效送出的耗時
+     */
+    public void recordEffectFlush(long nanos) {
+        if (enabled) {
+            effectFlushHistogram.record(nanos);
+        }
+    }
+
+    public void reset() {
+        for (RollingHistogram histogram : stageHistograms) {
+            histogram.reset();
+        }
+        tickHistogram.reset();
+        effectFlushHistogram.reset();
+        riders.clear();
+        previousRiders.clear();
+        windowTicks = 0;
+        windowStartedAt = System.currentTimeMillis();
+        coveredSince = windowStartedAt;
+    }
+
+    /**
+     * 最近一到兩個視窗的階段耗時
+     */
+    public LatencyHistogram getStageHistogram(FlightStage stage) {
+        return stageHistograms[stage.ordinal()].snapshot();
+    }
+
+    public LatencyHistogram getTickHistogram() {
+        return tickHistogram.snapshot();
+    }
+
+    public LatencyHistogram getEffectFlushHistogram() {
+        return effectFlushHistogram.snapshot();
+    }
+
+    /**
+     * 獲取取樣報告：最近一到兩個視窗內各階段的百分位數與最慢的飛行者
+     */
+    public List<String> getReport(int topRiders) {
+        LatencyHistogram ticks = tickHistogram.snapshot();
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("§6§l=== 飛行引擎取樣 (%s, 最近 %d 秒, %d ticks) ===",
+            enabled ? "§a開啟§6§l" : "§c關閉§6§l",
+            coveredSince == 0 ? 0 : (System.currentTimeMillis() - coveredSince) / 1000,
+            ticks.getCount()));
+        lines.add("§7單位: 毫秒 (p50 / p95 / p99 / 最大)");
+        lines.add(formatLine("整個 tick", ticks));
+        for (FlightStage stage : STAGES) {
+            lines.add(formatLine(stage.getDisplayName(), stageHistograms[stage.ordinal()].snapshot()));
+        }
+        lines.add(formatLine("特效送出", effectFlushHistogram.snapshot()));
+
+        // 合併兩個視窗中同一位飛行者的記錄
+        Map<UUID, RiderProfile> merged = new HashMap<>();
+        for (Map<UUID, RiderProfile> window : List.of(previousRiders, riders)) {
+            for (Map.Entry<UUID, RiderProfile> entry : window.entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), uuid -> new RiderProfile()).merge(entry.getValue());
+            }
+        }
+        List<RiderProfile> slowest = new ArrayList<>(merged.values());
+        slowest.sort((a, b) -> Long.compare(b.maxNanos, a.maxNanos));
+        if (!slowest.isEmpty()) {
+            lines.add("§e最慢的飛行者:");
+            for (int i = 0; i < Math.min(topRiders, slowest.size()); i++) {
+                RiderProfile profile = slowest.get(i);
+                lines.add(String.format("§7%d. %s - 最大 %.3f ms, 平均 %.3f ms (%d ticks)",
+                    i + 1, profile.name, profile.maxNanos / 1_000_000.0,
+                    profile.totalNanos / (double) profile.ticks / 1_000_000.0, profile.ticks));
+            }
+        }
+        return lines;
+    }
+
+    private static String formatLine(String name, LatencyHistogram histogram) {
+        return String.format("§e%s: §f%.3f / %.3f / %.3f / %.3f §7(%d)",
+            name,
+            histogram.getPercentile(50) / 1_000_000.0,
+            histogram.getPercentile(95) / 1_000_000.0,
+            histogram.getPercentile(99) / 1_000_000.0,
+            histogram.getMax() / 1_000_000.0,
+            histogram.getCount());
+    }
+
+    private static final class RiderProfile {
+        String name;
+        long maxNanos;
+        long totalNanos;
+        long ticks;
+
+        void record(long nanos) {
+            totalNanos += nanos;
+            ticks++;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        void merge(RiderProfile other) {
+            name = other.name;
+            totalNanos += other.totalNanos;
+            ticks += other.ticks;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+    }
+}
@@ -1,27 +1,73 @@
 package com.bird.flysword.scheduler;
 
 import com.bird.flysword.Flysword;
+import com.bird.flysword.core.effect.EffectStats;
+import com.bird.flysword.core.performance.PerformanceOptimizer;
+import com.bird.flysword.core.render.SwordUpdateStats;
+import com.bird.flysword.core.spatial.SpatialHash;
 import com.bird.flysword.flight.FlightController;
+import com.bird.flysword.flight.FlightSession;
+import com.bird.flysword.flight.SwordLodPolicy;
+import com.bird.flysword.managers.MetricsManager;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * 飛行引擎
+ * 以單一 tick 任務持有所有飛行會話，並依序執行各階段
+ */
 public class FlightScheduler {
-    
+
+    private static final FlightStage[] STAGES = FlightStage.values();
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int REPORT_INTERVAL_TICKS = 600; // 30秒輸出一次階段統計
+    private static final int LOD_REFRESH_TICKS = 5; // 觀看者距離每 5 tick 重新計算
+    private static final int RIDER_CELL_SIZE = 16;
+
     private final Flysword plugin;
     private final FlightController flightController;
-    private final List<UUID> activePlayers;
-    private int taskId;
-    
+    private final SwordLodPolicy lodPolicy;
+    private final SpatialHash<FlightSession> riderIndex; // 所有會話的空間索引，每 tick 開始時更新位置
+    private final FlightProfiler profiler;
+    private final MetricsManager metrics;
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private int lodCountdown;
+
+    // 緊密排列的會話陣列，移除時以末尾元素補位
+    private FlightSession[] sessions;
+    private int size;
+    private final List<FlightSession> pendingRemovals;
+    private boolean ticking;
+    private int taskId = -1;
+
+    // 階段計時（納秒）
+    private final long[] lastStageNanos;
+    private final long[] windowStageNanos;
+    private final long[] windowStageMaxNanos;
+    private long lastTickNanos;
+    private int windowTicks;
+
     public FlightScheduler(Flysword plugin) {
         this.plugin = plugin;
         this.flightController = plugin.getFlightController();
-        this.activePlayers = new ArrayList<>();
+        this.lodPolicy = new SwordLodPolicy(plugin);
+        this.riderIndex = new SpatialHash<>(RIDER_CELL_SIZE);
+        this.sessions = new FlightSession[INITIAL_CAPACITY];
+        this.pendingRemovals = new ArrayList<>();
+        this.lastStageNanos = new long[STAGES.length];
+        this.windowStageNanos = new long[STAGES.length];
+        this.windowStageMaxNanos = new long[STAGES.length];
+        this.profiler = new FlightProfiler();
+        this.metrics = plugin.getMetricsManager();
+        profiler.setEnabled(plugin.getFlightSettings().isProfilerEnabled());
     }
-    
+
     /**
      * 啟動飛行調度器
      */
@@ -29,17 +75,17 @@ public class FlightScheduler {
         if (taskId != -1) {
             plugin.getServer().getScheduler().cancelTask(taskId);
         }
-        
+
         taskId = new BukkitRunnable() {
             @Override
             public void run() {
-                updateAllFlights();
+                tick();
             }
         }.runTaskTimer(plugin, 1L, 1L).getTaskId();
-        
+
         plugin.getLogger().info("飛行調度器已啟動");
     }
-    
+
     /**
      * 停止飛行調度器
      */
@@ -48,78 +94,285 @@ public class FlightScheduler {
             plugin.getServer().getScheduler().cancelTask(taskId);
             taskId = -1;
         }
-        
+
         plugin.getLogger().info("飛行調度器已停止");
     }
-    
+
     /**
-     * 更新所有飛行
+     * 執行一次完整的飛行 tick：每個階段依序處理所有會話
      */
-    private void updateAllFlights() {
-        // 獲取所有在線玩家
-        List<Player> onlinePlayers = new ArrayList<>(plugin.getServer().getOnlinePlayers());
+    public void tick() {
+        long tickStart = System.nanoTime();
+
+        // 先套用上一個 tick 內的方塊變化，讓碰撞階段看到最新的地形
+        plugin.getCollisionEngine().applyPendingChanges();
         
-        // 批量處理飛行更新
-        for (Player player : onlinePlayers) {
-            if (flightController.isFlying(player.getUniqueId())) {
-                try {
-                    flightController.updateFlight(player);
-                } catch (Exception e) {
-                    plugin.getLogger().warning("更新玩家 " + player.getName() + " 的飛行時發生錯誤: " + e.getMessage());
-                    // 發生錯誤時停止該玩家的飛行
-                    flightController.stopFlight(player);
+        boolean profiling = profiler.isEnabled();
+        if (size == 0) {
+            lastTickNanos = System.nanoTime() - tickStart;
+            Arrays.fill(lastStageNanos, 0L);
+            metrics.recordTick(lastTickNanos);
+            if (profiling) {
+                profiler.endTick(sessions, 0, lastTickNanos);
+            }
+            return;
+        }
+
+        ticking = true;
+        try {
+            if (profiling) {
+                profiler.beginTick(size);
+            }
+            updateRiderIndex();
+            if (--lodCountdown <= 0) {
+                lodCountdown = LOD_REFRESH_TICKS;
+                lodPolicy.refresh(sessions, size, riderIndex);
+            }
+            for (FlightStage stage : STAGES) {
+                long stageStart = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    FlightSession session = sessions[i];
+                    if (!session.isActive()) {
+                        continue;
+                    }
+                    if (profiling) {
+                        long riderStart = System.nanoTime();
+                        runStage(stage, session);
+                        profiler.addRiderNanos(i, System.nanoTime() - riderStart);
+                    } else {
+                        runStage(stage, session);
+                    }
                 }
+                long stageNanos = System.nanoTime() - stageStart;
+                recordStage(stage, stageNanos);
+                if (profiling) {
+                    profiler.recordStage(stage, stageNanos);
+                }
+            }
+            if (profiling) {
+                // 移除延後到 tick 結束，引擎位置在此之前仍對應同一個會話
+                profiler.endTick(sessions, size, System.nanoTime() - tickStart);
             }
+        } finally {
+            ticking = false;
+            flushPendingRemovals();
+        }
+        lastTickNanos = System.nanoTime() - tickStart;
+        metrics.recordTick(lastTickNanos);
+
+        if (++windowTicks >= REPORT_INTERVAL_TICKS) {
+            if (plugin.getFlightSettings().isPerformanceMonitoring()) {
+                for (String line : getStageReport()) {
+                    plugin.getLogger().info(line);
+                }
+            }
+            resetWindow();
         }
-        
-        // 清理離線玩家的飛行狀態
-        cleanupOfflinePlayers();
     }
-    
+
     /**
-     * 清理離線玩家的飛行狀態
+     * 對單一會話執行指定階段，發生錯誤時停止該玩家的飛行
      */
-    private void cleanupOfflinePlayers() {
-        List<UUID> toRemove = new ArrayList<>();
-        
-        for (UUID uuid : activePlayers) {
-            Player player = plugin.getServer().getPlayer(uuid);
-            if (player == null || !player.isOnline()) {
-                toRemove.add(uuid);
-                flightController.handlePlayerQuit(uuid);
+    private void runStage(FlightStage stage, FlightSession session) {
+        try {
+            switch (stage) {
+                case INPUT:
+                    if (!session.getPlayer().isOnline()) {
+                        flightController.handlePlayerQuit(session.getPlayer().getUniqueId());
+                        if (session.isActive()) {
+                            session.stop();
+                        }
+                        return;
+                    }
+                    flightController.processInput(session);
+                    break;
+                case PHYSICS:
+                    flightController.updateMovement(session);
+                    session.applyFlightEffects();
+                    break;
+                case COLLISION:
+                    flightController.checkCollision(session);
+                    break;
+                case RENDER:
+                    session.updateSwordPosition();
+                    break;
+                case DURABILITY:
+                    session.tickDurability();
+                    break;
+                case EFFECTS:
+                    flightController.updateEffects(session);
+                    break;
+            }
+        } catch (Exception e) {
+            Player player = session.getPlayer();
+            plugin.getLogger().warning("更新玩家 " + player.getName() + " 的飛行時發生錯誤 ("
+                + stage.getDisplayName() + "): " + e.getMessage());
+            // 發生錯誤時停止該玩家的飛行
+            flightController.handlePlayerQuit(player.getUniqueId());
+            if (session.isActive()) {
+                session.stop();
             }
         }
-        
-        activePlayers.removeAll(toRemove);
     }
-    
+
     /**
-     * 添加活躍玩家
+     * 將所有會話的目前位置寫入空間索引，只有跨越網格的會話需要搬移
      */
-    public void addActivePlayer(UUID uuid) {
-        if (!activePlayers.contains(uuid)) {
-            activePlayers.add(uuid);
+    private void updateRiderIndex() {
+        for (int i = 0; i < size; i++) {
+            FlightSession session = sessions[i];
+            Location location = session.getPlayer().getLocation(scratch);
+            riderIndex.update(session.getSpatialEntry(), location.getWorld(),
+                location.getX(), location.getY(), location.getZ());
+        }
+    }
+
+    private void recordStage(FlightStage stage, long nanos) {
+        int index = stage.ordinal();
+        lastStageNanos[index] = nanos;
+        windowStageNanos[index] += nanos;
+        metrics.recordStage(stage, nanos);
+        if (nanos > windowStageMaxNanos[index]) {
+            windowStageMaxNanos[index] = nanos;
         }
     }
-    
+
+    private void resetWindow() {
+        windowTicks = 0;
+        Arrays.fill(windowStageNanos, 0L);
+        Arrays.fill(windowStageMaxNanos, 0L);
+    }
+
     /**
-     * 移除活躍玩家
+     * 註冊飛行會話
      */
-    public void removeActivePlayer(UUID uuid) {
-        activePlayers.remove(uuid);
+    public void register(FlightSession session) {
+        if (session.getEngineSlot() != -1) {
+            return;
+        }
+        if (size == sessions.length) {
+            sessions = Arrays.copyOf(sessions, size * 2);
+        }
+        sessions[size] = session;
+        session.setEngineSlot(size);
+        size++;
+        Location location = session.getPlayer().getLocation(scratch);
+        session.setSpatialEntry(riderIndex.insert(session, location.getWorld(),
+            location.getX(), location.getY(), location.getZ()));
     }
-    
+
+    /**
+     * 移除飛行會話（tick 進行中則延後到 tick 結束）
+     */
+    public void unregister(FlightSession session) {
+        if (session.getEngineSlot() == -1) {
+            return;
+        }
+        if (ticking) {
+            pendingRemovals.add(session);
+        } else {
+            removeNow(session);
+        }
+    }
+
+    private void flushPendingRemovals() {
+        if (pendingRemovals.isEmpty()) {
+            return;
+        }
+        for (FlightSession session : pendingRemovals) {
+            removeNow(session);
+        }
+        pendingRemovals.clear();
+    }
+
+    private void removeNow(FlightSession session) {
+        int slot = session.getEngineSlot();
+        if (slot == -1 || slot >= size || sessions[slot] != session) {
+            return;
+        }
+        int last = size - 1;
+        if (slot != last) {
+            sessions[slot] = sessions[last];
+            sessions[slot].setEngineSlot(slot);
+        }
+        sessions[last] = null;
+        size = last;
+        session.setEngineSlot(-1);
+        if (session.getSpatialEntry() != null) {
+            riderIndex.remove(session.getSpatialEntry());
+        }
+    }
+
+    /**
+     * 獲取各階段統計報告
+     */
+    public List<String> getStageReport() {
+        List<String> lines = new ArrayList<>();
+        int ticks = Math.max(1, windowTicks);
+        lines.add(String.format("飛行引擎: %d 個會話, 上次 tick %.3f ms", size, lastTickNanos / 1_000_000.0));
+        for (FlightStage stage : STAGES) {
+            int index = stage.ordinal();
+            lines.add(String.format("  %s: 平均 %.3f ms, 最大 %.3f ms",
+                stage.getDisplayName(),
+                windowStageNanos[index] / (double) ticks / 1_000_000.0,
+                windowStageMaxNanos[index] / 1_000_000.0));
+        }
+        SwordUpdateStats renderStats = plugin.getSwordUpdateStats();
+        lines.add(String.format("  飛劍更新: 已送出 %d, 已略過 %d (%.1f%%), 細節層級略過 %d",
+            renderStats.getSent(), renderStats.getSuppressed(), renderStats.getSuppressedRatio() * 100.0,
+            renderStats.getLodSkipped()));
+        EffectStats effectStats = plugin.getEffectManager().getStats();
+        lines.add(String.format("  特效: 請求 %d, 合併 %d, 視野外 %d, 畫質略過 %d, 超出預算 %d, 粒子封包 %d, 音效 %d",
+            effectStats.getQueued(), effectStats.getMerged(), effectStats.getCulled(), effectStats.getScaledOut(),
+            effectStats.getOverBudget(), effectStats.getParticlesSent(), effectStats.getSoundsSent()));
+        lines.add(String.format("  性能調節: 等級 %d/%d", plugin.getPerformanceOptimizer().getLevel(),
+            PerformanceOptimizer.MAX_LEVEL));
+        return lines;
+    }
+
+    /**
+     * 獲取指定階段上一次 tick 的耗時（納秒）
+     */
+    public long getLastStageNanos(FlightStage stage) {
+        return lastStageNanos[stage.ordinal()];
+    }
+
+    /**
+     * 獲取上一次 tick 的總耗時（納秒），包含套用方塊變化
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * 獲取飛行引擎取樣分析器
+     */
+    public FlightProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * 獲取飛行者的空間索引，位置於每 tick 開始時更新
+     */
+    public SpatialHash<FlightSession> getRiderIndex() {
+        return riderIndex;
+    }
+
     /**
      * 獲取活躍玩家數量
      */
     public int getActivePlayerCount() {
-        return activePlayers.size();
+        return size;
     }
-    
+
     /**
      * 獲取所有活躍玩家
      */
     public List<UUID> getActivePlayers() {
-        return new ArrayList<>(activePlayers);
+        List<UUID> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            players.add(sessions[i].getPlayer().getUniqueId());
+        }
+        return players;
     }
 }
@@ -0,0 +1,23 @@
+package com.bird.flysword.scheduler;
+
+/**
+ * 飛行引擎每 tick 依序執行的階段
+ */
+public enum FlightStage {
+    INPUT("輸入"),
+    PHYSICS("物理"),
+    COLLISION("碰撞"),
+    RENDER("飛劍渲染"),
+    DURABILITY("耐久度"),
+    EFFECTS("特效");
+
+    private final String displayName;
+
+    FlightStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -150,6 +150,7 @@ public class ArmorStandFixTestUtils implements CommandExecutor {
                 // 快速切換角度
                 double angle = testAngles[count % testAngles.length];
                 plugin.getConfig().set("flight.sword_rotation.y", angle);
+                plugin.reloadFlightSettings();
                 player.sendMessage("§e測試角度: §a" + angle + "° §7(" + (count + 1) + "/14)");
                 
                 count++;
@@ -200,6 +201,7 @@ public class ArmorStandFixTestUtils implements CommandExecutor {
                     plugin.getConfig().set("flight.sword_rotation.x", 0.0);
                     plugin.getConfig().set("flight.sword_rotation.y", 0.0);
                     plugin.getConfig().set("flight.sword_rotation.z", 0.0);
+                    plugin.reloadFlightSettings();
                     
                     plugin.getFlightController().stopFlight(player);
                     player.sendMessage("§a角度穩定性測試完成！");
@@ -211,24 +213,29 @@ public class ArmorStandFixTestUtils implements CommandExecutor {
                 switch (step) {
                     case 0:
                         plugin.getConfig().set("flight.sword_rotation.x", 90.0);
+                        plugin.reloadFlightSettings();
                         player.sendMessage("§e測試 X軸 90°");
                         break;
                     case 1:
                         plugin.getConfig().set("flight.sword_rotation.y", 90.0);
+                        plugin.reloadFlightSettings();
                         player.sendMessage("§e測試 Y軸 90°");
                         break;
                     case 2:
                         plugin.getConfig().set("flight.sword_rotation.z", 90.0);
+                        plugin.reloadFlightSettings();
                         player.sendMessage("§e測試 Z軸 90°");
                         break;
                     case 3:
                         plugin.getConfig().set("flight.sword_rotation.x", 45.0);
                         plugin.getConfig().set("flight.sword_rotation.y", 45.0);
+                        plugin.reloadFlightSettings();
                         player.sendMessage("§e測試複合角度 45°+45°");
                         break;
                     default:
                         double angle = step * 30;
                         plugin.getConfig().set("flight.sword_rotation.y", angle);
+                        plugin.reloadFlightSettings();
                         player.sendMessage("§e測試角度: " + angle + "°");
                         break;
                 }
@@ -124,6 +124,7 @@ public class ShiftLandingTestUtils implements CommandExecutor {
     private void toggleShiftLanding(Player player) {
         boolean currentState = plugin.getConfig().getBoolean("flight.shift_landing.enabled", true);
         plugin.getConfig().set("flight.shift_landing.enabled", !currentState);
+        plugin.reloadFlightSettings();
         
         String status = currentState ? "§c關閉" : "§a開啟";
         player.sendMessage("§a已" + status + " Shift 降落功能！");
@@ -143,6 +144,7 @@ public class ShiftLandingTestUtils implements CommandExecutor {
         
         long delayMs = seconds * 1000L;
         plugin.getConfig().set("flight.shift_landing.delay", delayMs);
+        plugin.reloadFlightSettings();
         
         player.sendMessage("§a已設定 Shift 降落延遲為 " + seconds + " 秒！");
         player.sendMessage("§7現在需要長按 Shift " + seconds + " 秒來觸發強制降落");
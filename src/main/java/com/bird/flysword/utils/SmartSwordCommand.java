@@ -83,6 +83,7 @@ public class SmartSwordCommand implements CommandExecutor {
 
     private void enableAutoCalculation(Player player) {
         plugin.getConfig().set("flight.smart_calculation.enabled", true);
+        plugin.reloadFlightSettings();
         player.sendMessage("§a已啟用智能飛劍計算系統！");
         player.sendMessage("§e系統將根據您的飛行狀態自動調整飛劍角度");
         
@@ -95,6 +96,7 @@ public class SmartSwordCommand implements CommandExecutor {
 
     private void disableAutoCalculation(Player player) {
         plugin.getConfig().set("flight.smart_calculation.enabled", false);
+        plugin.reloadFlightSettings();
         player.sendMessage("§c已停用智能飛劍計算系統");
         player.sendMessage("§7將使用配置檔中的固定角度");
     }
@@ -167,6 +169,7 @@ public class SmartSwordCommand implements CommandExecutor {
         plugin.getConfig().set("flight.sword_rotation.x", rotation.getX());
         plugin.getConfig().set("flight.sword_rotation.y", rotation.getY());
         plugin.getConfig().set("flight.sword_rotation.z", rotation.getZ());
+        plugin.reloadFlightSettings();
 
         player.sendMessage("§a已應用 §e" + modeName + " §a飛行模式");
         player.sendMessage("§7角度: X=" + String.format("%.1f", rotation.getX()) + 
@@ -255,6 +258,7 @@ public class SmartSwordCommand implements CommandExecutor {
                 plugin.getConfig().set("flight.sword_rotation.x", rotation.getX());
                 plugin.getConfig().set("flight.sword_rotation.y", rotation.getY());
                 plugin.getConfig().set("flight.sword_rotation.z", rotation.getZ());
+                plugin.reloadFlightSettings();
             }
         }.runTaskTimer(plugin, 0L, 60L); // 每3秒一個模式
     }
@@ -119,6 +119,7 @@ public class SpeedTestUtils implements CommandExecutor {
 
     private void reloadConfig(Player player) {
         plugin.reloadConfig();
+        plugin.reloadFlightSettings();
         player.sendMessage("§a配置文件已重新載入！");
         player.sendMessage("§e注意: 速度更改可能需要重啟飛行才能生效。");
     }
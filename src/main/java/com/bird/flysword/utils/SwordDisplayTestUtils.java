@@ -177,6 +177,7 @@ public class SwordDisplayTestUtils implements CommandExecutor {
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
                 double angle = step * 45; // 0, 45, 90, 135, 180, 225, 270, 315
                 plugin.getConfig().set("flight.sword_rotation.y", angle);
+                plugin.reloadFlightSettings();
                 player.sendMessage("§e角度: §a" + angle + "°");
             }, i * 40L); // 每2秒一次
         }
@@ -185,6 +186,7 @@ public class SwordDisplayTestUtils implements CommandExecutor {
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
             plugin.getFlightController().stopFlight(player);
             plugin.getConfig().set("flight.sword_rotation.y", 0.0);
+            plugin.reloadFlightSettings();
             player.sendMessage("§a循環角度測試完成！");
         }, 320L + 40L);
     }
@@ -194,11 +196,13 @@ public class SwordDisplayTestUtils implements CommandExecutor {
         plugin.getConfig().set("flight.sword_offset.x", 0.0);
         plugin.getConfig().set("flight.sword_offset.y", -2.0);
         plugin.getConfig().set("flight.sword_offset.z", 0.0);
+        plugin.reloadFlightSettings();
         
         // 重置角度
         plugin.getConfig().set("flight.sword_rotation.x", 0.0);
         plugin.getConfig().set("flight.sword_rotation.y", 0.0);
         plugin.getConfig().set("flight.sword_rotation.z", 0.0);
+        plugin.reloadFlightSettings();
         
         player.sendMessage("§a已重置所有顯示設定為預設值！");
         player.sendMessage("§7位置: 玩家腳下 (0, -2, 0)");
@@ -231,5 +235,6 @@ public class SwordDisplayTestUtils implements CommandExecutor {
         plugin.getConfig().set("flight.sword_rotation.x", x);
         plugin.getConfig().set("flight.sword_rotation.y", y);
         plugin.getConfig().set("flight.sword_rotation.z", z);
+        plugin.reloadFlightSettings();
     }
 }
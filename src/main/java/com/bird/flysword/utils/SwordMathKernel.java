@@ -0,0 +1,91 @@
+package com.bird.flysword.utils;
+
+/**
+ * 飛劍智能變換的基本型別計算核心
+ * 與 {@link SwordMathUtils#calculateOptimalSwordTransform} 結果相同，
+ * 但只使用 double 運算並寫入呼叫者持有的陣列，每次呼叫不配置任何物件
+ */
+public final class SwordMathKernel {
+
+    // 輸出陣列的索引
+    public static final int POSITION_X = 0;
+    public static final int POSITION_Y = 1;
+    public static final int POSITION_Z = 2;
+    public static final int ROTATION_X = 3; // 俯仰角（度）
+    public static final int ROTATION_Y = 4; // 偏航角（度）
+    public static final int ROTATION_Z = 5; // 翻滾角（度）
+    public static final int OUTPUT_SIZE = 6;
+
+    private static final double MOVING_SPEED_SQUARED = 0.01;
+    private static final double VIEW_WEIGHT = 0.7;
+    private static final double VELOCITY_WEIGHT = 0.3;
+    private static final double MAX_ROLL = 30.0;
+    private static final double MAX_PITCH = 85.0;
+
+    private SwordMathKernel() {
+    }
+
+    /**
+     * 計算飛劍相對於玩家的位置偏移與角度
+     *
+     * @param yaw 玩家偏航角（度）
+     * @param pitch 玩家俯仰角（度）
+     * @param velocityX 玩家速度
+     * @param velocityY 玩家速度
+     * @param velocityZ 玩家速度
+     * @param out 長度至少為 {@link #OUTPUT_SIZE} 的輸出陣列
+     */
+    public static void computeTransform(double yaw, double pitch,
+                                        double velocityX, double velocityY, double velocityZ,
+                                        double[] out) {
+        // 視線方向，與 Location.getDirection() 相同
+        double yawRad = Math.toRadians(yaw);
+        double pitchRad = Math.toRadians(pitch);
+        double horizontal = Math.cos(pitchRad);
+        double dirX = -horizontal * Math.sin(yawRad);
+        double dirY = -Math.sin(pitchRad);
+        double dirZ = horizontal * Math.cos(yawRad);
+
+        double speedSquared = velocityX * velocityX + velocityY * velocityY + velocityZ * velocityZ;
+        double speed = Math.sqrt(speedSquared);
+        boolean moving = speedSquared > MOVING_SPEED_SQUARED;
+
+        // 有移動速度時結合速度方向：70%視線方向 + 30%速度方向
+        if (moving) {
+            double blendX = dirX * VIEW_WEIGHT + velocityX / speed * VELOCITY_WEIGHT;
+            double blendY = dirY * VIEW_WEIGHT + velocityY / speed * VELOCITY_WEIGHT;
+            double blendZ = dirZ * VIEW_WEIGHT + velocityZ / speed * VELOCITY_WEIGHT;
+            double length = Math.sqrt(blendX * blendX + blendY * blendY + blendZ * blendZ);
+            if (length > 0.0) {
+                dirX = blendX / length;
+                dirY = blendY / length;
+                dirZ = blendZ / length;
+            }
+        }
+
+        // 位置：玩家腳下，向飛行方向前移並稍微向下，高速時更前方
+        double forward = 0.5;
+        if (speed > 0.5) {
+            forward += Math.min(speed / 2.0, 1.0) * 0.3;
+        }
+        out[POSITION_X] = dirX * forward;
+        out[POSITION_Y] = -2.0 + dirY * forward - 0.3;
+        out[POSITION_Z] = dirZ * forward;
+
+        // 翻滾角：依橫向速度分量，右向量為 forward × up = (-z, 0, x)
+        double roll = 0.0;
+        if (moving) {
+            double rightLength = Math.sqrt(dirX * dirX + dirZ * dirZ);
+            if (rightLength > 0.0) {
+                double lateralSpeed = (-dirZ * velocityX + dirX * velocityZ) / rightLength;
+                roll = Math.tanh(lateralSpeed * 2.0) * MAX_ROLL;
+            }
+        }
+
+        // 高速時稍微上翹並限制極端角度；低速時減少翻滾
+        double swordPitch = Math.toDegrees(Math.asin(-dirY)) + Math.tanh(speed) * 5.0;
+        out[ROTATION_X] = Math.max(-MAX_PITCH, Math.min(MAX_PITCH, swordPitch));
+        out[ROTATION_Y] = Math.toDegrees(Math.atan2(-dirX, dirZ));
+        out[ROTATION_Z] = roll * Math.min(speed, 1.0);
+    }
+}
@@ -21,66 +21,19 @@ public class SwordMathUtils {
     
     /**
      * 根據玩家的移動方向和速度計算飛劍的最佳位置和角度
+     * 每 tick 呼叫的場合請直接使用 {@link SwordMathKernel}，避免配置物件
      */
     public static SwordTransform calculateOptimalSwordTransform(Player player) {
         Location playerLoc = player.getLocation();
         Vector velocity = player.getVelocity();
         
-        // 計算飛行方向向量
-        Vector flightDirection = getFlightDirection(player, velocity);
+        double[] out = new double[SwordMathKernel.OUTPUT_SIZE];
+        SwordMathKernel.computeTransform(playerLoc.getYaw(), playerLoc.getPitch(),
+            velocity.getX(), velocity.getY(), velocity.getZ(), out);
         
-        // 計算飛劍位置
-        Vector swordPosition = calculateSwordPosition(playerLoc, flightDirection, velocity);
-        
-        // 計算飛劍角度
-        Vector swordRotation = calculateSwordRotation(flightDirection, velocity);
-        
-        return new SwordTransform(swordPosition, swordRotation);
-    }
-    
-    /**
-     * 根據玩家視線方向計算飛劍應該指向的方向
-     */
-    private static Vector getFlightDirection(Player player, Vector velocity) {
-        Location playerLoc = player.getLocation();
-        
-        // 基於玩家視線方向的方向向量
-        Vector viewDirection = playerLoc.getDirection().normalize();
-        
-        // 如果玩家有移動速度，結合速度方向
-        if (velocity.lengthSquared() > 0.01) {
-            Vector velocityDirection = velocity.clone().normalize();
-            
-            // 加權平均：70%視線方向 + 30%速度方向
-            viewDirection.multiply(0.7);
-            velocityDirection.multiply(0.3);
-            viewDirection.add(velocityDirection);
-        }
-        
-        return viewDirection.normalize();
-    }
-    
-    /**
-     * 計算飛劍相對於玩家的最佳位置
-     */
-    private static Vector calculateSwordPosition(Location playerLoc, Vector flightDirection, Vector velocity) {
-        // 基礎位置：玩家腳下
-        Vector baseOffset = new Vector(0, -2.0, 0);
-        
-        // 根據飛行方向調整位置
-        // 飛劍應該在玩家前方稍微偏下的位置
-        Vector forwardOffset = flightDirection.clone().multiply(0.5);
-        forwardOffset.setY(forwardOffset.getY() - 0.3); // 稍微向下偏移
-        
-        // 根據速度調整位置（高速時飛劍更前方）
-        double speed = velocity.length();
-        if (speed > 0.5) {
-            double speedFactor = Math.min(speed / 2.0, 1.0); // 限制最大偏移
-            Vector speedOffset = flightDirection.clone().multiply(speedFactor * 0.3);
-            forwardOffset.add(speedOffset);
-        }
-        
-        return baseOffset.add(forwardOffset);
+        return new SwordTransform(
+            new Vector(out[SwordMathKernel.POSITION_X], out[SwordMathKernel.POSITION_Y], out[SwordMathKernel.POSITION_Z]),
+            new Vector(out[SwordMathKernel.ROTATION_X], out[SwordMathKernel.ROTATION_Y], out[SwordMathKernel.ROTATION_Z]));
     }
     
     /**
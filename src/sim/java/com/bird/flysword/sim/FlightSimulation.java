@@ -0,0 +1,331 @@
+package com.bird.flysword.sim;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+import org.bukkit.Location;
+
+import com.bird.flysword.Flysword;
+import com.bird.flysword.HeadlessFlysword;
+import com.bird.flysword.core.metrics.LatencyHistogram;
+import com.bird.flysword.flight.FlightController;
+import com.bird.flysword.headless.HeadlessPlayer;
+import com.bird.flysword.headless.HeadlessServer;
+import com.bird.flysword.headless.HeadlessSwordRenderer;
+import com.bird.flysword.headless.HeadlessWorld;
+
+/**
+ * 無頭負載模擬
+ * 在替身伺服器上讓 N 位依腳本飛行的替身玩家飛越產生的地形 M 個 tick，
+ * 報告每 tick 耗時的百分位數、主線程的配置量與實體更新等計數；同一組參數與種子產生相同的飛行路徑
+ *
+ * 執行：./gradlew simulate -Psim.riders=500 -Psim.ticks=1200
+ * 參數：riders、ticks、warmup（不計入結果的暖機 tick）、seed、pace（是否以 20 TPS 節拍執行）、
+ * max-p99-ms（p99 超過門檻時以代碼 1 結束，供持續整合使用）
+ *
+ * 插件的冷卻、Shift 降落等以牆鐘時間計算，預設以 20 TPS 節拍執行以保持這些行為與伺服器一致；
+ * 關閉節拍可更快得到耗時數字，但與時間相關的行為會被壓縮
+ */
+public final class FlightSimulation {
+
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final double AREA_PER_RIDER = 256.0; // 平方格
+    private static final double SPAWN_MIN_Y = 85.0;
+    private static final double SPAWN_MAX_Y = 100.0;
+
+    private final Options options;
+    private final HeadlessServer server;
+    private final HeadlessWorld world;
+    private final HeadlessFlysword flysword;
+    private final Flysword plugin;
+    private final FlightController controller;
+    private final Random random;
+    private final SimulatedRider[] riders;
+    private final LatencyHistogram tickHistogram = new LatencyHistogram();
+    private final SimulationCounters counters = new SimulationCounters();
+    private long tick;
+    private long overrunTicks;
+    private long degradedTicks;
+    private int maxGovernorLevel;
+    private int failedLaunches;
+
+    private FlightSimulation(Options options, HeadlessServer server, HeadlessWorld world, HeadlessFlysword flysword) {
+        this.options = options;
+        this.server = server;
+        this.world = world;
+        this.flysword = flysword;
+        this.plugin = flysword.getPlugin();
+        this.controller = plugin.getFlightController();
+        this.random = new Random(options.seed);
+        this.riders = new SimulatedRider[options.riders];
+        registerCounters();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HeadlessServer server = HeadlessServer.get();
+        HeadlessWorld world = server.createWorld("simulation", options.seed);
+
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("debug.profiler.enabled", true);
+        HeadlessFlysword flysword = HeadlessFlysword.start(server, overrides);
+        int exitCode;
+        try {
+            exitCode = new FlightSimulation(options, server, world, flysword).run();
+        } finally {
+            flysword.stop();
+        }
+        // 插件與替身排程器的背景線程不會自行結束
+        System.exit(exitCode);
+    }
+
+    private void registerCounters() {
+        HeadlessSwordRenderer renderer = flysword.getRenderer();
+        counters.register("飛劍實體生成", renderer::getSpawned);
+        counters.register("飛劍實體更新", renderer::getUpdates);
+        counters.register("飛劍實體移除", renderer::getRemoved);
+        counters.register("飛劍更新略過 (變化低於門檻)", () -> plugin.getSwordUpdateStats().getSuppressed());
+        counters.register("飛劍更新略過 (細節層級)", () -> plugin.getSwordUpdateStats().getLodSkipped());
+        counters.register("障礙物掃描", () -> plugin.getCollisionEngine().getStats().getSweeps());
+        counters.register("障礙物預測 (背景線程)", () -> plugin.getCollisionEngine().getStats().getPredictions());
+        counters.register("發現障礙物", () -> plugin.getCollisionEngine().getStats().getObstacleHits());
+        counters.register("降落探測", () -> plugin.getCollisionEngine().getStats().getLandingProbes());
+        counters.register("特效請求", () -> plugin.getEffectManager().getStats().getQueued());
+        counters.register("特效合併", () -> plugin.getEffectManager().getStats().getMerged());
+        counters.register("特效視野剔除", () -> plugin.getEffectManager().getStats().getCulled());
+        counters.register("特效畫質略過", () -> plugin.getEffectManager().getStats().getScaledOut());
+        counters.register("特效超出預算", () -> plugin.getEffectManager().getStats().getOverBudget());
+        counters.register("粒子封包", () -> plugin.getEffectManager().getStats().getParticlesSent());
+        counters.register("音效封包", () -> plugin.getEffectManager().getStats().getSoundsSent());
+        counters.register("玩家傳送", () -> {
+            long total = 0;
+            for (SimulatedRider rider : riders) {
+                total += rider.getPlayer().getTeleports();
+            }
+            return total;
+        });
+        counters.register("玩家訊息", () -> {
+            long total = 0;
+            for (SimulatedRider rider : riders) {
+                total += rider.getPlayer().getMessagesReceived();
+            }
+            return total;
+        });
+        counters.register("起飛", () -> {
+            long total = 0;
+            for (SimulatedRider rider : riders) {
+                total += rider.getLaunches();
+            }
+            return total;
+        });
+        counters.register("降落", () -> {
+            long total = 0;
+            for (SimulatedRider rider : riders) {
+                total += rider.getLandings();
+            }
+            return total;
+        });
+        counters.register("數據保存排入", () -> plugin.getDataManager().getSavesQueued());
+    }
+
+    private int run() {
+        spawnRiders();
+        for (int i = 0; i < options.warmup; i++) {
+            tickOnce(false);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean allocationSupported = threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        counters.mark();
+        plugin.getFlightScheduler().getProfiler().reset();
+        long gcCountStart = gcCount();
+        long gcTimeStart = gcTime();
+        long allocatedStart = allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0L;
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < options.ticks; i++) {
+            tickOnce(true);
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        long allocated = allocationSupported ? threads.getCurrentThreadAllocatedBytes() - allocatedStart : -1L;
+
+        report(wallNanos, allocated, gcCount() - gcCountStart, gcTime() - gcTimeStart);
+
+        double p99Ms = tickHistogram.getPercentile(99) / 1_000_000.0;
+        if (options.maxP99Ms > 0 && p99Ms > options.maxP99Ms) {
+            System.out.printf(Locale.ROOT, "失敗: p99 %.3f ms 超過門檻 %.3f ms%n", p99Ms, options.maxP99Ms);
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * 在正方形區域內隨機放置飛行者並起飛，密度固定為每位約 256 平方格
+     */
+    private void spawnRiders() {
+        double side = Math.sqrt(options.riders * AREA_PER_RIDER);
+        SimulatedRider.Maneuver[] maneuvers = SimulatedRider.Maneuver.values();
+        for (int i = 0; i < riders.length; i++) {
+            Location location = new Location(world.getWorld(),
+                (random.nextDouble() - 0.5) * side,
+                SPAWN_MIN_Y + random.nextDouble() * (SPAWN_MAX_Y - SPAWN_MIN_Y),
+                (random.nextDouble() - 0.5) * side,
+                random.nextFloat() * 360.0f - 180.0f, 0.0f);
+            HeadlessPlayer player = flysword.join("rider-" + i, location);
+            riders[i] = new SimulatedRider(player, maneuvers[random.nextInt(maneuvers.length)], random);
+            if (!riders[i].launch(controller)) {
+                failedLaunches++;
+            }
+        }
+    }
+
+    /**
+     * 更新所有飛行者的輸入後推進一個伺服器 tick，只計時伺服器 tick 本身
+     */
+    private void tickOnce(boolean measuring) {
+        long tickStart = System.nanoTime();
+        for (SimulatedRider rider : riders) {
+            rider.steer(tick, controller, random);
+        }
+        long serverStart = System.nanoTime();
+        server.tick();
+        long elapsed = System.nanoTime() - serverStart;
+        tick++;
+
+        if (measuring) {
+            tickHistogram.record(elapsed);
+            if (elapsed > TICK_NANOS) {
+                overrunTicks++;
+            }
+            int level = plugin.getPerformanceOptimizer().getLevel();
+            if (level > 0) {
+                degradedTicks++;
+            }
+            maxGovernorLevel = Math.max(maxGovernorLevel, level);
+        }
+
+        if (options.pace) {
+            long deadline = tickStart + TICK_NANOS;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+
+    private void report(long wallNanos, long allocated, long gcCount, long gcTimeMillis) {
+        Map<SimulatedRider.Maneuver, Integer> mix = new EnumMap<>(SimulatedRider.Maneuver.class);
+        for (SimulatedRider rider : riders) {
+            mix.merge(rider.getManeuver(), 1, Integer::sum);
+        }
+        int ticks = options.ticks;
+
+        System.out.println("=== 飛劍負載模擬 ===");
+        System.out.printf(Locale.ROOT, "飛行者: %d %s, 起飛失敗 %d, 結束時飛行中 %d%n",
+            riders.length, mix, failedLaunches, plugin.getFlightScheduler().getActivePlayerCount());
+        System.out.printf(Locale.ROOT, "tick: 暖機 %d, 測量 %d (%s), 種子 %d, 牆鐘 %.1f 秒%n",
+            options.warmup, ticks, options.pace ? "20 TPS 節拍" : "不節拍", options.seed, wallNanos / 1e9);
+
+        System.out.println("--- 每 tick 耗時 (毫秒) ---");
+        System.out.printf(Locale.ROOT, "p50 %.3f / p95 %.3f / p99 %.3f / p99.9 %.3f / 最大 %.3f / 平均 %.3f%n",
+            tickHistogram.getPercentile(50) / 1e6, tickHistogram.getPercentile(95) / 1e6,
+            tickHistogram.getPercentile(99) / 1e6, tickHistogram.getPercentile(99.9) / 1e6,
+            tickHistogram.getMax() / 1e6, tickHistogram.getMean() / 1e6);
+        System.out.printf(Locale.ROOT, "超過 50 ms 的 tick: %d, 性能調節降級的 tick: %d (最高等級 %d)%n",
+            overrunTicks, degradedTicks, maxGovernorLevel);
+
+        System.out.println("--- 主線程配置 ---");
+        if (allocated < 0) {
+            System.out.println("此 JVM 不支援線程配置量統計");
+        } else {
+            double perTick = allocated / (double) ticks;
+            System.out.printf(Locale.ROOT, "總計 %.1f MB, 每 tick %.1f KB, 以 20 TPS 換算 %.2f MB/s%n",
+                allocated / 1048576.0, perTick / 1024.0, perTick * 20.0 / 1048576.0);
+        }
+        System.out.printf(Locale.ROOT, "GC: %d 次, %d ms%n", gcCount, gcTimeMillis);
+
+        System.out.println("--- 計數 (測量期間) ---");
+        List<String> names = counters.getNames();
+        long[] deltas = counters.deltas();
+        for (int i = 0; i < deltas.length; i++) {
+            System.out.printf(Locale.ROOT, "%s: %d (每 tick %.2f)%n", names.get(i), deltas[i], deltas[i] / (double) ticks);
+        }
+
+        System.out.println("--- 飛行引擎取樣 ---");
+        for (String line : plugin.getFlightScheduler().getProfiler().getReport(5)) {
+            System.out.println(line.replaceAll("§.", ""));
+        }
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0L, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0L, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * 命令列參數，格式為 --名稱=值
+     */
+    private static final class Options {
+        int riders = 500;
+        int ticks = 1200;
+        int warmup = 200;
+        long seed = 42L;
+        boolean pace = true;
+        double maxP99Ms;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("無效的參數: " + arg + "（格式為 --名稱=值）");
+                }
+                String name = arg.substring(2, separator);
+                String value = arg.substring(separator + 1);
+                switch (name) {
+                    case "riders":
+                        options.riders = Integer.parseInt(value);
+                        break;
+                    case "ticks":
+                        options.ticks = Integer.parseInt(value);
+                        break;
+                    case "warmup":
+                        options.warmup = Integer.parseInt(value);
+                        break;
+                    case "seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "pace":
+                        options.pace = Boolean.parseBoolean(value);
+                        break;
+                    case "max-p99-ms":
+                        options.maxP99Ms = Double.parseDouble(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知的參數: " + name);
+                }
+            }
+            if (options.riders <= 0 || options.ticks <= 0 || options.warmup < 0) {
+                throw new IllegalArgumentException("riders 與 ticks 必須大於 0，warmup 不可為負數");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bird.flysword.sim;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.inventory.ItemStack;
+
+import com.bird.flysword.core.render.PacketSwordRenderer;
+import com.bird.flysword.core.render.SwordDisplay;
+import com.bird.flysword.headless.HeadlessPlayer;
+import com.bird.flysword.headless.HeadlessServer;
+import com.bird.flysword.headless.RecordingSwordProtocol;
+import com.bird.flysword.headless.RecordingSwordProtocol.Kind;
+import com.bird.flysword.headless.RecordingSwordProtocol.Packet;
+
+/**
+ * 封包渲染器檢查
+ * 以記錄封包的協定取代 ProtocolLib，驗證觀看者收到的封包：首次掃描時生成、門檻內的移動只送相對移動、
+ * 超過相對移動範圍的跳躍先移除再重新生成、觀看者切換世界（客戶端清除實體）後重新生成；
+ * 不符時以代碼 1 結束
+ *
+ * 執行：./gradlew checkPacketRenderer（check 任務也會執行）
+ */
+public final class PacketRendererCheck {
+
+    private static final double VIEW_DISTANCE = 48.0;
+    private static final int VIEWER_SCAN_INTERVAL = 10; // 與 PacketSwordDisplay 相同
+
+    private final RecordingSwordProtocol protocol = new RecordingSwordProtocol();
+    private final PacketSwordRenderer renderer = new PacketSwordRenderer(protocol, VIEW_DISTANCE);
+    private final ItemStack item = new ItemStack(Material.IRON_SWORD);
+    private final HeadlessPlayer rider;
+    private final HeadlessPlayer viewer;
+    private final World world;
+
+    private PacketRendererCheck(HeadlessServer server) {
+        this.world = server.createWorld("render-check", 0L).getWorld();
+        this.rider = server.join("rider", new Location(world, 0.0, 100.0, 0.0));
+        this.viewer = server.join("viewer", new Location(world, 5.0, 100.0, 0.0));
+    }
+
+    public static void main(String[] args) {
+        HeadlessServer server = HeadlessServer.get();
+        try {
+            new PacketRendererCheck(server).run();
+            System.out.println("封包渲染器檢查通過");
+        } catch (IllegalStateException e) {
+            System.out.println("失敗: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            server.reset();
+        }
+    }
+
+    private void run() {
+        UUID viewerId = viewer.getUniqueId();
+        Location location = new Location(world, 0.0, 101.0, 0.0, 90.0f, 0.0f);
+
+        // 生成：第一次更新即掃描觀看者，依序送出生成、元數據與頭盔
+        SwordDisplay display = renderer.spawn(rider.getPlayer(), item, location, 10.0, 20.0, 30.0);
+        expectKinds("生成", viewerId, Kind.SPAWN, Kind.METADATA, Kind.HELMET);
+        Packet spawn = protocol.getPackets(viewerId).get(0);
+        expect(spawn.getX() == 0.0 && spawn.getY() == 101.0 && spawn.getZ() == 0.0 && spawn.getYaw() == 90.0f,
+            "生成位置錯誤: " + spawn);
+        Packet metadata = protocol.getPackets(viewerId).get(1);
+        expect(metadata.getX() == 10.0 && metadata.getY() == 20.0 && metadata.getZ() == 30.0,
+            "生成時的頭部姿勢錯誤: " + metadata);
+        expect(protocol.getPackets(viewerId).get(2).getItem() == item, "頭盔欄位的物品錯誤");
+        int entityId = spawn.getEntityId();
+        protocol.clear();
+
+        // 門檻內的移動：只送相對移動，姿勢未變不送元數據
+        location.add(0.5, -0.25, 2.0);
+        display.update(location, 10.0, 20.0, 30.0);
+        expectKinds("門檻內的移動", viewerId, Kind.MOVE);
+        Packet move = protocol.getPackets(viewerId).get(0);
+        expect(move.getEntityId() == entityId, "相對移動的實體 ID 錯誤: " + move);
+        expect(move.getX() == 2048 && move.getY() == -1024 && move.getZ() == 8192,
+            "相對移動的位移錯誤: " + move);
+        protocol.clear();
+
+        // 跳躍超過 8 格：相對移動無法表示，先移除再於新位置生成
+        location.add(20.0, 0.0, 0.0);
+        display.update(location, 10.0, 20.0, 30.0);
+        expectKinds("大幅跳躍", viewerId, Kind.DESTROY, Kind.SPAWN, Kind.METADATA, Kind.HELMET);
+        Packet respawn = protocol.getPackets(viewerId).get(1);
+        expect(respawn.getEntityId() == entityId, "重新生成的實體 ID 錯誤: " + respawn);
+        expect(respawn.getX() == 20.5 && respawn.getY() == 100.75 && respawn.getZ() == 2.0,
+            "重新生成的位置錯誤: " + respawn);
+        protocol.clear();
+
+        // 觀看者切換世界：客戶端已清除實體，下次掃描時不送移除、直接重新生成
+        renderer.onPlayerChangedWorld(new PlayerChangedWorldEvent(viewer.getPlayer(), world));
+        int updates = 0;
+        while (updates < VIEWER_SCAN_INTERVAL && !protocol.getKinds(viewerId).contains(Kind.SPAWN)) {
+            location.add(0.0, 0.0, 0.1);
+            display.update(location, 10.0, 20.0, 30.0);
+            updates++;
+        }
+        List<Kind> kinds = protocol.getKinds(viewerId);
+        int spawnIndex = kinds.indexOf(Kind.SPAWN);
+        expect(spawnIndex >= 0, VIEWER_SCAN_INTERVAL + " 次更新內沒有為切換世界的觀看者重新生成: " + kinds);
+        expect(!kinds.contains(Kind.DESTROY), "切換世界的觀看者不應收到移除: " + kinds);
+        expect(kinds.subList(spawnIndex, kinds.size()).equals(List.of(Kind.SPAWN, Kind.METADATA, Kind.HELMET)),
+            "切換世界後的重新生成不完整: " + kinds);
+        expect(!protocol.getKinds(rider.getUniqueId()).contains(Kind.SPAWN), "未切換世界的觀看者不應重新生成");
+        protocol.clear();
+
+        // 移除：向所有觀看者送出移除
+        display.remove();
+        expectKinds("移除", viewerId, Kind.DESTROY);
+    }
+
+    private void expectKinds(String step, UUID viewerId, Kind... expected) {
+        List<Kind> actual = protocol.getKinds(viewerId);
+        expect(actual.equals(List.of(expected)), step + ": 預期 " + List.of(expected) + "，實際 " + actual);
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
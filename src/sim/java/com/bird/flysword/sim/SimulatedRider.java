@@ -0,0 +1,150 @@
+package com.bird.flysword.sim;
+
+import java.util.Random;
+
+import org.bukkit.util.Vector;
+
+import com.bird.flysword.flight.FlightController;
+import com.bird.flysword.headless.HeadlessPlayer;
+
+/**
+ * 模擬的飛行者
+ * 依腳本轉動視角與按下 Shift，效果與真實玩家的輸入相同：飛行引擎從朝向與蹲下狀態決定移動；
+ * 飛行結束（強制降落等）後等待一段時間重新起飛，讓同時飛行的人數維持穩定
+ */
+final class SimulatedRider {
+
+    /**
+     * 飛行腳本
+     */
+    enum Maneuver {
+        /** 固定角速度盤旋 */
+        CIRCLE,
+        /** 左右交替轉向，主方向緩慢旋轉 */
+        ZIGZAG,
+        /** 在兩個高度之間爬升與俯衝，同時緩慢轉向 */
+        CLIMB_DIVE
+    }
+
+    private static final int ZIGZAG_PERIOD_TICKS = 40;
+    private static final float ZIGZAG_ANGLE = 35.0f;
+    private static final float ZIGZAG_DRIFT = 0.5f;
+    private static final double CLIMB_BELOW_Y = 75.0;
+    private static final double DIVE_ABOVE_Y = 105.0;
+    private static final float CLIMB_PITCH = -30.0f; // 仰視時朝向向上
+    private static final float DIVE_PITCH = 40.0f; // 俯視超過 30 度時下降
+    private static final int SHORT_SNEAK_CHANCE = 400; // 每 tick 約 1/400 的機會短按 Shift
+    private static final int LONG_SNEAK_CHANCE = 20_000; // 長按到觸發 Shift 強制降落
+    private static final int LONG_SNEAK_TICKS = 220; // 11 秒，超過預設的 10 秒延遲
+    private static final int RELAUNCH_DELAY_TICKS = 60; // 3 秒，超過預設的 2 秒冷卻
+
+    private final HeadlessPlayer player;
+    private final Maneuver maneuver;
+    private final float turnRate;
+    private final int phase;
+    private float heading;
+    private boolean diving;
+    private int sneakTicks;
+    private int relaunchCountdown;
+    private long launches;
+    private long landings;
+    private boolean wasFlying;
+
+    SimulatedRider(HeadlessPlayer player, Maneuver maneuver, Random random) {
+        this.player = player;
+        this.maneuver = maneuver;
+        this.turnRate = (2.0f + random.nextFloat() * 3.0f) * (random.nextBoolean() ? 1.0f : -1.0f);
+        this.phase = random.nextInt(ZIGZAG_PERIOD_TICKS);
+        this.heading = player.getYaw();
+    }
+
+    /**
+     * 起飛，回傳是否成功
+     */
+    boolean launch(FlightController controller) {
+        if (controller.startFlight(player.getPlayer())) {
+            launches++;
+            wasFlying = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 在伺服器 tick 之前更新輸入
+     */
+    void steer(long tick, FlightController controller, Random random) {
+        boolean flying = controller.isFlying(player.getUniqueId());
+        if (!flying) {
+            if (wasFlying) {
+                wasFlying = false;
+                landings++;
+                sneakTicks = 0;
+                player.setSneaking(false);
+                // 飛行結束後替身不受重力，停在原地等待重新起飛
+                player.getPlayer().setVelocity(new Vector());
+                relaunchCountdown = RELAUNCH_DELAY_TICKS;
+            } else if (--relaunchCountdown <= 0) {
+                if (!launch(controller)) {
+                    relaunchCountdown = RELAUNCH_DELAY_TICKS;
+                }
+            }
+            return;
+        }
+
+        switch (maneuver) {
+            case CIRCLE:
+                heading = wrap(heading + turnRate);
+                player.setRotation(heading, 0.0f);
+                break;
+            case ZIGZAG:
+                heading = wrap(heading + ZIGZAG_DRIFT * Math.signum(turnRate));
+                boolean left = ((tick + phase) / (ZIGZAG_PERIOD_TICKS / 2)) % 2 == 0;
+                player.setRotation(wrap(heading + (left ? -ZIGZAG_ANGLE : ZIGZAG_ANGLE)), 0.0f);
+                break;
+            case CLIMB_DIVE:
+                double y = player.getY();
+                if (y < CLIMB_BELOW_Y) {
+                    diving = false;
+                } else if (y > DIVE_ABOVE_Y) {
+                    diving = true;
+                }
+                heading = wrap(heading + turnRate * 0.5f);
+                player.setRotation(heading, diving ? DIVE_PITCH : CLIMB_PITCH);
+                break;
+        }
+
+        if (sneakTicks > 0) {
+            if (--sneakTicks == 0) {
+                player.setSneaking(false);
+            }
+        } else if (random.nextInt(LONG_SNEAK_CHANCE) == 0) {
+            sneakTicks = LONG_SNEAK_TICKS;
+            player.setSneaking(true);
+        } else if (random.nextInt(SHORT_SNEAK_CHANCE) == 0) {
+            sneakTicks = 5 + random.nextInt(16);
+            player.setSneaking(true);
+        }
+    }
+
+    private static float wrap(float yaw) {
+        yaw %= 360.0f;
+        return yaw < -180.0f ? yaw + 360.0f : yaw >= 180.0f ? yaw - 360.0f : yaw;
+    }
+
+    HeadlessPlayer getPlayer() {
+        return player;
+    }
+
+    Maneuver getManeuver() {
+        return maneuver;
+    }
+
+    long getLaunches() {
+        return launches;
+    }
+
+    long getLandings() {
+        return landings;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bird.flysword.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 模擬期間累計的計數
+ * 登記只增不減的計數來源，在測量開始時取一次基準，報告時輸出與基準的差值
+ */
+final class SimulationCounters {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<LongSupplier> sources = new ArrayList<>();
+    private long[] baseline = new long[0];
+
+    void register(String name, LongSupplier source) {
+        names.add(name);
+        sources.add(source);
+    }
+
+    /**
+     * 以目前的數值作為基準
+     */
+    void mark() {
+        baseline = read();
+    }
+
+    /**
+     * 各計數自基準以來的增量，依登記順序
+     */
+    long[] deltas() {
+        long[] current = read();
+        for (int i = 0; i < current.length; i++) {
+            current[i] -= i < baseline.length ? baseline[i] : 0L;
+        }
+        return current;
+    }
+
+    List<String> getNames() {
+        return names;
+    }
+
+    private long[] read() {
+        long[] values = new long[sources.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sources.get(i).getAsLong();
+        }
+        return values;
+    }
+}